@@ -0,0 +1,68 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.AmortizationSchedule;
+import com.github.ciferliu.CurrencyFactory;
+import com.github.ciferliu.Money;
+import com.github.ciferliu.MoneyCalculator;
+
+/**
+ * Benchmarks of a 360-period equal instalment schedule: {@link AmortizationSchedule} against a
+ * {@link MoneyCalculator} per period.
+ *
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AmortizationScheduleBenchmark {
+    private static final double RATE = 0.06 / 12;
+    private static final int PERIODS = 360;
+
+    private MoneyCalculator calculator;
+    private Money principal;
+    private Money instalment;
+
+    @Setup
+    public void setup() {
+        calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        principal = CurrencyFactory.get("USD").fromMinorUnitValue(10000000);
+        instalment = AmortizationSchedule.equalInstalment(principal, RATE, PERIODS, RoundingMode.HALF_UP)
+            .getInstalment();
+    }
+
+    @Benchmark
+    public long schedule() {
+        long[] total = new long[1];
+        AmortizationSchedule.equalInstalment(principal, RATE, PERIODS, RoundingMode.HALF_UP)
+            .forEach((period, payment, principal, interest, balance) -> total[0] += interest);
+        return total[0];
+    }
+
+    @Benchmark
+    public Money calculatorPerPeriod() {
+        Money balance = principal;
+        for (int period = 1; period < PERIODS; period++) {
+            Money interest = calculator.init(balance).multiply(RATE).getResult();
+            balance = calculator.init(balance).subtract(calculator.init(instalment).subtract(interest).getResult())
+                .getResult();
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+
+import com.github.ciferliu.Currency;
+
+/**
+ * Currencies and inputs shared by the benchmarks.
+ * <p>
+ * Benchmarks run across scales 0, 2, 3 and 8, so self-defined currencies are used instead of the ones from
+ * {@code CurrencyFactory}. Inputs depend on the rounding mode: {@link RoundingMode#UNNECESSARY} throws on any inexact
+ * result, so it gets inputs and rates that never need rounding.
+ *
+ * @author Cifer Liu
+ */
+final class BenchmarkCurrencies {
+
+    private BenchmarkCurrencies() {}
+
+    /**
+     * a self-defined currency with the given scale
+     */
+    static Currency source(int scale) {
+        return new Currency("SRC" + scale, "S", scale);
+    }
+
+    /**
+     * a second self-defined currency with the given scale, the target of FX operations
+     */
+    static Currency target(int scale) {
+        return new Currency("TGT" + scale, "T", scale);
+    }
+
+    /**
+     * rate used by multiply/divide/FX operations
+     */
+    static double rate(RoundingMode roundingMode) {
+        return roundingMode == RoundingMode.UNNECESSARY ? 2 : 1.2345;
+    }
+
+    /**
+     * basic unit value used to build unrounded money
+     */
+    static double basicUnitValue(RoundingMode roundingMode) {
+        return roundingMode == RoundingMode.UNNECESSARY ? 1234 : 1234.567891234;
+    }
+}
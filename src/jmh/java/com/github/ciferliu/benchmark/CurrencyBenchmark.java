@@ -0,0 +1,73 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.Currency;
+import com.github.ciferliu.Money;
+import com.github.ciferliu.MoneyCalculator;
+
+/**
+ * Benchmarks of building {@link Money} from a {@link Currency}, as is and rounded by each rounding mode.
+ *
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurrencyBenchmark {
+
+    @Param({"UP", "DOWN", "CEILING", "FLOOR", "HALF_UP", "HALF_DOWN", "HALF_EVEN", "UNNECESSARY"})
+    public RoundingMode roundingMode;
+
+    @Param({"0", "2", "3", "8"})
+    public int scale;
+
+    private MoneyCalculator calculator;
+    private Currency currency;
+    private double basicUnitValue;
+    private long minorUnitValue;
+
+    @Setup
+    public void setup() {
+        calculator = MoneyCalculator.fromRoundingMode(roundingMode);
+        currency = BenchmarkCurrencies.source(scale);
+        basicUnitValue = BenchmarkCurrencies.basicUnitValue(roundingMode);
+        minorUnitValue = 123456789L;
+    }
+
+    @Benchmark
+    public Money fromBasicUnitValue() {
+        return currency.fromBasicUnitValue(basicUnitValue);
+    }
+
+    @Benchmark
+    public Money fromMinorUnitValue() {
+        return currency.fromMinorUnitValue(minorUnitValue);
+    }
+
+    @Benchmark
+    public Money fromBasicUnitValueRounded() {
+        return calculator.init(currency.fromBasicUnitValue(basicUnitValue)).getResult();
+    }
+
+    @Benchmark
+    public Money fromMinorUnitValueRounded() {
+        return calculator.init(currency.fromMinorUnitValue(minorUnitValue)).getResult();
+    }
+}
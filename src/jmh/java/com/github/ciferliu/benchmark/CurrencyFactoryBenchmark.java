@@ -0,0 +1,55 @@
+package com.github.ciferliu.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.Currency;
+import com.github.ciferliu.CurrencyFactory;
+
+/**
+ * Benchmarks of {@link CurrencyFactory} lookups by code.
+ * <p>
+ * Currency lookup has no scale or rounding mode, the parameter is the shape of the code instead.
+ *
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurrencyFactoryBenchmark {
+
+    @Param({"USD", "usd", " USD "})
+    public String code;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        bytes = code.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public Currency get() {
+        return CurrencyFactory.get(code);
+    }
+
+    @Benchmark
+    public Currency getByBytes() {
+        return CurrencyFactory.get(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.Currency;
+import com.github.ciferliu.CurrencyFactory;
+import com.github.ciferliu.Money;
+import com.github.ciferliu.MoneyAdder;
+import com.github.ciferliu.MoneyCalculator;
+
+/**
+ * Benchmarks of a running total shared by all benchmark threads: {@link MoneyAdder} against a locked
+ * {@link MoneyCalculator}. Run with {@code -t} to vary the threads, e.g. {@code -Djmh.args="MoneyAdder -t 8"}.
+ *
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class MoneyAdderBenchmark {
+
+    private MoneyAdder adder;
+    private MoneyCalculator calculator;
+    private Money m;
+
+    @Setup
+    public void setup() {
+        Currency usd = CurrencyFactory.get("USD");
+        m = usd.fromMinorUnitValue(123);
+        adder = new MoneyAdder(usd, RoundingMode.HALF_UP);
+        calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).init(usd.fromMinorUnitValue(0));
+    }
+
+    @Benchmark
+    public void adder() {
+        adder.add(m);
+    }
+
+    @Benchmark
+    public void lockedCalculator() {
+        synchronized (calculator) {
+            calculator.add(m);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.Currency;
+import com.github.ciferliu.Money;
+import com.github.ciferliu.MoneyCalculator;
+import com.github.ciferliu.MoneyFormat;
+
+/**
+ * Benchmarks of {@link Money} accessors, on unrounded money and on money rounded by each rounding mode.
+ *
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    @Param({"UP", "DOWN", "CEILING", "FLOOR", "HALF_UP", "HALF_DOWN", "HALF_EVEN", "UNNECESSARY"})
+    public RoundingMode roundingMode;
+
+    @Param({"0", "2", "3", "8"})
+    public int scale;
+
+    private Money unRounded;
+    private Money rounded;
+    private final StringBuilder builder = new StringBuilder(64);
+
+    @Setup
+    public void setup() {
+        Currency currency = BenchmarkCurrencies.source(scale);
+        unRounded = currency.fromBasicUnitValue(BenchmarkCurrencies.basicUnitValue(roundingMode));
+        rounded = MoneyCalculator.fromRoundingMode(roundingMode)
+            .init(currency.fromBasicUnitValue(BenchmarkCurrencies.basicUnitValue(roundingMode))).getResult();
+    }
+
+    @Benchmark
+    public long getMinorUnitValue() {
+        return rounded.getMinorUnitValue();
+    }
+
+    @Benchmark
+    public long getMinorUnitValueUnRounded() {
+        return unRounded.getMinorUnitValue();
+    }
+
+    @Benchmark
+    public String toStringRounded() {
+        return rounded.toString();
+    }
+
+    @Benchmark
+    public String toStringUnRounded() {
+        return unRounded.toString();
+    }
+
+    @Benchmark
+    public StringBuilder formatRounded() {
+        builder.setLength(0);
+        return MoneyFormat.DEFAULT.format(rounded, builder);
+    }
+}
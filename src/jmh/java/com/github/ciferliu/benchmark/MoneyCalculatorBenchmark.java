@@ -0,0 +1,122 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.Currency;
+import com.github.ciferliu.DeferredMoneyCalculator;
+import com.github.ciferliu.Money;
+import com.github.ciferliu.MoneyCalculator;
+import com.github.ciferliu.Rate;
+
+/**
+ * Benchmarks of {@link MoneyCalculator} operations.
+ *
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyCalculatorBenchmark {
+
+    @Param({"UP", "DOWN", "CEILING", "FLOOR", "HALF_UP", "HALF_DOWN", "HALF_EVEN", "UNNECESSARY"})
+    public RoundingMode roundingMode;
+
+    @Param({"0", "2", "3", "8"})
+    public int scale;
+
+    private MoneyCalculator calculator;
+    private DeferredMoneyCalculator deferredCalculator;
+    private Currency target;
+    private Money m1;
+    private Money m2;
+    private double rate;
+    private Rate exactRate;
+
+    @Setup
+    public void setup() {
+        Currency source = BenchmarkCurrencies.source(scale);
+        target = BenchmarkCurrencies.target(scale);
+        calculator = MoneyCalculator.fromRoundingMode(roundingMode);
+        deferredCalculator = DeferredMoneyCalculator.fromRoundingMode(roundingMode);
+        m1 = source.fromMinorUnitValue(123456);
+        m2 = source.fromMinorUnitValue(7890);
+        rate = BenchmarkCurrencies.rate(roundingMode);
+        exactRate = Rate.of(rate);
+    }
+
+    @Benchmark
+    public Money add() {
+        return calculator.init(m1).add(m2).getResult();
+    }
+
+    @Benchmark
+    public Money subtract() {
+        return calculator.init(m1).subtract(m2).getResult();
+    }
+
+    @Benchmark
+    public Money multiply() {
+        return calculator.init(m1).multiply(rate).getResult();
+    }
+
+    @Benchmark
+    public Money multiplyRate() {
+        return calculator.init(m1).multiply(exactRate).getResult();
+    }
+
+    @Benchmark
+    public Money divide() {
+        return calculator.init(m1).divide(rate).getResult();
+    }
+
+    @Benchmark
+    public Money divideRate() {
+        return calculator.init(m1).divide(exactRate).getResult();
+    }
+
+    @Benchmark
+    public Money fxByMultiply() {
+        return calculator.init(m1).fxByMultiply(target, rate).getResult();
+    }
+
+    @Benchmark
+    public Money fxByMultiplyRate() {
+        return calculator.init(m1).fxByMultiply(target, exactRate).getResult();
+    }
+
+    @Benchmark
+    public Money fxByDivide() {
+        return calculator.init(m1).fxByDivide(target, rate).getResult();
+    }
+
+    @Benchmark
+    public Money chain() {
+        return calculator.init(m1).multiply(rate).add(m2).multiply(rate).getResult();
+    }
+
+    @Benchmark
+    public Money deferredChain() {
+        return deferredCalculator.init(m1).multiply(rate).add(m2).multiply(rate).getResult();
+    }
+
+    @Benchmark
+    public int compare() {
+        return calculator.compare(m1, m2);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.Currency;
+import com.github.ciferliu.CurrencyFactory;
+import com.github.ciferliu.Money;
+import com.github.ciferliu.MoneyFormula;
+import com.github.ciferliu.MoneyPipeline;
+import com.github.ciferliu.MoneyWindowAggregator;
+
+/**
+ * Throughput of {@link MoneyPipeline} into a {@link MoneyWindowAggregator}, by the batch size of the draining task.
+ * 
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyPipelineBenchmark {
+    private static final int EVENTS = 100000;
+
+    @Param({"1", "64", "512"})
+    private int batchSize;
+
+    private MoneyFormula formula;
+    private Money[] events;
+
+    @Setup
+    public void setup() {
+        Currency cny = CurrencyFactory.get("CNY");
+        formula = MoneyFormula.builder(cny, RoundingMode.HALF_UP).multiply(0.003).build();
+        events = new Money[1024];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = cny.fromMinorUnitValue(i * 37);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long pipeline() throws InterruptedException {
+        MoneyWindowAggregator aggregator = new MoneyWindowAggregator(1000, RoundingMode.HALF_UP, window -> {});
+        MoneyPipeline pipeline = MoneyPipeline.builder(aggregator).formula(formula).batchSize(batchSize).build();
+        for (int i = 0; i < EVENTS; i++) {
+            pipeline.submit(events[i & (events.length - 1)]);
+        }
+        pipeline.close();
+        pipeline.awaitTermination(1, TimeUnit.MINUTES);
+        return pipeline.getProcessedCount();
+    }
+}
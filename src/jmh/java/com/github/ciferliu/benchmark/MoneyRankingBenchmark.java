@@ -0,0 +1,91 @@
+package com.github.ciferliu.benchmark;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ciferliu.Currency;
+import com.github.ciferliu.CurrencyFactory;
+import com.github.ciferliu.Money;
+import com.github.ciferliu.MoneyCalculator;
+import com.github.ciferliu.MoneyRanking;
+
+/**
+ * Benchmarks of ranking amounts: {@link MoneyRanking} against sorting by {@link MoneyCalculator#compare}.
+ *
+ * @author Cifer Liu
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyRankingBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private MoneyCalculator calculator;
+    private Money[] monies;
+    private long[] minorUnitValues;
+
+    @Setup
+    public void setup() {
+        Currency usd = CurrencyFactory.get("USD");
+        calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Random random = new Random(42);
+        monies = new Money[size];
+        minorUnitValues = new long[size];
+        for (int i = 0; i < size; i++) {
+            minorUnitValues[i] = random.nextInt(100000000);
+            monies[i] = usd.fromMinorUnitValue(minorUnitValues[i]);
+        }
+    }
+
+    @Benchmark
+    public Money[] sortByCalculator() {
+        Money[] copy = monies.clone();
+        Arrays.sort(copy, calculator::compare);
+        return copy;
+    }
+
+    @Benchmark
+    public Money[] sortNatural() {
+        Money[] copy = monies.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public Money[] sortRadix() {
+        Money[] copy = monies.clone();
+        MoneyRanking.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public long[] sortMinorUnitValues() {
+        long[] copy = minorUnitValues.clone();
+        MoneyRanking.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] topK() {
+        return MoneyRanking.topK(minorUnitValues, 100);
+    }
+}
@@ -0,0 +1,413 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The schedule of a loan or a deposit, equal instalment, equal principal or compound interest - <strong>immutable and
+ * threadsafe</strong>.
+ * <p>
+ * 每期利息为{@code round(余额 * 期利率)}，以最小单位的{@code long}按{@link MinorUnitMath}计算，利率在构造时只转换一次；
+ * 等额本息的每期还款额、复利的期末余额由{@code (1 + 期利率)^期数}在构造时一次算出。舍入产生的差额固定由最后一期承担：
+ * 等额本息、等额本金的最后一期归还全部剩余本金，复利的最后一期利息使期末余额等于{@code round(本金 * (1 + 期利率)^期数)}。<br>
+ * 各期按需逐期计算，不保存整张表：{@link #forEach(ScheduleHandler)}每期不创建对象，{@link #iterator()}、{@link #stream()}
+ * 每期创建一个{@link SchedulePeriod}。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * AmortizationSchedule schedule =
+ *     AmortizationSchedule.equalInstalment(usd.fromBasicUnitValue(100000), 0.06 / 12, 360, RoundingMode.HALF_UP);
+ * Money instalment = schedule.getInstalment();// US$599.55
+ * schedule.forEach((period, payment, principal, interest, balance) -&gt; ...);
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class AmortizationSchedule implements Iterable<SchedulePeriod> {
+    /**
+     * the precision of the powers of the growth factor {@code 1 + periodRate}
+     */
+    private static final MathContext POWER_CONTEXT = MathContext.DECIMAL128;
+    private static final BigDecimal MINUS_ONE = BigDecimal.ONE.negate();
+
+    public enum Type {
+        /**
+         * the same payment every period, the last one settles the remaining principal, and no period repays more
+         * than the balance
+         */
+        EQUAL_INSTALMENT,
+        /**
+         * the same principal every period plus the interest, the last one settles the remaining principal, and no
+         * period repays more than the balance
+         */
+        EQUAL_PRINCIPAL,
+        /**
+         * no payment, the interest is added to the balance every period
+         */
+        COMPOUND_INTEREST
+    }
+
+    private final Type type;
+    private final Currency currency;
+    private final long principal;
+    private final Rate periodRate;
+    private final int periods;
+    private final RoundingMode roundingMode;
+    private final MoneyArithmetic arithmetic;
+    private final int scale;
+    /**
+     * the regular payment of equal instalment, the regular principal of equal principal, or the final balance of
+     * compound interest
+     */
+    private final long amount;
+
+    private AmortizationSchedule(Type type, Money principal, Rate periodRate, int periods,
+        RoundingMode roundingMode) {
+        if (principal == null || roundingMode == null || periods < 1 || periodRate == null
+            || periodRate.toBigDecimal().compareTo(MINUS_ONE) <= 0) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        this.arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
+        Money rounded = arithmetic.round(principal);
+        if (!rounded.isCompact()) {
+            throw new IllegalArgumentException("principal is out of range");
+        }
+        this.type = type;
+        this.currency = rounded.getCurrency();
+        this.principal = rounded.minorUnitValue();
+        this.periodRate = periodRate;
+        this.periods = periods;
+        this.roundingMode = roundingMode;
+        this.scale = currency.getScale();
+        this.amount = amount();
+    }
+
+    /**
+     * the schedule of equal instalments (annuity): {@code payment = principal * r * (1 + r)^n / ((1 + r)^n - 1)}
+     * 
+     * @param principal
+     * @param periodRate
+     *            - the interest rate per period, e.g. {@code annualRate / 12}, larger than -1
+     * @param periods
+     *            - the number of periods, positive
+     * @param roundingMode
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument is illegal
+     */
+    public static AmortizationSchedule equalInstalment(Money principal, double periodRate, int periods,
+        RoundingMode roundingMode) {
+        return new AmortizationSchedule(Type.EQUAL_INSTALMENT, principal, Rate.of(periodRate), periods, roundingMode);
+    }
+
+    /**
+     * the same as {@link #equalInstalment(Money, double, int, RoundingMode)}, with an exact rate
+     * 
+     * @param principal
+     * @param periodRate
+     *            - the interest rate per period, e.g. {@code annualRate / 12}, larger than -1
+     * @param periods
+     *            - the number of periods, positive
+     * @param roundingMode
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument is illegal
+     */
+    public static AmortizationSchedule equalInstalment(Money principal, Rate periodRate, int periods,
+        RoundingMode roundingMode) {
+        return new AmortizationSchedule(Type.EQUAL_INSTALMENT, principal, periodRate, periods, roundingMode);
+    }
+
+    /**
+     * the schedule of equal principal: {@code payment = principal / n + balance * r}
+     * 
+     * @param principal
+     * @param periodRate
+     *            - the interest rate per period, larger than -1
+     * @param periods
+     *            - the number of periods, positive
+     * @param roundingMode
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument is illegal
+     */
+    public static AmortizationSchedule equalPrincipal(Money principal, double periodRate, int periods,
+        RoundingMode roundingMode) {
+        return new AmortizationSchedule(Type.EQUAL_PRINCIPAL, principal, Rate.of(periodRate), periods, roundingMode);
+    }
+
+    /**
+     * the same as {@link #equalPrincipal(Money, double, int, RoundingMode)}, with an exact rate
+     * 
+     * @param principal
+     * @param periodRate
+     *            - the interest rate per period, larger than -1
+     * @param periods
+     *            - the number of periods, positive
+     * @param roundingMode
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument is illegal
+     */
+    public static AmortizationSchedule equalPrincipal(Money principal, Rate periodRate, int periods,
+        RoundingMode roundingMode) {
+        return new AmortizationSchedule(Type.EQUAL_PRINCIPAL, principal, periodRate, periods, roundingMode);
+    }
+
+    /**
+     * the schedule of compound interest: {@code balance = balance + balance * r} every period
+     * 
+     * @param principal
+     * @param periodRate
+     *            - the interest rate per period, larger than -1
+     * @param periods
+     *            - the number of periods, positive
+     * @param roundingMode
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument is illegal
+     * @throws ArithmeticException
+     *             if the final balance is out of {@code long} range in minor unit
+     */
+    public static AmortizationSchedule compoundInterest(Money principal, double periodRate, int periods,
+        RoundingMode roundingMode) {
+        return new AmortizationSchedule(Type.COMPOUND_INTEREST, principal, Rate.of(periodRate), periods, roundingMode);
+    }
+
+    /**
+     * the same as {@link #compoundInterest(Money, double, int, RoundingMode)}, with an exact rate
+     * 
+     * @param principal
+     * @param periodRate
+     *            - the interest rate per period, larger than -1
+     * @param periods
+     *            - the number of periods, positive
+     * @param roundingMode
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument is illegal
+     * @throws ArithmeticException
+     *             if the final balance is out of {@code long} range in minor unit
+     */
+    public static AmortizationSchedule compoundInterest(Money principal, Rate periodRate, int periods,
+        RoundingMode roundingMode) {
+        return new AmortizationSchedule(Type.COMPOUND_INTEREST, principal, periodRate, periods, roundingMode);
+    }
+
+    private long amount() {
+        switch (type) {
+            case EQUAL_INSTALMENT:
+                if (periodRate.signum() == 0) {
+                    return MinorUnitMath.divideAndRound(principal, periods, roundingMode);
+                }
+                BigDecimal rate = periodRate.toBigDecimal();
+                BigDecimal factor = BigDecimal.ONE.add(rate).pow(periods, POWER_CONTEXT);
+                return BigDecimal.valueOf(principal).multiply(rate).multiply(factor)
+                    .divide(factor.subtract(BigDecimal.ONE), POWER_CONTEXT).setScale(0, roundingMode)
+                    .longValueExact();
+            case EQUAL_PRINCIPAL:
+                return MinorUnitMath.divideAndRound(principal, periods, roundingMode);
+            default:
+                return BigDecimal.valueOf(principal)
+                    .multiply(BigDecimal.ONE.add(periodRate.toBigDecimal()).pow(periods, POWER_CONTEXT))
+                    .setScale(0, roundingMode).longValueExact();
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * get the rounded principal
+     * 
+     * @return
+     */
+    public Money getPrincipal() {
+        return Money.rounded(currency, principal);
+    }
+
+    public double getPeriodRate() {
+        return periodRate.doubleValue();
+    }
+
+    public int getPeriods() {
+        return periods;
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * get the regular payment of equal instalment, the last one may differ
+     * 
+     * @return null if the type is not {@link Type#EQUAL_INSTALMENT}
+     */
+    public Money getInstalment() {
+        return type == Type.EQUAL_INSTALMENT ? Money.rounded(currency, amount) : null;
+    }
+
+    /**
+     * get the sum of the interest of all periods, computed period by period
+     * 
+     * @return
+     */
+    public Money getTotalInterest() {
+        Cursor cursor = new Cursor();
+        long total = 0;
+        while (cursor.advance()) {
+            total = Math.addExact(total, cursor.interest);
+        }
+        return Money.rounded(currency, total);
+    }
+
+    /**
+     * compute the periods one by one, and pass each to the handler, without an object per period
+     * 
+     * @param handler
+     * @throws ArithmeticException
+     *             if an amount is out of {@code long} range in minor unit
+     */
+    public void forEach(ScheduleHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        Cursor cursor = new Cursor();
+        while (cursor.advance()) {
+            handler.accept(cursor.period, cursor.payment, cursor.principal, cursor.interest, cursor.balance);
+        }
+    }
+
+    /**
+     * a lazy iterator of the periods, each period is computed on {@code next()}
+     */
+    @Override
+    public Iterator<SchedulePeriod> iterator() {
+        Cursor cursor = new Cursor();
+        return new Iterator<SchedulePeriod>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.period < periods;
+            }
+
+            @Override
+            public SchedulePeriod next() {
+                if (!cursor.advance()) {
+                    throw new NoSuchElementException();
+                }
+                return new SchedulePeriod(currency, cursor.period, cursor.payment, cursor.principal, cursor.interest,
+                    cursor.balance);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<SchedulePeriod> spliterator() {
+        return Spliterators.spliterator(iterator(), periods,
+            Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * a lazy, sequential stream of the periods
+     * 
+     * @return
+     */
+    public Stream<SchedulePeriod> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * {@code round(balance * periodRate)}
+     */
+    private long interestOf(long balance) {
+        if (periodRate.isCompact()) {
+            try {
+                return arithmetic.multiplyMinorUnitValue(balance, scale, periodRate, scale);
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        return BigDecimal.valueOf(balance).multiply(periodRate.toBigDecimal()).setScale(0, roundingMode)
+            .longValueExact();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(128);
+        builder.append("AmortizationSchedule [type=");
+        builder.append(type);
+        builder.append(", principal=");
+        builder.append(getPrincipal());
+        builder.append(", periodRate=");
+        builder.append(periodRate);
+        builder.append(", periods=");
+        builder.append(periods);
+        builder.append(", roundingMode=");
+        builder.append(roundingMode);
+        builder.append("]");
+        return builder.toString();
+    }
+
+    /**
+     * the state of an iteration over the periods
+     */
+    private final class Cursor {
+        int period;
+        long payment;
+        long principal;
+        long interest;
+        long balance = AmortizationSchedule.this.principal;
+
+        /**
+         * compute the next period
+         * 
+         * @return false if all of the periods are computed
+         */
+        boolean advance() {
+            if (period == periods) {
+                return false;
+            }
+            period++;
+            boolean last = period == periods;
+            switch (type) {
+                case EQUAL_INSTALMENT:
+                    interest = interestOf(balance);
+                    principal = last ? balance : cap(Math.subtractExact(amount, interest));
+                    payment = Math.addExact(principal, interest);
+                    balance = Math.subtractExact(balance, principal);
+                    break;
+                case EQUAL_PRINCIPAL:
+                    interest = interestOf(balance);
+                    principal = last ? balance : cap(amount);
+                    payment = Math.addExact(principal, interest);
+                    balance = Math.subtractExact(balance, principal);
+                    break;
+                default:
+                    interest = last ? Math.subtractExact(amount, balance) : interestOf(balance);
+                    balance = Math.addExact(balance, interest);
+            }
+            return true;
+        }
+
+        /**
+         * no more than the balance: a regular principal rounded up would otherwise overpay the balance before the
+         * last period, which then becomes a negative payment
+         */
+        private long cap(long regular) {
+            return AmortizationSchedule.this.principal >= 0 ? Math.min(regular, balance) : Math.max(regular, balance);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parsing of plain decimal amount text, e.g. {@code "-1234.5678"}, straight into minor units, without
+ * {@code String}, {@code double} or {@code BigDecimal} on the common path.
+ * <p>
+ * The result is exactly {@code new BigDecimal(text).setScale(scale, roundingMode).unscaledValue().longValueExact()}.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+final class AmountText {
+    private AmountText() {}
+
+    /**
+     * parse the ASCII amount in {@code [from, to)} of the byte array, leading and trailing whitespace ignored
+     * 
+     * @param text
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     * @param scale
+     *            - the scale of minor unit
+     * @param roundingMode
+     *            - for the digits beyond the scale
+     * @return the amount in minor unit
+     * @throws NumberFormatException
+     *             if the text is not a plain decimal number
+     * @throws ArithmeticException
+     *             if the amount is out of {@code long} range, or rounding is necessary for
+     *             {@link RoundingMode#UNNECESSARY}
+     */
+    static long parse(byte[] text, int from, int to, int scale, RoundingMode roundingMode) {
+        while (from < to && (text[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (text[to - 1] & 0xFF) <= ' ') {
+            to--;
+        }
+        int i = from;
+        boolean negative = false;
+        if (i < to && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean overflow = false;
+        for (; i < to; i++) {
+            int c = text[i];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (!overflow) {
+                    if (unscaled > (Long.MAX_VALUE - 9) / 10) {
+                        overflow = true;
+                    } else {
+                        unscaled = unscaled * 10 + (c - '0');
+                    }
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                throw new NumberFormatException("illegal amount: " + ascii(text, from, to));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("illegal amount: " + ascii(text, from, to));
+        }
+        if (!overflow) {
+            try {
+                return MinorUnitMath.scaleByPowerOfTen(negative ? -unscaled : unscaled,
+                    scale - Math.max(fractionDigits, 0), roundingMode);
+            } catch (ArithmeticException e) {
+                // out of long range, fall through to the BigDecimal path
+            }
+        }
+        return new BigDecimal(ascii(text, from, to)).setScale(scale, roundingMode).unscaledValue().longValueExact();
+    }
+
+    private static String ascii(byte[] text, int from, int to) {
+        return new String(text, from, to - from, StandardCharsets.US_ASCII);
+    }
+}
@@ -10,21 +10,47 @@ import java.util.Objects;
  * @since 1.0.0
  */
 public class Currency {
+    /**
+     * The id of unregistered currency.
+     */
+    static final int UNREGISTERED_ID = -1;
+
+    /**
+     * The dense id assigned by {@link CurrencyFactory}, {@link #UNREGISTERED_ID} for self-constructed currency.
+     */
+    private final int id;
 
     /**
      * The alpha code of currency.
      */
-    private String code;
+    private final String code;
 
     /**
      * The symbol of currency.
      */
-    private String symbol;
+    private final String symbol;
 
     /**
      * The number of digits after the decimal separator.
      */
-    private int scale;
+    private final int scale;
+
+    private final int hashCode;
+
+    /**
+     * 10^scale, 0 if out of {@code long} range
+     */
+    private final long minorUnitFactor;
+
+    /**
+     * 10^scale
+     */
+    private final BigDecimal minorUnitFactorDecimal;
+
+    /**
+     * canonical instances of frequently used money, built on first use
+     */
+    private Money.Cache moneyCache;
 
     /**
      * Currency constructor
@@ -37,13 +63,60 @@ public class Currency {
      *            - can't less than 0
      */
     public Currency(String code, String symbol, int scale) {
+        this(UNREGISTERED_ID, code, symbol, scale);
+    }
+
+    /**
+     * Registered currency constructor, only for {@link CurrencyFactory}
+     */
+    Currency(int id, String code, String symbol, int scale) {
         if (code == null || symbol == null || scale < 0) {
             throw new IllegalArgumentException("param is illegal");
         }
 
+        this.id = id;
         this.code = code;
         this.symbol = symbol;
         this.scale = scale;
+        this.hashCode = Objects.hash(code);
+        this.minorUnitFactor = scale < MinorUnitMath.POWERS_OF_TEN.length ? MinorUnitMath.POWERS_OF_TEN[scale] : 0;
+        this.minorUnitFactorDecimal = BigDecimal.TEN.pow(scale);
+    }
+
+    /**
+     * get the dense id assigned by {@link CurrencyFactory}, ids are small non-negative integers, one per code, and
+     * never reused.
+     * 
+     * @return the id, or -1 if the currency is not from {@link CurrencyFactory}
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 10^scale, 0 if out of {@code long} range
+     */
+    long minorUnitFactor() {
+        return minorUnitFactor;
+    }
+
+    /**
+     * 10^scale
+     */
+    BigDecimal minorUnitFactorDecimal() {
+        return minorUnitFactorDecimal;
+    }
+
+    /**
+     * the cache is immutable apart from its lazily filled slots, a race only builds it twice
+     */
+    Money.Cache moneyCache() {
+        Money.Cache cache = moneyCache;
+        if (cache == null) {
+            cache = new Money.Cache(this);
+            moneyCache = cache;
+        }
+        return cache;
     }
 
     public String getCode() {
@@ -82,12 +155,12 @@ public class Currency {
      * @return
      */
     public Money fromMinorUnitValue(long minorUnitValue) {
-        return Money.unRound(this, BigDecimal.valueOf(minorUnitValue).divide(BigDecimal.TEN.pow(scale)));
+        return Money.unRound(this, minorUnitValue);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(code);
+        return hashCode;
     }
 
     @Override
@@ -102,6 +175,10 @@ public class Currency {
             return false;
         }
         Currency other = (Currency)obj;
+        // one id per code, so comparing ids is comparing codes
+        if (id != UNREGISTERED_ID && other.id != UNREGISTERED_ID) {
+            return id == other.id;
+        }
         return Objects.equals(code, other.code);
     }
 
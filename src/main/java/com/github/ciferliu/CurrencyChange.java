@@ -0,0 +1,66 @@
+package com.github.ciferliu;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, thread-safe, the difference between the currencies before and after a {@link CurrencyFactory} reload.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class CurrencyChange {
+    private final List<Currency> added;
+    private final List<Currency> modified;
+    private final List<Currency> removed;
+
+    CurrencyChange(List<Currency> added, List<Currency> modified, List<Currency> removed) {
+        this.added = Collections.unmodifiableList(added);
+        this.modified = Collections.unmodifiableList(modified);
+        this.removed = Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * get the newly registered currencies
+     * 
+     * @return
+     */
+    public List<Currency> getAdded() {
+        return added;
+    }
+
+    /**
+     * get the currencies whose symbol changed, the new instances with the same ids
+     * 
+     * @return
+     */
+    public List<Currency> getModified() {
+        return modified;
+    }
+
+    /**
+     * get the currencies no longer registered, the old instances
+     * 
+     * @return
+     */
+    public List<Currency> getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && modified.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(64);
+        builder.append("CurrencyChange [added=");
+        builder.append(added);
+        builder.append(", modified=");
+        builder.append(modified);
+        builder.append(", removed=");
+        builder.append(removed);
+        builder.append("]");
+        return builder.toString();
+    }
+}
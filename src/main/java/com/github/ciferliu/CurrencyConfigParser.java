@@ -0,0 +1,254 @@
+package com.github.ciferliu;
+
+/**
+ * The minimal parser of the currency config JSON, without a JSON library.
+ * <p>
+ * The config is an array of objects, e.g. {@code [{"code":"INR","symbol":"₹","scale":2}]}. Objects without a string
+ * "code", a string "symbol" or a non-negative integer "scale" are skipped, and other members are ignored, whatever
+ * their values are.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+final class CurrencyConfigParser {
+    private final CharSequence json;
+    private int pos;
+
+    private CurrencyConfigParser(CharSequence json) {
+        this.json = json;
+    }
+
+    /**
+     * parse the config, and register each currency in order
+     * 
+     * @throws IllegalArgumentException
+     *             if the config is not valid JSON, or not an array of objects
+     */
+    static void parse(CharSequence json, CurrencyFactory.Registrar registrar) {
+        CurrencyConfigParser parser = new CurrencyConfigParser(json);
+        if (parser.peek() == '\uFEFF') {
+            parser.pos++;
+        }
+        parser.expect('[');
+        if (parser.peek() == ']') {
+            parser.pos++;
+        } else {
+            do {
+                parser.parseCurrency(registrar);
+            } while (parser.comma(']'));
+        }
+        if (parser.peek() != -1) {
+            throw parser.error();
+        }
+    }
+
+    private void parseCurrency(CurrencyFactory.Registrar registrar) {
+        expect('{');
+        String code = null;
+        String symbol = null;
+        long scale = -1;
+        if (peek() == '}') {
+            pos++;
+        } else {
+            do {
+                String name = parseString();
+                expect(':');
+                int c = peek();
+                if (c == '"' && ("code".equals(name) || "symbol".equals(name))) {
+                    String value = parseString();
+                    if ("code".equals(name)) {
+                        code = value;
+                    } else {
+                        symbol = value;
+                    }
+                } else if ("scale".equals(name) && (c == '-' || (c >= '0' && c <= '9'))) {
+                    scale = parseInteger();
+                } else {
+                    skipValue();
+                }
+            } while (comma('}'));
+        }
+        if (code != null && symbol != null && scale >= 0 && scale <= Integer.MAX_VALUE) {
+            registrar.register(code.toUpperCase(), symbol, (int)scale);
+        }
+    }
+
+    /**
+     * consume a ',' and return true, or the closing char and return false
+     */
+    private boolean comma(char close) {
+        int c = peek();
+        pos++;
+        if (c == ',') {
+            return true;
+        }
+        if (c == close) {
+            return false;
+        }
+        throw error();
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw error();
+        }
+        pos++;
+    }
+
+    /**
+     * skip whitespace and return the next char, -1 at the end
+     */
+    private int peek() {
+        while (pos < json.length()) {
+            char c = json.charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return c;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    private String parseString() {
+        expect('"');
+        StringBuilder builder = new StringBuilder(8);
+        for (;;) {
+            if (pos >= json.length()) {
+                throw error();
+            }
+            char c = json.charAt(pos++);
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (pos >= json.length()) {
+                throw error();
+            }
+            c = json.charAt(pos++);
+            switch (c) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (pos + 4 > json.length()) {
+                        throw error();
+                    }
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(json.charAt(pos++), 16);
+                        if (digit < 0) {
+                            throw error();
+                        }
+                        code = code << 4 | digit;
+                    }
+                    builder.append((char)code);
+                    break;
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append(c);
+                    break;
+                default:
+                    throw error();
+            }
+        }
+    }
+
+    /**
+     * parse an integer, -1 for other numbers, e.g. {@code 2.5} or out of {@code long} range
+     */
+    private long parseInteger() {
+        int start = pos;
+        skipNumber();
+        String text = json.subSequence(start, pos).toString();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void skipNumber() {
+        int start = pos;
+        while (pos < json.length()) {
+            char c = json.charAt(pos);
+            if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                break;
+            }
+            pos++;
+        }
+        if (pos == start) {
+            throw error();
+        }
+    }
+
+    private void skipValue() {
+        int c = peek();
+        switch (c) {
+            case '"':
+                parseString();
+                break;
+            case '[':
+                pos++;
+                if (peek() == ']') {
+                    pos++;
+                } else {
+                    do {
+                        skipValue();
+                    } while (comma(']'));
+                }
+                break;
+            case '{':
+                pos++;
+                if (peek() == '}') {
+                    pos++;
+                } else {
+                    do {
+                        parseString();
+                        expect(':');
+                        skipValue();
+                    } while (comma('}'));
+                }
+                break;
+            case 't':
+                skipLiteral("true");
+                break;
+            case 'f':
+                skipLiteral("false");
+                break;
+            case 'n':
+                skipLiteral("null");
+                break;
+            default:
+                skipNumber();
+        }
+    }
+
+    private void skipLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (pos >= json.length() || json.charAt(pos) != literal.charAt(i)) {
+                throw error();
+            }
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("illegal currencies config at " + pos);
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.ciferliu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches a currency config file and reloads {@link CurrencyFactory} whenever the file is created or modified -
+ * <strong>threadsafe</strong>.
+ * <p>
+ * The directory of the file is watched by a {@link WatchService} in a daemon thread. A reload which fails, e.g. on a
+ * half-written file, keeps the current currencies; the next modification of the file reloads again, and the failure
+ * is available from {@link #getLastError()}.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see CurrencyFactory#watch(Path)
+ */
+public final class CurrencyConfigWatcher implements Closeable {
+    private final Path configFile;
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile RuntimeException lastError;
+
+    CurrencyConfigWatcher(Path configFile) throws IOException {
+        this.configFile = configFile.toAbsolutePath();
+        Path dir = this.configFile.getParent();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.thread = new Thread(this::run, "currency-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Path getConfigFile() {
+        return configFile;
+    }
+
+    /**
+     * get the failure of the last reload
+     * 
+     * @return null if the last reload succeeded, or no reload happened
+     */
+    public RuntimeException getLastError() {
+        return lastError;
+    }
+
+    private void run() {
+        Path fileName = configFile.getFileName();
+        try {
+            for (;;) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private void reload() {
+        try {
+            CurrencyFactory.reload(configFile);
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e;
+        }
+    }
+
+    /**
+     * stop watching
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
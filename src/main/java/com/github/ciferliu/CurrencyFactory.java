@@ -1,21 +1,27 @@
 package com.github.ciferliu;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.io.Resources;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * The factory of currency.
  * <p>
- * 内置支持币种：
+ * 内置支持全部ISO 4217现行币种，其中：
  * <ul>
  * <li>CNY - 人民币（symbol="¥", scale=2）</li>
  * <li>USD - 美元（symbol="US$", scale=2）</li>
  * </ul>
+ * 内置币种表预编译在类中，加载时无需读取文件或解析JSON；配置文件由内置的轻量解析器读取，不依赖第三方库。<br>
  * 应用可扩展和覆盖内置币种配置，扩展方法：将名为"currency_factory_config.json"配置文件放置在classpath根目录下
  * 
  * <pre>
@@ -33,6 +39,10 @@ import com.google.common.io.Resources;
  *      {"code":"INR","symbol":"₹","scale":2}
  *  ]
  * </pre>
+ * 每个币种注册时分配一个稠密的整数id（{@link Currency#getId()}），可用{@link #get(int)}以O(1)获取；
+ * 按币种代码查找支持{@code CharSequence}及字节数组片段，查找过程无内存分配。<br>
+ * 运行时可调用{@link #reload(Path)}重新加载配置，或用{@link #watch(Path)}监视配置文件变化自动重新加载；新的币种表构建完成后原子替换，
+ * 查找过程不加锁，变化通过{@link CurrencyListener}通知。
  * 
  * @author Cifer Liu
  * @date 2020/03/18
@@ -42,51 +52,342 @@ public class CurrencyFactory {
      * 应用扩展配置文件名称
      */
     public static final String CLASSPATH_CONFIG_FILE_NAME = "currency_factory_config.json";
-    private static final Map<String, Currency> CACHE = new ConcurrentHashMap<>();
+    /**
+     * code -> id, ids are assigned in registration order and never reused
+     */
+    private static final Map<String, Integer> IDS = new LinkedHashMap<>();
+    /**
+     * code -> scale, of every currency ever published, a scale never changes because money of the old and the new
+     * scale would be mixed as the same currency
+     */
+    private static final Map<String, Integer> SCALES = new LinkedHashMap<>();
+    private static final List<CurrencyListener> LISTENERS = new CopyOnWriteArrayList<>();
+    /**
+     * the current table, replaced as a whole on reload, so readers never lock
+     */
+    private static volatile CurrencyTable table;
     static {
-        CACHE.put("CNY", new Currency("CNY", "¥", 2));// 人民币
-        CACHE.put("USD", new Currency("USD", "US$", 2));// 美元
-        init();
+        Map<String, Currency> currencies = builtIn();
+        URL url = classpathConfig();
+        if (url != null) {
+            try (InputStream in = url.openStream()) {
+                parse(in, currencies);
+            } catch (IOException e) {
+                throw new RuntimeException("parse currencies config file exception", e);
+            }
+        }
+        table = new CurrencyTable(currencies.values());
+        for (Currency currency : currencies.values()) {
+            SCALES.put(currency.getCode(), currency.getScale());
+        }
     }
 
     private CurrencyFactory() {}
 
-    private static void init() {
-        URL url = null;
+    private static Map<String, Currency> builtIn() {
+        Map<String, Currency> currencies = new LinkedHashMap<>(256);
+        Iso4217.registerAll((code, symbol, scale) -> register(currencies, code, symbol, scale));
+        return currencies;
+    }
+
+    private static URL classpathConfig() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = CurrencyFactory.class.getClassLoader();
+        }
+        return loader == null ? ClassLoader.getSystemResource(CLASSPATH_CONFIG_FILE_NAME)
+            : loader.getResource(CLASSPATH_CONFIG_FILE_NAME);
+    }
+
+    private static void parse(InputStream in, Map<String, Currency> currencies) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
         try {
-            url = Resources.getResource(CLASSPATH_CONFIG_FILE_NAME);
+            CurrencyConfigParser.parse(new String(out.toByteArray(), StandardCharsets.UTF_8),
+                (code, symbol, scale) -> register(currencies, code, symbol, scale));
         } catch (IllegalArgumentException e) {
-            return;
+            throw new RuntimeException("parse currencies config file exception", e);
+        }
+    }
+
+    private static void register(Map<String, Currency> currencies, String code, String symbol, int scale) {
+        currencies.put(code, new Currency(idOf(code), code, symbol, scale));
+    }
+
+    private static synchronized int idOf(String code) {
+        Integer id = IDS.get(code);
+        if (id == null) {
+            id = IDS.size();
+            IDS.put(code, id);
+        }
+        return id;
+    }
+
+    /**
+     * reload the built-in currencies and the classpath config file, see {@link #reload(Path)}
+     * 
+     * @return the change, empty if nothing changed
+     * @throws RuntimeException
+     *             if the config file can't be read or parsed, or changes the scale of a currency, the current
+     *             currencies are kept
+     */
+    public static synchronized CurrencyChange reload() {
+        URL url = classpathConfig();
+        if (url == null) {
+            return publish(builtIn());
+        }
+        try (InputStream in = url.openStream()) {
+            return reload(in);
+        } catch (IOException e) {
+            throw new RuntimeException("parse currencies config file exception", e);
         }
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
+    /**
+     * reload the built-in currencies and the config file, whose format is the same as the classpath one.
+     * <p>
+     * The new table is built aside and published atomically: lookups never lock, and see either the old or the new
+     * table. Unchanged currencies keep their instances, and a code keeps its id across reloads, so ids held by
+     * {@link FxRateSnapshot} and other tables stay valid; a removed currency is just not found any more.
+     * <p>
+     * The scale of a currency can't change, even after it is removed and added back: money of the old scale would
+     * still be taken as the same currency as money of the new one. Reloads are serialized, the config is read and
+     * published under the same lock, so the last reload always wins.
+     * 
+     * @param configFile
+     * @return the change, empty if nothing changed
+     * @throws RuntimeException
+     *             if the config file can't be read or parsed, or changes the scale of a currency, the current
+     *             currencies are kept
+     */
+    public static synchronized CurrencyChange reload(Path configFile) {
+        if (configFile == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        try (InputStream in = Files.newInputStream(configFile)) {
+            return reload(in);
+        } catch (IOException e) {
+            throw new RuntimeException("parse currencies config file exception", e);
+        }
+    }
 
-        JsonNode jsonNode = null;
+    /**
+     * reload the built-in currencies and the config read from the stream, see {@link #reload(Path)}
+     * 
+     * @param config
+     *            - not closed by this method
+     * @return the change, empty if nothing changed
+     * @throws RuntimeException
+     *             if the config can't be read or parsed, or changes the scale of a currency, the current currencies
+     *             are kept
+     */
+    public static synchronized CurrencyChange reload(InputStream config) {
+        if (config == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        Map<String, Currency> currencies = builtIn();
         try {
-            jsonNode = mapper.readTree(url);
-        } catch (Exception e) {
-            throw new RuntimeException("parse currencies config file exception", e.getCause());
-        }
-        int count = jsonNode.size();
-        for (int i = 0; i < count; i++) {
-            JsonNode tmp = jsonNode.get(i);
-            String code = tmp.get("code").asText();
-            String symbol = tmp.get("symbol").asText();
-            int scale = tmp.get("scale").asInt();
-            if (code == null || symbol == null || scale < 0) {
-                continue;
+            parse(config, currencies);
+        } catch (IOException e) {
+            throw new RuntimeException("parse currencies config file exception", e);
+        }
+        return publish(currencies);
+    }
+
+    /**
+     * watch the config file, and {@link #reload(Path)} it whenever it is created or modified
+     * 
+     * @param configFile
+     * @return the watcher, close it to stop watching
+     * @throws IOException
+     *             if the directory of the file can't be watched
+     */
+    public static CurrencyConfigWatcher watch(Path configFile) throws IOException {
+        if (configFile == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return new CurrencyConfigWatcher(configFile);
+    }
+
+    /**
+     * add a listener notified after each reload which changes the currencies, in the reloading thread
+     * 
+     * @param listener
+     */
+    public static void addListener(CurrencyListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(CurrencyListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * get all registered currencies, ordered by id
+     * 
+     * @return
+     */
+    public static Currency[] currencies() {
+        return table.currencies();
+    }
+
+    private static synchronized CurrencyChange publish(Map<String, Currency> currencies) {
+        CurrencyTable prev = table;
+        List<Currency> added = new ArrayList<>();
+        List<Currency> modified = new ArrayList<>();
+        List<Currency> removed = new ArrayList<>();
+        List<Currency> next = new ArrayList<>(currencies.size());
+        for (Currency currency : currencies.values()) {
+            Integer scale = SCALES.get(currency.getCode());
+            if (scale != null && scale != currency.getScale()) {
+                throw new IllegalArgumentException("scale of currency " + currency.getCode() + " can't change");
+            }
+        }
+        for (Currency currency : currencies.values()) {
+            Currency old = prev.get(currency.getId());
+            if (old == null) {
+                added.add(currency);
+                next.add(currency);
+            } else if (old.getScale() != currency.getScale() || !old.getSymbol().equals(currency.getSymbol())) {
+                modified.add(currency);
+                next.add(currency);
+            } else {
+                next.add(old);
             }
-            code = code.toUpperCase();
-            CACHE.put(code, new Currency(code, symbol, scale));
         }
+        for (Currency old : prev.currencies()) {
+            if (!currencies.containsKey(old.getCode())) {
+                removed.add(old);
+            }
+        }
+        CurrencyChange change = new CurrencyChange(added, modified, removed);
+        if (change.isEmpty()) {
+            return change;
+        }
+        table = new CurrencyTable(next);
+        for (Currency currency : added) {
+            SCALES.put(currency.getCode(), currency.getScale());
+        }
+        for (CurrencyListener listener : LISTENERS) {
+            listener.onChange(change);
+        }
+        return change;
     }
 
+    /**
+     * get currency by code, case-insensitive, leading and trailing whitespace ignored
+     * 
+     * @param currencyCode
+     * @return null if not found
+     * @throws IllegalArgumentException
+     *             if currencyCode is null or blank
+     */
     public static Currency get(String currencyCode) {
-        currencyCode = currencyCode == null ? null : currencyCode.trim();
-        if (currencyCode == null || currencyCode.isEmpty()) {
+        return get((CharSequence)currencyCode);
+    }
+
+    /**
+     * get currency by code, case-insensitive, leading and trailing whitespace ignored, without allocation
+     * 
+     * @param currencyCode
+     * @return null if not found
+     * @throws IllegalArgumentException
+     *             if currencyCode is null or blank
+     */
+    public static Currency get(CharSequence currencyCode) {
+        if (currencyCode == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return get(currencyCode, 0, currencyCode.length());
+    }
+
+    /**
+     * get currency by the code in {@code [from, to)} of the char sequence, case-insensitive, leading and trailing
+     * whitespace ignored, without allocation
+     * 
+     * @param currencyCode
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     * @return null if not found
+     * @throws IllegalArgumentException
+     *             if currencyCode is null or blank
+     */
+    public static Currency get(CharSequence currencyCode, int from, int to) {
+        if (currencyCode == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        Currency currency = table.get(currencyCode, from, to);
+        if (currency == null && isBlank(currencyCode, from, to)) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return currency;
+    }
+
+    /**
+     * get currency by the ASCII code in {@code [offset, offset + length)} of the byte array, e.g. straight from a
+     * network buffer, case-insensitive, leading and trailing whitespace ignored, without allocation
+     * 
+     * @param currencyCode
+     * @param offset
+     * @param length
+     * @return null if not found
+     * @throws IllegalArgumentException
+     *             if currencyCode is null or blank
+     */
+    public static Currency get(byte[] currencyCode, int offset, int length) {
+        if (currencyCode == null) {
             throw new IllegalArgumentException("param is illegal");
         }
-        currencyCode = currencyCode.toUpperCase();
-        return CACHE.get(currencyCode);
+        Currency currency = table.get(currencyCode, offset, offset + length);
+        if (currency == null && isBlank(currencyCode, offset, offset + length)) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return currency;
+    }
+
+    /**
+     * get currency by id, O(1)
+     * 
+     * @param id
+     *            - {@link Currency#getId()}
+     * @return null if not found
+     */
+    public static Currency get(int id) {
+        return table.get(id);
+    }
+
+    private static boolean isBlank(CharSequence code, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (code.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(byte[] code, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((code[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * the callback of registering a currency
+     */
+    @FunctionalInterface
+    interface Registrar {
+        void register(String code, String symbol, int scale);
     }
 }
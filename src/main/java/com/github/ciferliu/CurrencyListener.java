@@ -0,0 +1,19 @@
+package com.github.ciferliu;
+
+/**
+ * The listener of {@link CurrencyFactory} reloads.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see CurrencyFactory#addListener(CurrencyListener)
+ */
+@FunctionalInterface
+public interface CurrencyListener {
+    /**
+     * called after the new currencies are published, in the reloading thread
+     * 
+     * @param change
+     *            - never empty
+     */
+    void onChange(CurrencyChange change);
+}
@@ -0,0 +1,173 @@
+package com.github.ciferliu;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable, thread-safe, lookup table of registered currencies, by dense id or by alpha code.
+ * <p>
+ * Codes are matched case-insensitively with leading and trailing whitespace ignored, the same as
+ * {@code code.trim().toUpperCase()}, but directly on the {@code CharSequence} or byte slice, without allocation.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+final class CurrencyTable {
+    /**
+     * id -> currency, null for ids not in this table
+     */
+    private final Currency[] byId;
+    /**
+     * open addressing hash table of currencies by code, the length is a power of two
+     */
+    private final Currency[] slots;
+    private final int mask;
+    private final int size;
+
+    /**
+     * CurrencyTable constructor
+     * 
+     * @param currencies
+     *            - registered currencies (id >= 0) with distinct codes
+     */
+    CurrencyTable(Collection<Currency> currencies) {
+        int maxId = -1;
+        for (Currency currency : currencies) {
+            maxId = Math.max(maxId, currency.getId());
+        }
+        this.byId = new Currency[maxId + 1];
+        int capacity = Integer.highestOneBit(Math.max(currencies.size(), 1) * 4);
+        this.slots = new Currency[capacity];
+        this.mask = capacity - 1;
+        for (Currency currency : currencies) {
+            byId[currency.getId()] = currency;
+            int i = spread(hash(currency.getCode(), 0, currency.getCode().length())) & mask;
+            while (slots[i] != null) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = currency;
+        }
+        this.size = currencies.size();
+    }
+
+    int size() {
+        return size;
+    }
+
+    Currency get(int id) {
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /**
+     * all currencies of this table, ordered by id
+     */
+    Currency[] currencies() {
+        Currency[] currencies = new Currency[size];
+        int n = 0;
+        for (Currency currency : byId) {
+            if (currency != null) {
+                currencies[n++] = currency;
+            }
+        }
+        return Arrays.copyOf(currencies, n);
+    }
+
+    /**
+     * lookup by the code in {@code [from, to)} of the char sequence
+     * 
+     * @return null if not found, or the code is blank
+     */
+    Currency get(CharSequence code, int from, int to) {
+        while (from < to && code.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && code.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return null;
+        }
+        int i = spread(hash(code, from, to)) & mask;
+        Currency currency;
+        while ((currency = slots[i]) != null) {
+            if (matches(currency.getCode(), code, from, to)) {
+                return currency;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * lookup by the ASCII code in {@code [from, to)} of the byte array
+     * 
+     * @return null if not found, or the code is blank
+     */
+    Currency get(byte[] code, int from, int to) {
+        while (from < to && (code[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (code[to - 1] & 0xFF) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return null;
+        }
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + toUpperCase((char)(code[i] & 0xFF));
+        }
+        int i = spread(h) & mask;
+        Currency currency;
+        while ((currency = slots[i]) != null) {
+            if (matches(currency.getCode(), code, from, to)) {
+                return currency;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean matches(String registered, CharSequence code, int from, int to) {
+        if (registered.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (registered.charAt(i - from) != toUpperCase(code.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String registered, byte[] code, int from, int to) {
+        if (registered.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (registered.charAt(i - from) != toUpperCase((char)(code[i] & 0xFF))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence code, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + toUpperCase(code.charAt(i));
+        }
+        return h;
+    }
+
+    private static char toUpperCase(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return (char)(c - ('a' - 'A'));
+        }
+        return c < 0x80 ? c : Character.toUpperCase(c);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
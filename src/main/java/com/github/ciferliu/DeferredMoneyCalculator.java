@@ -0,0 +1,462 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * The Money Calculator which rounds once, at the end of the chain - <strong>non-threadsafe</strong>.
+ * <p>
+ * 与{@link MoneyCalculator}用法相同，但中间结果不舍入：输入金额、乘法、汇率换算的结果都按精确值参与后续运算，只在
+ * {@link #getResult()}时按舍入模式舍入一次，并可通过{@link #getResidual()}获取这次舍入的残差（{@code rounded - exact}）。<br>
+ * 精确值在能用{@code long}表示时以定点数（{@code long}值 + 小数位数）保存，运算不创建对象；溢出后转为{@code BigDecimal}。
+ * 除不尽的除法按{@link #DIVISION_CONTEXT}的精度保留，这是唯一会引入误差的中间步骤。<br>
+ * 结果通常与逐步舍入的{@link MoneyCalculator}不同，由调用方按业务选择。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * DeferredMoneyCalculator calculator = DeferredMoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+ * 
+ * Money result = calculator.init(price).multiply(1.0825).multiply(quantity).fxByMultiply(cny, rate).getResult();
+ * BigDecimal residual = calculator.getResidual();// 舍入残差，单位：元
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public class DeferredMoneyCalculator {
+    /**
+     * the precision of the quotients which don't terminate
+     */
+    public static final MathContext DIVISION_CONTEXT = MathContext.DECIMAL128;
+
+    private final RoundingMode roundingMode;
+    /**
+     * null if not initialized
+     */
+    private Currency currency;
+    /**
+     * the exact value is {@code unscaled / 10^scale} if {@link #big} is null
+     */
+    private long unscaled;
+    private int scale;
+    /**
+     * the exact value in basic unit, once out of {@code long} range
+     */
+    private BigDecimal big;
+    private BigDecimal residual;
+
+    private DeferredMoneyCalculator(RoundingMode roundingMode) {
+        this.roundingMode = roundingMode;
+    }
+
+    /**
+     * construct a calculator from the rounding mode
+     * 
+     * @param roundingMode
+     * @return
+     */
+    public static DeferredMoneyCalculator fromRoundingMode(RoundingMode roundingMode) {
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("roundingMode can't be null");
+        }
+        return new DeferredMoneyCalculator(roundingMode);
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * init a value to calculator, not rounded
+     * 
+     * @param m
+     * @return
+     * @throws IllegalArgumentException
+     *             if m is null
+     */
+    public DeferredMoneyCalculator init(Money m) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        currency = m.getCurrency();
+        if (m.isCompact()) {
+            unscaled = m.minorUnitValue();
+            scale = currency.getScale();
+            big = null;
+        } else {
+            setExact(m.basicUnitValue());
+        }
+        return this;
+    }
+
+    /**
+     * get the exact result of the chain so far, without clearing it
+     * 
+     * @return the unrounded money
+     */
+    public Money getExact() {
+        preCheck();
+        return Money.unRound(currency, exact());
+    }
+
+    /**
+     * round the exact result once and get it, the calculator is cleared
+     * 
+     * @return the rounded money
+     */
+    public Money getResult() {
+        preCheck();
+        int targetScale = currency.getScale();
+        Money result = null;
+        if (big == null) {
+            try {
+                long rounded = MinorUnitMath.scaleByPowerOfTen(unscaled, targetScale - scale, roundingMode);
+                result = Money.rounded(currency, rounded);
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        BigDecimal exact = exact();
+        if (result == null) {
+            result = Money.rounded(currency, exact.setScale(targetScale, roundingMode));
+        }
+        residual = result.basicUnitValue().subtract(exact);
+        currency = null;
+        return result;
+    }
+
+    /**
+     * get the residual of the rounding in the last {@link #getResult()}
+     * 
+     * @return {@code rounded - exact} in basic unit, null if no result is got yet
+     */
+    public BigDecimal getResidual() {
+        return residual;
+    }
+
+    /**
+     * clear the calculation result
+     * 
+     * @return
+     */
+    public DeferredMoneyCalculator clear() {
+        this.currency = null;
+        return this;
+    }
+
+    /**
+     * add, exactly
+     * 
+     * @param m
+     *            augend value.
+     * @return {@code this.value + m}
+     * @throws IllegalArgumentException
+     *             if m is null, or the currency is not same.
+     */
+    public DeferredMoneyCalculator add(Money m) {
+        return add(m, false);
+    }
+
+    /**
+     * subtract, exactly
+     * 
+     * @param m
+     *            subtrahend value.
+     * @return {@code this.value - m}
+     * @throws IllegalArgumentException
+     *             if m is null, or the currency is not same.
+     */
+    public DeferredMoneyCalculator subtract(Money m) {
+        return add(m, true);
+    }
+
+    /**
+     * multiply, exactly
+     * 
+     * @param rate
+     *            multiplicand value.
+     * @return {@code this.value * rate}
+     */
+    public DeferredMoneyCalculator multiply(double rate) {
+        preCheck();
+        multiplyExact(Rate.of(rate));
+        return this;
+    }
+
+    /**
+     * multiply, exactly
+     * 
+     * @param rate
+     *            multiplicand value.
+     * @return {@code this.value * rate}
+     * @throws IllegalArgumentException
+     *             if rate is null.
+     */
+    public DeferredMoneyCalculator multiply(Rate rate) {
+        preCheck();
+        if (rate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        multiplyExact(rate);
+        return this;
+    }
+
+    /**
+     * divide, exactly if the quotient terminates, or in {@link #DIVISION_CONTEXT} precision
+     * 
+     * @param rate
+     *            divisor value.
+     * @return {@code this.value / rate}
+     * @throws IllegalArgumentException
+     *             if rate is 0.
+     */
+    public DeferredMoneyCalculator divide(double rate) {
+        preCheck();
+        if (rate == 0) {
+            throw new IllegalArgumentException("rate can't be zero");
+        }
+        divideExact(Rate.of(rate));
+        return this;
+    }
+
+    /**
+     * divide, exactly if the quotient terminates, or in {@link #DIVISION_CONTEXT} precision
+     * 
+     * @param rate
+     *            divisor value.
+     * @return {@code this.value / rate}
+     * @throws IllegalArgumentException
+     *             if rate is null or 0.
+     */
+    public DeferredMoneyCalculator divide(Rate rate) {
+        preCheck();
+        if (rate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (rate.signum() == 0) {
+            throw new IllegalArgumentException("rate can't be zero");
+        }
+        divideExact(rate);
+        return this;
+    }
+
+    /**
+     * FX {@code (m * rate)}, exactly
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new currency money with value {@code m * rate}
+     * @throws IllegalArgumentException
+     *             if targetCurrency is null, or rate is 0.
+     */
+    public DeferredMoneyCalculator fxByMultiply(Currency targetCurrency, double fxRate) {
+        preCheck();
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        if (currency.equals(targetCurrency)) {
+            return this;
+        }
+        if (fxRate == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        multiplyExact(Rate.of(fxRate));
+        currency = targetCurrency;
+        return this;
+    }
+
+    /**
+     * FX {@code (m * rate)}, exactly
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new currency money with value {@code m * rate}
+     * @throws IllegalArgumentException
+     *             if targetCurrency or fxRate is null, or rate is 0.
+     */
+    public DeferredMoneyCalculator fxByMultiply(Currency targetCurrency, Rate fxRate) {
+        preCheck();
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        if (fxRate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (currency.equals(targetCurrency)) {
+            return this;
+        }
+        if (fxRate.signum() == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        multiplyExact(fxRate);
+        currency = targetCurrency;
+        return this;
+    }
+
+    /**
+     * FX {@code (m * rate)}, exactly, with the current rate of the provider
+     * 
+     * @param targetCurrency
+     * @param provider
+     * @return a new currency money with value {@code m * provider.getRate(m.currency, targetCurrency)}
+     * @throws IllegalArgumentException
+     *             if targetCurrency or provider is null, or the rate is not provided.
+     */
+    public DeferredMoneyCalculator fxByMultiply(Currency targetCurrency, FxRateProvider provider) {
+        preCheck();
+        if (targetCurrency == null || provider == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (currency.equals(targetCurrency)) {
+            return this;
+        }
+        return fxByMultiply(targetCurrency, provider.getExactRate(currency, targetCurrency));
+    }
+
+    /**
+     * FX {@code (m / rate)}, exactly if the quotient terminates, or in {@link #DIVISION_CONTEXT} precision
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new currency money with value {@code m / rate}
+     * @throws IllegalArgumentException
+     *             if targetCurrency is null, or rate is 0.
+     */
+    public DeferredMoneyCalculator fxByDivide(Currency targetCurrency, double fxRate) {
+        preCheck();
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        if (currency.equals(targetCurrency)) {
+            return this;
+        }
+        if (fxRate == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        divideExact(Rate.of(fxRate));
+        currency = targetCurrency;
+        return this;
+    }
+
+    /**
+     * FX {@code (m / rate)}, exactly if the quotient terminates, or in {@link #DIVISION_CONTEXT} precision
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new currency money with value {@code m / rate}
+     * @throws IllegalArgumentException
+     *             if targetCurrency or fxRate is null, or rate is 0.
+     */
+    public DeferredMoneyCalculator fxByDivide(Currency targetCurrency, Rate fxRate) {
+        preCheck();
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        if (fxRate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (currency.equals(targetCurrency)) {
+            return this;
+        }
+        if (fxRate.signum() == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        divideExact(fxRate);
+        currency = targetCurrency;
+        return this;
+    }
+
+    private DeferredMoneyCalculator add(Money m, boolean subtract) {
+        preCheck();
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (!currency.equals(m.getCurrency())) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+        if (big == null && m.isCompact()) {
+            long value = m.minorUnitValue();
+            int valueScale = currency.getScale();
+            try {
+                long augend = subtract ? Math.negateExact(value) : value;
+                if (valueScale > scale) {
+                    unscaled = Math.addExact(MinorUnitMath.scaleByPowerOfTen(unscaled, valueScale - scale, null),
+                        augend);
+                    scale = valueScale;
+                } else {
+                    unscaled = Math.addExact(unscaled,
+                        MinorUnitMath.scaleByPowerOfTen(augend, scale - valueScale, null));
+                }
+                return this;
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        BigDecimal value = m.basicUnitValue();
+        setExact(subtract ? exact().subtract(value) : exact().add(value));
+        return this;
+    }
+
+    private void multiplyExact(Rate rate) {
+        if (big == null && rate.isCompact()) {
+            try {
+                unscaled = Math.multiplyExact(unscaled, rate.unscaledValue());
+                scale = Math.addExact(scale, rate.getScale());
+                return;
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        setExact(exact().multiply(rate.toBigDecimal()));
+    }
+
+    private void divideExact(Rate rate) {
+        if (big == null && rate.isCompact()) {
+            long divisor = rate.unscaledValue();
+            try {
+                // (unscaled / 10^scale) / (divisor / 10^rateScale), when the long division is exact
+                int exponent = rate.getScale();
+                long dividend = exponent >= 0 ? Math.multiplyExact(unscaled, MinorUnitMath.powerOfTen(exponent))
+                    : unscaled;
+                int quotientScale = exponent >= 0 ? scale : Math.subtractExact(scale, exponent);
+                if (dividend % divisor == 0 && !(dividend == Long.MIN_VALUE && divisor == -1)) {
+                    unscaled = dividend / divisor;
+                    scale = quotientScale;
+                    return;
+                }
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        BigDecimal dividend = exact();
+        BigDecimal quotient;
+        try {
+            quotient = dividend.divide(rate.toBigDecimal());
+        } catch (ArithmeticException e) {
+            // non-terminating
+            quotient = dividend.divide(rate.toBigDecimal(), DIVISION_CONTEXT);
+        }
+        setExact(quotient);
+    }
+
+    private BigDecimal exact() {
+        return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private void setExact(BigDecimal value) {
+        if (value.unscaledValue().bitLength() < 64) {
+            unscaled = value.unscaledValue().longValue();
+            scale = value.scale();
+            big = null;
+        } else {
+            big = value;
+        }
+    }
+
+    private void preCheck() {
+        if (currency == null) {
+            throw new IllegalArgumentException("please inoke 'init' method first");
+        }
+    }
+}
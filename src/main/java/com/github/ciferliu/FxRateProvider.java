@@ -0,0 +1,43 @@
+package com.github.ciferliu;
+
+/**
+ * The provider of FX rates.
+ * <p>
+ * Implementations must be thread-safe.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see FxRateSnapshot
+ * @see FxRateRegistry
+ */
+public interface FxRateProvider {
+
+    /**
+     * get the FX rate from one currency to another: {@code 1 from = rate * to}
+     * 
+     * @param from
+     * @param to
+     * @return the rate, 1 if the currencies are same
+     * @throws IllegalArgumentException
+     *             if from or to is null, or the rate of the pair is not provided.
+     */
+    double getRate(Currency from, Currency to);
+
+    /**
+     * get the FX rate from one currency to another as an exact {@link Rate}, what the conversions use. The default
+     * wraps {@link #getRate(Currency, Currency)}, providers holding exact rates should return them as they are, so
+     * nothing is converted per call.
+     * 
+     * @param from
+     * @param to
+     * @return the rate, {@link Rate#ONE} if the currencies are same
+     * @throws IllegalArgumentException
+     *             if from or to is null, or the rate of the pair is not provided.
+     */
+    default Rate getExactRate(Currency from, Currency to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return from.equals(to) ? Rate.ONE : Rate.of(getRate(from, to));
+    }
+}
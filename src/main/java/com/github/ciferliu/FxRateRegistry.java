@@ -0,0 +1,72 @@
+package com.github.ciferliu;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The holder of the current {@link FxRateSnapshot} - <strong>threadsafe</strong>.
+ * <p>
+ * Writers publish whole snapshots, which replace the current one atomically if they are newer. Readers never lock:
+ * each rate lookup is a volatile read of the current snapshot and two array reads. Callers needing several rates from
+ * the same version should read {@link #getSnapshot()} once and use it.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public class FxRateRegistry implements FxRateProvider {
+    private final AtomicReference<FxRateSnapshot> current;
+
+    /**
+     * FxRateRegistry constructor
+     * 
+     * @param initial
+     *            - the initial snapshot, can't be null
+     */
+    public FxRateRegistry(FxRateSnapshot initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException("initial can't be null");
+        }
+        this.current = new AtomicReference<>(initial);
+    }
+
+    /**
+     * get the current snapshot
+     * 
+     * @return
+     */
+    public FxRateSnapshot getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * publish a snapshot, it replaces the current one only if its version is higher
+     * 
+     * @param snapshot
+     * @return true if the snapshot is published, false if the current one is same or newer
+     * @throws IllegalArgumentException
+     *             if snapshot is null
+     */
+    public boolean publish(FxRateSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("snapshot can't be null");
+        }
+        for (;;) {
+            FxRateSnapshot prev = current.get();
+            if (prev.getVersion() >= snapshot.getVersion()) {
+                return false;
+            }
+            if (current.compareAndSet(prev, snapshot)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public double getRate(Currency from, Currency to) {
+        return current.get().getRate(from, to);
+    }
+
+    @Override
+    public Rate getExactRate(Currency from, Currency to) {
+        return current.get().getExactRate(from, to);
+    }
+}
@@ -0,0 +1,250 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, thread-safe, versioned set of FX rates against a base currency, with all cross rates precomputed.
+ * <p>
+ * Rates are quoted per unit of the base currency, e.g. with base USD, {@code rate(CNY, 7.1)} means
+ * {@code 1 USD = 7.1 CNY}. The cross rate of every pair is triangulated through the base once, when the snapshot is
+ * built in {@code DECIMAL64} precision and kept as an exact {@link Rate}, so {@link #getExactRate(Currency, Currency)}
+ * and {@link #getRate(Currency, Currency)} are two array reads. Currencies are indexed by
+ * {@link Currency#getId()}, so only currencies from {@link CurrencyFactory} can be quoted.
+ * <p>
+ * 用法：
+ * 
+ * <pre class="code">
+ * FxRateSnapshot snapshot = FxRateSnapshot.builder(CurrencyFactory.get("USD"), 1)
+ *     .rate(CurrencyFactory.get("CNY"), 7.1).build();
+ * double cnyToUsd = snapshot.getRate(CurrencyFactory.get("CNY"), CurrencyFactory.get("USD"));
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class FxRateSnapshot implements FxRateProvider {
+    private final long version;
+    private final Currency base;
+    /**
+     * currency id -> index in {@link #crossRates}, -1 if not quoted
+     */
+    private final int[] indexes;
+    private final int size;
+    /**
+     * {@code crossRates[from * size + to]}, 1 from = rate * to
+     */
+    private final Rate[] crossRates;
+    /**
+     * {@link #crossRates} in {@code double}
+     */
+    private final double[] doubleRates;
+
+    private FxRateSnapshot(long version, Currency base, Map<Currency, BigDecimal> rates) {
+        this.version = version;
+        this.base = base;
+        int maxId = -1;
+        for (Currency currency : rates.keySet()) {
+            maxId = Math.max(maxId, currency.getId());
+        }
+        this.indexes = new int[maxId + 1];
+        Arrays.fill(indexes, -1);
+        List<BigDecimal> values = new ArrayList<>(rates.size());
+        for (Map.Entry<Currency, BigDecimal> entry : rates.entrySet()) {
+            indexes[entry.getKey().getId()] = values.size();
+            values.add(entry.getValue());
+        }
+        this.size = values.size();
+        this.crossRates = new Rate[size * size];
+        this.doubleRates = new double[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                // 1 from = (1 / rate[from]) base = (rate[to] / rate[from]) to
+                Rate rate = from == to ? Rate.ONE
+                    : Rate.of(values.get(to).divide(values.get(from), MathContext.DECIMAL64));
+                crossRates[from * size + to] = rate;
+                doubleRates[from * size + to] = rate.doubleValue();
+            }
+        }
+    }
+
+    /**
+     * create a builder
+     * 
+     * @param base
+     *            - the base currency, quoted with rate 1, can't be null
+     * @param version
+     *            - the version of the snapshot, snapshots of higher version replace lower ones in
+     *            {@link FxRateRegistry}
+     * @return
+     */
+    public static Builder builder(Currency base, long version) {
+        return new Builder(base, version);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Currency getBase() {
+        return base;
+    }
+
+    /**
+     * whether the currency is quoted in this snapshot
+     * 
+     * @param currency
+     * @return
+     */
+    public boolean contains(Currency currency) {
+        return currency != null && index(currency) >= 0;
+    }
+
+    @Override
+    public double getRate(Currency from, Currency to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (from.equals(to)) {
+            return 1;
+        }
+        return doubleRates[offset(from, to)];
+    }
+
+    /**
+     * the exact cross rate, triangulated in {@code DECIMAL64} precision when the snapshot is built
+     */
+    @Override
+    public Rate getExactRate(Currency from, Currency to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (from.equals(to)) {
+            return Rate.ONE;
+        }
+        return crossRates[offset(from, to)];
+    }
+
+    private int offset(Currency from, Currency to) {
+        int fromIndex = index(from);
+        int toIndex = index(to);
+        if (fromIndex < 0 || toIndex < 0) {
+            throw new IllegalArgumentException("fx rate not found: " + from.getCode() + "/" + to.getCode());
+        }
+        return fromIndex * size + toIndex;
+    }
+
+    private int index(Currency currency) {
+        int id = currency.getId();
+        return id >= 0 && id < indexes.length ? indexes[id] : -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(80);
+        builder.append("FxRateSnapshot [version=");
+        builder.append(version);
+        builder.append(", base=");
+        builder.append(base.getCode());
+        builder.append(", size=");
+        builder.append(size);
+        builder.append("]");
+        return builder.toString();
+    }
+
+    /**
+     * The builder of {@link FxRateSnapshot} - <strong>non-threadsafe</strong>.
+     */
+    public static final class Builder {
+        private final Currency base;
+        private final long version;
+        private final Map<Currency, BigDecimal> rates = new LinkedHashMap<>();
+
+        private Builder(Currency base, long version) {
+            if (base == null) {
+                throw new IllegalArgumentException("base can't be null");
+            }
+            checkRegistered(base);
+            this.base = base;
+            this.version = version;
+            rates.put(base, BigDecimal.ONE);
+        }
+
+        /**
+         * quote a currency against the base: {@code 1 base = rate * currency}
+         * 
+         * @param currency
+         *            - a currency from {@link CurrencyFactory}
+         * @param rate
+         *            - must be positive
+         * @return
+         * @throws IllegalArgumentException
+         *             if currency is null or not from {@link CurrencyFactory}, or rate is not positive.
+         */
+        public Builder rate(Currency currency, double rate) {
+            if (currency == null) {
+                throw new IllegalArgumentException("currency can't be null");
+            }
+            checkRegistered(currency);
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                throw new IllegalArgumentException("rate must be positive");
+            }
+            if (currency.equals(base)) {
+                if (rate != 1) {
+                    throw new IllegalArgumentException("rate of base currency must be 1");
+                }
+                return this;
+            }
+            rates.put(currency, BigDecimal.valueOf(rate));
+            return this;
+        }
+
+        /**
+         * quote a currency against the base with an exact rate: {@code 1 base = rate * currency}
+         * 
+         * @param currency
+         *            - a currency from {@link CurrencyFactory}
+         * @param rate
+         *            - must be positive
+         * @return
+         * @throws IllegalArgumentException
+         *             if currency or rate is null, currency is not from {@link CurrencyFactory}, or rate is not
+         *             positive.
+         */
+        public Builder rate(Currency currency, Rate rate) {
+            if (currency == null) {
+                throw new IllegalArgumentException("currency can't be null");
+            }
+            if (rate == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            checkRegistered(currency);
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("rate must be positive");
+            }
+            if (currency.equals(base)) {
+                if (rate.toBigDecimal().compareTo(BigDecimal.ONE) != 0) {
+                    throw new IllegalArgumentException("rate of base currency must be 1");
+                }
+                return this;
+            }
+            rates.put(currency, rate.toBigDecimal());
+            return this;
+        }
+
+        public FxRateSnapshot build() {
+            return new FxRateSnapshot(version, base, rates);
+        }
+
+        private static void checkRegistered(Currency currency) {
+            if (currency.getId() < 0) {
+                throw new IllegalArgumentException("currency is not from CurrencyFactory: " + currency.getCode());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.ciferliu;
+
+/**
+ * The ISO 4217 active currencies (list one), the built-in currencies of {@link CurrencyFactory}.
+ * <p>
+ * Precompiled into a single string constant instead of a config file, so that loading the built-in currencies needs
+ * neither I/O nor a JSON parser: each entry is the 3-letter code followed by the number of minor unit digits.
+ * CNY and USD come first, so their ids are the same as in earlier versions. Currencies without a well-known symbol
+ * use their code as the symbol.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+final class Iso4217 {
+    /**
+     * code + scale, 4 chars per currency, excluding CNY and USD
+     */
+    private static final String TABLE =
+        "AED2AFN2ALL2AMD2ANG2AOA2ARS2AUD2AWG2AZN2BAM2BBD2BDT2BGN2BHD3BIF0BMD2BND2BOB2BOV2BRL2BSD2BTN2BWP2"
+        + "BYN2BZD2CAD2CDF2CHE2CHF2CHW2CLF4CLP0COP2COU2CRC2CUP2CVE2CZK2DJF0DKK2DOP2DZD2EGP2ERN2ETB2EUR2FJD2"
+        + "FKP2GBP2GEL2GHS2GIP2GMD2GNF0GTQ2GYD2HKD2HNL2HTG2HUF2IDR2ILS2INR2IQD3IRR2ISK0JMD2JOD3JPY0KES2KGS2"
+        + "KHR2KMF0KPW2KRW0KWD3KYD2KZT2LAK2LBP2LKR2LRD2LSL2LYD3MAD2MDL2MGA2MKD2MMK2MNT2MOP2MRU2MUR2MVR2MWK2"
+        + "MXN2MXV2MYR2MZN2NAD2NGN2NIO2NOK2NPR2NZD2OMR3PAB2PEN2PGK2PHP2PKR2PLN2PYG0QAR2RON2RSD2RUB2RWF0SAR2"
+        + "SBD2SCR2SDG2SEK2SGD2SHP2SLE2SOS2SRD2SSP2STN2SVC2SYP2SZL2THB2TJS2TMT2TND3TOP2TRY2TTD2TWD2TZS2UAH2"
+        + "UGX0USN2UYI0UYU2UYW4UZS2VED2VES2VND0VUV0WST2XAF0XCD2XCG2XOF0XPF0YER2ZAR2ZMW2ZWG2";
+
+    private static final String[] SYMBOL_CODES =
+        {"AUD", "BRL", "CAD", "EUR", "GBP", "HKD", "ILS", "INR", "JPY", "KRW", "MXN", "NZD", "PHP", "TWD", "VND"};
+    private static final String[] SYMBOLS =
+        {"A$", "R$", "CA$", "€", "£", "HK$", "₪", "₹", "JP¥", "₩", "MX$", "NZ$", "₱", "NT$", "₫"};
+
+    private Iso4217() {}
+
+    /**
+     * register all of the ISO 4217 currencies
+     */
+    static void registerAll(CurrencyFactory.Registrar registrar) {
+        registrar.register("CNY", "¥", 2);// 人民币
+        registrar.register("USD", "US$", 2);// 美元
+        for (int i = 0; i < TABLE.length(); i += 4) {
+            String code = TABLE.substring(i, i + 3);
+            registrar.register(code, symbolOf(code), TABLE.charAt(i + 3) - '0');
+        }
+    }
+
+    private static String symbolOf(String code) {
+        for (int i = 0; i < SYMBOL_CODES.length; i++) {
+            if (SYMBOL_CODES[i].equals(code)) {
+                return SYMBOLS[i];
+            }
+        }
+        return code;
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.ciferliu;
+
+/**
+ * The receiver of the rows read by {@link LedgerReader}, one call per row, without a {@link Money} object per row.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface LedgerHandler {
+    /**
+     * receive a row
+     * 
+     * @param currency
+     *            - the currency of the row, from {@link CurrencyFactory}
+     * @param minorUnitValue
+     *            - the rounded amount in minor unit of the currency
+     */
+    void accept(Currency currency, long minorUnitValue);
+}
@@ -0,0 +1,276 @@
+package com.github.ciferliu;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The streaming reader of {@code currency,amount} ledger files - <strong>immutable and threadsafe</strong>.
+ * <p>
+ * 以{@link FileChannel}分段内存映射读取多GB的账本文件，逐行解析：币种代码直接从字节切片经{@link CurrencyFactory}查找，
+ * 金额文本按币种精度直接解析为最小单位的{@code long}，不经过{@code String}/{@code double}，也不为每行创建对象。<br>
+ * 每行交给{@link LedgerHandler}处理，可边读边汇总或折算，不需要把整个文件读入内存。<br>
+ * 支持两种行格式（{@code \n}或{@code \r\n}换行，空行忽略，字段前后的空白忽略）：
+ * <ul>
+ * <li>分隔符格式：{@code USD,1234.56}，分隔符之后的多余字段忽略</li>
+ * <li>定宽格式：前{@code currencyWidth}个字节为币种代码，其余为金额</li>
+ * </ul>
+ * 金额超过币种精度的小数位，按给定的舍入模式舍入，与{@code calculator.init(money).getResult()}一致。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * LedgerReader reader = LedgerReader.delimited(',', RoundingMode.HALF_UP).skipLines(1);// 跳过表头
+ * 
+ * Map&lt;Currency, MoneySummaryStatistics&gt; statistics = reader.summarize(path);
+ * 
+ * MoneyColumn usdColumn = new MoneyColumn(usd, RoundingMode.HALF_UP);
+ * reader.read(path, (currency, minorUnitValue) -&gt; {
+ *     if (currency == usd) {
+ *         usdColumn.appendMinorUnitValue(minorUnitValue);
+ *     }
+ * });
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class LedgerReader {
+    /**
+     * the size of each mapped region of the file
+     */
+    static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private final byte delimiter;
+    /**
+     * the width of currency code for fixed width format, or -1 for delimited format
+     */
+    private final int currencyWidth;
+    private final RoundingMode roundingMode;
+    private final int skipLines;
+    private final int windowSize;
+
+    LedgerReader(byte delimiter, int currencyWidth, RoundingMode roundingMode, int skipLines, int windowSize) {
+        this.delimiter = delimiter;
+        this.currencyWidth = currencyWidth;
+        this.roundingMode = roundingMode;
+        this.skipLines = skipLines;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * reader of the rows like {@code USD,1234.56}
+     * 
+     * @param delimiter
+     *            - an ASCII char, e.g. {@code ','} or {@code '\t'}
+     * @param roundingMode
+     * @return
+     */
+    public static LedgerReader delimited(char delimiter, RoundingMode roundingMode) {
+        if (delimiter == 0 || delimiter >= 0x80 || delimiter == '\n' || delimiter == '\r' || roundingMode == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return new LedgerReader((byte)delimiter, -1, roundingMode, 0, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * reader of the rows like {@code USD   1234.56}
+     * 
+     * @param currencyWidth
+     *            - the bytes of currency code at the beginning of each row
+     * @param roundingMode
+     * @return
+     */
+    public static LedgerReader fixedWidth(int currencyWidth, RoundingMode roundingMode) {
+        if (currencyWidth <= 0 || roundingMode == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return new LedgerReader((byte)0, currencyWidth, roundingMode, 0, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * a reader the same as this one, but skips the first lines of the file, e.g. the header
+     * 
+     * @param lines
+     *            - can't less than 0
+     * @return
+     */
+    public LedgerReader skipLines(int lines) {
+        if (lines < 0) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return new LedgerReader(delimiter, currencyWidth, roundingMode, lines, windowSize);
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * read every row of the file into the handler, in file order
+     * 
+     * @param path
+     * @param handler
+     * @return the count of rows
+     * @throws IOException
+     *             if the file can't be read
+     * @throws IllegalArgumentException
+     *             if the currency code is unknown or the amount is illegal, with the line number in the message
+     */
+    public long read(Path path, LedgerHandler handler) throws IOException {
+        if (path == null || handler == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel, handler);
+        }
+    }
+
+    /**
+     * summarize the file by currency
+     * 
+     * @param path
+     * @return currency -> statistics, in the order of the first row of each currency
+     * @throws IOException
+     *             if the file can't be read
+     * @throws IllegalArgumentException
+     *             if the currency code is unknown or the amount is illegal, with the line number in the message
+     */
+    public Map<Currency, MoneySummaryStatistics> summarize(Path path) throws IOException {
+        final Map<Currency, MoneySummaryStatistics> statistics = new LinkedHashMap<>();
+        read(path, new LedgerHandler() {
+            private Currency last;
+            private MoneySummaryStatistics lastStatistics;
+
+            @Override
+            public void accept(Currency currency, long minorUnitValue) {
+                if (currency != last) {
+                    last = currency;
+                    lastStatistics = statistics.computeIfAbsent(currency,
+                        c -> MoneySummaryStatistics.fromRoundingMode(roundingMode));
+                }
+                lastStatistics.accept(Money.rounded(currency, minorUnitValue));
+            }
+        });
+        return statistics;
+    }
+
+    private long read(FileChannel channel, LedgerHandler handler) throws IOException {
+        long fileSize = channel.size();
+        byte[] line = new byte[256];
+        long lineNumber = 0;
+        long rows = 0;
+        long position = 0;
+        while (position < fileSize) {
+            int length = (int)Math.min(windowSize, fileSize - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean last = position + length == fileSize;
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) != '\n') {
+                    continue;
+                }
+                line = copy(window, start, i, line);
+                if (++lineNumber > skipLines && parse(line, i - start, lineNumber, handler)) {
+                    rows++;
+                }
+                start = i + 1;
+            }
+            if (last) {
+                if (start < length) {
+                    line = copy(window, start, length, line);
+                    if (++lineNumber > skipLines && parse(line, length - start, lineNumber, handler)) {
+                        rows++;
+                    }
+                }
+                break;
+            }
+            if (start == 0) {
+                throw new IllegalArgumentException("line is too long, line " + (lineNumber + 1));
+            }
+            // map the next window from the beginning of the incomplete line
+            position += start;
+        }
+        return rows;
+    }
+
+    private static byte[] copy(MappedByteBuffer window, int from, int to, byte[] line) {
+        if (to - from > line.length) {
+            line = new byte[Math.max(to - from, line.length * 2)];
+        }
+        window.position(from);
+        window.get(line, 0, to - from);
+        return line;
+    }
+
+    /**
+     * parse a line into the handler
+     * 
+     * @return false if the line is blank
+     */
+    private boolean parse(byte[] line, int length, long lineNumber, LedgerHandler handler) {
+        int end = length;
+        while (end > 0 && (line[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        if (end == 0) {
+            return false;
+        }
+        int currencyEnd;
+        int amountFrom;
+        int amountTo = end;
+        if (currencyWidth < 0) {
+            currencyEnd = indexOf(line, delimiter, 0, end);
+            if (currencyEnd < 0) {
+                throw new IllegalArgumentException("delimiter is not found, line " + lineNumber);
+            }
+            amountFrom = currencyEnd + 1;
+            int next = indexOf(line, delimiter, amountFrom, end);
+            if (next >= 0) {
+                amountTo = next;
+            }
+        } else {
+            if (end <= currencyWidth) {
+                throw new IllegalArgumentException("amount is not found, line " + lineNumber);
+            }
+            currencyEnd = currencyWidth;
+            amountFrom = currencyWidth;
+        }
+        Currency currency = currency(line, currencyEnd, lineNumber);
+        long minorUnitValue;
+        try {
+            minorUnitValue = AmountText.parse(line, amountFrom, amountTo, currency.getScale(), roundingMode);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("amount is illegal, line " + lineNumber, e);
+        }
+        handler.accept(currency, minorUnitValue);
+        return true;
+    }
+
+    private static Currency currency(byte[] line, int to, long lineNumber) {
+        Currency currency = null;
+        for (int i = 0; i < to; i++) {
+            if ((line[i] & 0xFF) > ' ') {
+                currency = CurrencyFactory.get(line, 0, to);
+                break;
+            }
+        }
+        if (currency == null) {
+            throw new IllegalArgumentException("currency is not found, line " + lineNumber);
+        }
+        return currency;
+    }
+
+    private static int indexOf(byte[] line, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,258 @@
+package com.github.ciferliu;
+
+import java.math.RoundingMode;
+
+/**
+ * {@code long} arithmetic on amounts in minor unit, with the rounding rules of {@code BigDecimal}.
+ * <p>
+ * Every method gives exactly the result of the equivalent {@code BigDecimal} operation, or throws
+ * {@link ArithmeticException} when the result can't be computed in {@code long}, so callers fall back to the
+ * {@code BigDecimal} path, which then also throws the "Rounding necessary" error of {@link RoundingMode#UNNECESSARY}.
+ * <p>
+ * Products and scaled dividends are computed in 128 bits, so {@link #multiply} and {@link #divide} don't give up on
+ * an intermediate overflow, only when the rounded result, the scaled divisor or the power of ten of the scale
+ * difference is out of {@code long} range.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+final class MinorUnitMath {
+    /**
+     * 10^0 ~ 10^18, all of the powers of ten in {@code long} range
+     */
+    static final long[] POWERS_OF_TEN = new long[19];
+    private static final long LOW_32_BITS = 0xFFFFFFFFL;
+    private static final long BASE_32 = 1L << 32;
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private MinorUnitMath() {}
+
+    /**
+     * 10^exponent
+     * 
+     * @throws ArithmeticException
+     *             if out of {@code long} range
+     */
+    static long powerOfTen(int exponent) {
+        if (exponent < 0 || exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("long overflow");
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * {@code value * 10^exponent}, or {@code value / 10^-exponent} rounded when exponent is negative
+     * 
+     * @throws ArithmeticException
+     *             if overflow
+     */
+    static long scaleByPowerOfTen(long value, int exponent, RoundingMode roundingMode) {
+        if (exponent >= 0) {
+            return exponent == 0 ? value : Math.multiplyExact(value, powerOfTen(exponent));
+        }
+        return divideAndRound(value, powerOfTen(-exponent), roundingMode);
+    }
+
+    /**
+     * {@code dividend / divisor} rounded to an integer, the same as
+     * {@code BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, roundingMode)}
+     * 
+     * @throws ArithmeticException
+     *             if divisor is 0, the quotient overflows, or rounding is necessary for
+     *             {@link RoundingMode#UNNECESSARY}
+     */
+    static long divideAndRound(long dividend, long divisor, RoundingMode roundingMode) {
+        if (dividend == Long.MIN_VALUE && divisor == -1) {
+            throw new ArithmeticException("long overflow");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // the sign of the exact quotient, never zero here
+        int signum = (int)((dividend ^ divisor) >> 63) | 1;
+        return round(quotient, remainder, divisor, signum, roundingMode);
+    }
+
+    /**
+     * round the truncated quotient by the non-zero remainder
+     */
+    private static long round(long quotient, long remainder, long divisor, int signum, RoundingMode roundingMode) {
+        // the magnitudes as unsigned, |Long.MIN_VALUE| is 2^63
+        long magnitudeOfRemainder = remainder < 0 ? -remainder : remainder;
+        long magnitudeOfDivisor = divisor < 0 ? -divisor : divisor;
+        return increment(quotient, magnitudeOfRemainder, magnitudeOfDivisor, signum, roundingMode) ? quotient + signum
+            : quotient;
+    }
+
+    /**
+     * whether to round the truncated quotient away from zero, by the non-zero remainder
+     * 
+     * @param quotient
+     *            - only its parity is used
+     * @param remainder
+     *            - unsigned magnitude of the remainder, less than divisor
+     * @param divisor
+     *            - unsigned magnitude of the divisor
+     * @param signum
+     *            - the sign of the exact quotient
+     */
+    private static boolean increment(long quotient, long remainder, long divisor, int signum,
+        RoundingMode roundingMode) {
+        switch (roundingMode) {
+            case UNNECESSARY:
+                throw new ArithmeticException("Rounding necessary");
+            case UP:
+                return true;
+            case DOWN:
+                return false;
+            case CEILING:
+                return signum > 0;
+            case FLOOR:
+                return signum < 0;
+            default:
+                // compare the remainder with the rest of the divisor, both are unsigned and no overflow
+                int cmp = Long.compareUnsigned(remainder, divisor - remainder);
+                if (cmp == 0) {
+                    if (roundingMode == RoundingMode.HALF_UP) {
+                        return true;
+                    } else if (roundingMode == RoundingMode.HALF_DOWN) {
+                        return false;
+                    }
+                    return (quotient & 1) != 0;
+                }
+                return cmp > 0;
+        }
+    }
+
+    /**
+     * {@code (minorUnitValue / 10^scale) * (rateUnscaled / 10^rateScale)} rounded to {@code targetScale}, in minor unit
+     * of {@code targetScale}.
+     * 
+     * @throws ArithmeticException
+     *             if overflow, or rounding is necessary for {@link RoundingMode#UNNECESSARY}
+     */
+    static long multiply(long minorUnitValue, int scale, long rateUnscaled, int rateScale, int targetScale,
+        RoundingMode roundingMode) {
+        int exponent = targetScale - scale - rateScale;
+        if (exponent >= 0) {
+            return scaleByPowerOfTen(Math.multiplyExact(minorUnitValue, rateUnscaled), exponent, roundingMode);
+        }
+        long x = minorUnitValue < 0 ? -minorUnitValue : minorUnitValue;
+        long y = rateUnscaled < 0 ? -rateUnscaled : rateUnscaled;
+        int signum = (int)((minorUnitValue ^ rateUnscaled) >> 63) | 1;
+        return divideAndRound(unsignedMultiplyHigh(x, y), x * y, powerOfTen(-exponent), signum, roundingMode);
+    }
+
+    /**
+     * {@code (minorUnitValue / 10^scale) / (rateUnscaled / 10^rateScale)} rounded to {@code targetScale}, in minor unit
+     * of {@code targetScale}.
+     * 
+     * @throws ArithmeticException
+     *             if rate is 0, overflow, or rounding is necessary for {@link RoundingMode#UNNECESSARY}
+     */
+    static long divide(long minorUnitValue, int scale, long rateUnscaled, int rateScale, int targetScale,
+        RoundingMode roundingMode) {
+        int exponent = rateScale + targetScale - scale;
+        if (exponent < 0) {
+            return divideAndRound(minorUnitValue, Math.multiplyExact(rateUnscaled, powerOfTen(-exponent)),
+                roundingMode);
+        }
+        if (rateUnscaled == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long x = minorUnitValue < 0 ? -minorUnitValue : minorUnitValue;
+        long power = powerOfTen(exponent);
+        int signum = (int)((minorUnitValue ^ rateUnscaled) >> 63) | 1;
+        return divideAndRound(unsignedMultiplyHigh(x, power), x * power,
+            rateUnscaled < 0 ? -rateUnscaled : rateUnscaled, signum, roundingMode);
+    }
+
+    /**
+     * the high 64 bits of the unsigned 128-bit product {@code x * y}, the unsigned counterpart of
+     * {@code Math.multiplyHigh} which is not available on Java 8. The low 64 bits are simply {@code x * y}.
+     */
+    static long unsignedMultiplyHigh(long x, long y) {
+        long x1 = x >>> 32;
+        long x0 = x & LOW_32_BITS;
+        long y1 = y >>> 32;
+        long y0 = y & LOW_32_BITS;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long middle = ((x0 * y0) >>> 32) + (p01 & LOW_32_BITS) + (p10 & LOW_32_BITS);
+        return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+    }
+
+    /**
+     * the unsigned 128-bit {@code (high, low)} divided by the unsigned divisor, rounded, with the sign applied
+     * 
+     * @param signum
+     *            - the sign of the exact quotient
+     * @throws ArithmeticException
+     *             if the rounded quotient is out of {@code long} range, or rounding is necessary for
+     *             {@link RoundingMode#UNNECESSARY}
+     */
+    static long divideAndRound(long high, long low, long divisor, int signum, RoundingMode roundingMode) {
+        if (Long.compareUnsigned(high, divisor) >= 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        long quotient = high == 0 ? Long.divideUnsigned(low, divisor) : divideUnsigned(high, low, divisor);
+        long remainder = low - quotient * divisor;
+        if (remainder != 0 && increment(quotient, remainder, divisor, signum, roundingMode)) {
+            if (++quotient == 0) {
+                throw new ArithmeticException("long overflow");
+            }
+        }
+        if (quotient >= 0) {
+            return signum > 0 ? quotient : -quotient;
+        }
+        if (quotient == Long.MIN_VALUE && signum < 0) {
+            return Long.MIN_VALUE;
+        }
+        throw new ArithmeticException("long overflow");
+    }
+
+    /**
+     * the unsigned quotient of the 128-bit {@code (high, low)} by the divisor, unsigned {@code high < divisor}, by the
+     * long division of two 32-bit digits in Hacker's Delight, section 9-4 (divlu)
+     */
+    private static long divideUnsigned(long high, long low, long divisor) {
+        // normalize, so the highest bit of the divisor is set and every estimated digit is off by at most 2
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long v1 = v >>> 32;
+        long v0 = v & LOW_32_BITS;
+        long u32 = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        long u10 = low << shift;
+        long u1 = u10 >>> 32;
+        long u0 = u10 & LOW_32_BITS;
+
+        long q1 = Long.divideUnsigned(u32, v1);
+        long rhat = u32 - q1 * v1;
+        while (q1 >= BASE_32 || Long.compareUnsigned(q1 * v0, (rhat << 32) | u1) > 0) {
+            q1--;
+            rhat += v1;
+            if (rhat >= BASE_32) {
+                break;
+            }
+        }
+        long u21 = (u32 << 32) + u1 - q1 * v;
+
+        long q0 = Long.divideUnsigned(u21, v1);
+        rhat = u21 - q0 * v1;
+        while (q0 >= BASE_32 || Long.compareUnsigned(q0 * v0, (rhat << 32) | u0) > 0) {
+            q0--;
+            rhat += v1;
+            if (rhat >= BASE_32) {
+                break;
+            }
+        }
+        return (q1 << 32) + q0;
+    }
+}
@@ -1,52 +1,131 @@
 package com.github.ciferliu;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Immutable, thread-safe, amount with currency context.
+ * <p>
+ * A rounded amount whose minor unit value fits in a {@code long} is held as a compact {@code long} of minor units, any
+ * other amount (unrounded, or out of the {@code long} range) is held as a {@code BigDecimal}.
+ * <p>
+ * The natural ordering is consistent with {@link #equals(Object)}: by currency code, then by amount, and amounts equal
+ * in value but not in scale (e.g. an unrounded {@code 1.0} and a rounded {@code 1.00}) by scale. Amounts are compared
+ * as they are, without rounding; use {@link MoneyArithmetic#compare(Money, Money)} to compare rounded amounts.
  * 
  * @author Cifer Liu
  * @since 1.0.0
  */
-public class Money {
-    private Currency currency;
+public class Money implements Comparable<Money> {
+    private final Currency currency;
+    /**
+     * amount in currency's minor unit, only meaningful when {@link #compact} is true
+     */
+    private final long minorUnitValue;
+    private final boolean compact;
+    /**
+     * amount in currency's basic unit, lazily built from {@link #minorUnitValue} for compact amount
+     */
     private BigDecimal basicUnitValue;
-    private boolean isRounded;
+    private final boolean isRounded;
 
     /**
      * private scope constructor
      * 
      * @param currency
-     * @param minorUnitValue
+     * @param basicUnitValue
+     * @param isRounded
      */
     private Money(Currency currency, BigDecimal basicUnitValue, boolean isRounded) {
         this.currency = currency;
+        this.minorUnitValue = 0;
+        this.compact = false;
         this.basicUnitValue = basicUnitValue;
         this.isRounded = isRounded;
     }
 
+    /**
+     * private scope constructor
+     * 
+     * @param currency
+     * @param minorUnitValue
+     * @param isRounded
+     */
+    private Money(Currency currency, long minorUnitValue, boolean isRounded) {
+        this.currency = currency;
+        this.minorUnitValue = minorUnitValue;
+        this.compact = true;
+        this.isRounded = isRounded;
+    }
+
     static Money unRound(Currency currency, BigDecimal basicUnitValue) {
         return new Money(currency, basicUnitValue, false);
     }
 
+    /**
+     * build an unrounded money from an exact minor unit value, the basic unit value keeps the scale of
+     * {@code minorUnitValue / 10^scale}
+     */
+    static Money unRound(Currency currency, long minorUnitValue) {
+        Money m = currency.moneyCache().unRound(minorUnitValue);
+        return m != null ? m : new Money(currency, minorUnitValue, false);
+    }
+
     static Money rounded(Currency currency, BigDecimal basicUnitValue) {
+        if (basicUnitValue.scale() == currency.getScale() && basicUnitValue.precision() < 19) {
+            return rounded(currency, basicUnitValue.unscaledValue().longValue());
+        }
         return new Money(currency, basicUnitValue, true);
     }
 
-    void rounded(BigDecimal basicUnitValue) {
-        this.basicUnitValue = basicUnitValue;
-        this.isRounded = true;
+    static Money rounded(Currency currency, long minorUnitValue) {
+        Money m = currency.moneyCache().rounded(minorUnitValue);
+        return m != null ? m : new Money(currency, minorUnitValue, true);
     }
 
+    /**
+     * the amount in basic unit, built and cached on first use for compact amount. The cache is a benign race like
+     * {@code String.hashCode()}: every thread builds an equal, immutable {@code BigDecimal}.
+     */
     BigDecimal basicUnitValue() {
-        return basicUnitValue;
+        BigDecimal value = basicUnitValue;
+        if (value == null) {
+            if (isRounded) {
+                value = BigDecimal.valueOf(minorUnitValue, currency.getScale());
+            } else {
+                // the same as minorUnitValue / 10^scale: the exact quotient in the smallest scale, not less than 0
+                long unscaled = minorUnitValue;
+                int scale = currency.getScale();
+                while (scale > 0 && unscaled % 10 == 0) {
+                    unscaled /= 10;
+                    scale--;
+                }
+                value = BigDecimal.valueOf(unscaled, scale);
+            }
+            basicUnitValue = value;
+        }
+        return value;
     }
 
     boolean isRounded() {
         return isRounded;
     }
 
+    /**
+     * whether the amount is held as a compact {@code long} of minor units
+     */
+    boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * the compact minor unit value, only meaningful when {@link #isCompact()} is true
+     */
+    long minorUnitValue() {
+        return minorUnitValue;
+    }
+
     /**
      * get currency context
      * 
@@ -62,7 +141,7 @@ public class Money {
      * @return amount in currency's basic unit
      */
     public double getBasicUnitValue() {
-        return basicUnitValue.doubleValue();
+        return basicUnitValue().doubleValue();
     }
 
     /**
@@ -71,7 +150,7 @@ public class Money {
      * @return amount in currency's basic unit
      */
     public String getBasicUnitValueString() {
-        return basicUnitValue.toString();
+        return basicUnitValue().toString();
     }
 
     /**
@@ -80,7 +159,10 @@ public class Money {
      * @return amount in currency's minor unit
      */
     public long getMinorUnitValue() {
-        return basicUnitValue.multiply(BigDecimal.TEN.pow(currency.getScale())).longValue();
+        if (compact) {
+            return minorUnitValue;
+        }
+        return basicUnitValue.multiply(currency.minorUnitFactorDecimal()).longValue();
     }
 
     /**
@@ -91,12 +173,57 @@ public class Money {
      */
     @Override
     public String toString() {
-        return new StringBuilder(currency.getCode()).append(' ').append(getBasicUnitValueString()).toString();
+        return MoneyFormat.DEFAULT.format(this);
+    }
+
+    /**
+     * parse the money string of {@link #toString()}, e.g. {@code USD 1.00}
+     * 
+     * @param text
+     *            - currency code + whitespace + amount in currency's basic unit
+     * @return a rounded money if the amount has exactly the scale of currency, otherwise an unrounded money with the
+     *         exact amount of the text, so {@code Money.parse(m.toString())} equals {@code m}
+     * @throws IllegalArgumentException
+     *             if text is null or illegal, or the currency is not found in {@link CurrencyFactory}
+     * @see MoneyFormat
+     */
+    public static Money parse(CharSequence text) {
+        return MoneyFormat.DEFAULT.parse(text);
+    }
+
+    /**
+     * compare with another money, see the natural ordering of this class
+     * 
+     * @param other
+     * @return a negative integer, zero, or a positive integer as this money is less than, equal to, or greater than
+     *         the other.
+     * @throws NullPointerException
+     *             if other is null
+     */
+    @Override
+    public int compareTo(Money other) {
+        if (currency != other.currency) {
+            int cmp = currency.getCode().compareTo(other.currency.getCode());
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        if (compact && other.compact && currency.getScale() == other.currency.getScale()) {
+            int cmp = Long.compare(minorUnitValue, other.minorUnitValue);
+            // equal minor unit values differ in scale only if one of them is rounded and the other is not
+            if (cmp != 0 || isRounded == other.isRounded) {
+                return cmp;
+            }
+        }
+        BigDecimal value = basicUnitValue();
+        BigDecimal otherValue = other.basicUnitValue();
+        int cmp = value.compareTo(otherValue);
+        return cmp != 0 ? cmp : Integer.compare(value.scale(), otherValue.scale());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(basicUnitValue, currency);
+        return Objects.hash(basicUnitValue(), currency);
     }
 
     @Override
@@ -111,7 +238,74 @@ public class Money {
             return false;
         }
         Money other = (Money)obj;
-        return Objects.equals(basicUnitValue, other.basicUnitValue) && Objects.equals(currency, other.currency);
+        if (compact && isRounded && other.compact && other.isRounded) {
+            return minorUnitValue == other.minorUnitValue && currency.getScale() == other.currency.getScale()
+                && Objects.equals(currency, other.currency);
+        }
+        return Objects.equals(basicUnitValue(), other.basicUnitValue()) && Objects.equals(currency, other.currency);
     }
 
+    /**
+     * The canonical instances of frequently used amounts of a currency: small amounts around zero in minor unit, and
+     * common denominations in basic unit. Slots are filled on first use, a race only builds an equal instance twice.
+     */
+    static final class Cache {
+        private static final int LOW = -128;
+        private static final int HIGH = 127;
+        private static final long[] DENOMINATIONS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+        private final Currency currency;
+        private final Money[] rounded = new Money[HIGH - LOW + 1];
+        private final Money[] unRounded = new Money[HIGH - LOW + 1];
+        /**
+         * denominations in minor unit, ascending, and larger than {@link #HIGH}
+         */
+        private final long[] denominations;
+        private final Money[] roundedDenominations;
+        private final Money[] unRoundedDenominations;
+
+        Cache(Currency currency) {
+            this.currency = currency;
+            long factor = currency.minorUnitFactor();
+            long[] denominations = new long[DENOMINATIONS.length];
+            int n = 0;
+            for (long denomination : DENOMINATIONS) {
+                if (factor > 0 && denomination <= Long.MAX_VALUE / factor && denomination * factor > HIGH) {
+                    denominations[n++] = denomination * factor;
+                }
+            }
+            this.denominations = Arrays.copyOf(denominations, n);
+            this.roundedDenominations = new Money[n];
+            this.unRoundedDenominations = new Money[n];
+        }
+
+        Money rounded(long minorUnitValue) {
+            return get(rounded, roundedDenominations, minorUnitValue, true);
+        }
+
+        Money unRound(long minorUnitValue) {
+            return get(unRounded, unRoundedDenominations, minorUnitValue, false);
+        }
+
+        private Money get(Money[] small, Money[] denomination, long minorUnitValue, boolean isRounded) {
+            int index;
+            Money[] slots;
+            if (minorUnitValue >= LOW && minorUnitValue <= HIGH) {
+                slots = small;
+                index = (int)minorUnitValue - LOW;
+            } else if (minorUnitValue > HIGH && denominations.length > 0
+                && minorUnitValue <= denominations[denominations.length - 1]
+                && (index = Arrays.binarySearch(denominations, minorUnitValue)) >= 0) {
+                slots = denomination;
+            } else {
+                return null;
+            }
+            Money m = slots[index];
+            if (m == null) {
+                m = new Money(currency, minorUnitValue, isRounded);
+                slots[index] = m;
+            }
+            return m;
+        }
+    }
 }
@@ -0,0 +1,355 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The concurrent running total of same currency money - <strong>threadsafe</strong>.
+ * <p>
+ * 设计同{@code java.util.concurrent.atomic.LongAdder}：金额按最小单位累加，无竞争时只更新一个基础值，不额外占用内存；CAS失败后
+ * 才按需创建计数单元（各占独立的缓存行），并随竞争加倍，最多不超过CPU核数；每个线程持有一个探针选择计数单元，冲突时重新散列。<br>
+ * {@link #add(Money)}无锁，多线程高并发更新时吞吐随核数近似线性增长；{@link #sum()}汇总基础值及所有计数单元得到舍入后的合计。<br>
+ * 计数单元溢出{@code long}时，其值连同本次增量一起精确地转入{@code BigDecimal}，合计永远精确，与逐个{@code calculator.add}一致。
+ * <br>
+ * 与{@code LongAdder}相同，{@link #sum()}不是原子快照：与之并发的{@code add}可能计入，也可能不计入。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * ConcurrentMap&lt;String, MoneyAdder&gt; totals = new ConcurrentHashMap&lt;&gt;();
+ * 
+ * totals.computeIfAbsent(merchantId, k -&gt; new MoneyAdder(usd, RoundingMode.HALF_UP)).add(m);// 多线程并发
+ * Money total = totals.get(merchantId).sum();
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public class MoneyAdder {
+    /**
+     * the max number of cells, the number of CPUs rounded up to a power of two
+     */
+    private static final int MAX_CELLS;
+    static {
+        int cpus = Math.max(Runtime.getRuntime().availableProcessors(), 1);
+        MAX_CELLS = Math.min(Integer.highestOneBit(cpus - 1) << 1, 1 << 10);
+    }
+    private static final AtomicLongFieldUpdater<MoneyAdder> BASE =
+        AtomicLongFieldUpdater.newUpdater(MoneyAdder.class, "base");
+    private static final AtomicIntegerFieldUpdater<MoneyAdder> CELLS_BUSY =
+        AtomicIntegerFieldUpdater.newUpdater(MoneyAdder.class, "cellsBusy");
+    /**
+     * the probe of the current thread, never 0, to pick a cell; rehashed when the picked cell is contended
+     */
+    private static final ThreadLocal<int[]> PROBE =
+        ThreadLocal.withInitial(() -> new int[] {ThreadLocalRandom.current().nextInt() | 1});
+
+    private final Currency currency;
+    private final MoneyArithmetic arithmetic;
+    /**
+     * the sum in minor unit while there is no contention, and the fallback while the cells are being created
+     */
+    private volatile long base;
+    /**
+     * null until the first contention, then a power of two in length
+     */
+    private volatile Cell[] cells;
+    /**
+     * the spin lock of creating or resizing the cells
+     */
+    private volatile int cellsBusy;
+    /**
+     * the amount spilled out of base and cells, in basic unit, null if never overflow. Guarded by this.
+     */
+    private BigDecimal overflow;
+
+    /**
+     * MoneyAdder constructor, the initial sum is 0
+     * 
+     * @param currency
+     *            - can't be null
+     * @param roundingMode
+     *            - to round the added money, can't be null
+     */
+    public MoneyAdder(Currency currency, RoundingMode roundingMode) {
+        if (currency == null || roundingMode == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        this.currency = currency;
+        this.arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public RoundingMode getRoundingMode() {
+        return arithmetic.getRoundingMode();
+    }
+
+    /**
+     * add a money, rounded to the currency's scale
+     * 
+     * @param m
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not same as the adder.
+     */
+    public void add(Money m) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (m.getCurrency() != currency && !currency.equals(m.getCurrency())) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+        m = arithmetic.round(m);
+        if (m.isCompact()) {
+            addMinorUnitValue(m.minorUnitValue());
+        } else {
+            addOverflow(m.basicUnitValue());
+        }
+    }
+
+    /**
+     * add an amount in minor unit
+     * 
+     * @param minorUnitValue
+     */
+    public void addMinorUnitValue(long minorUnitValue) {
+        if (cells == null && casBase(minorUnitValue)) {
+            return;
+        }
+        addToCells(minorUnitValue);
+    }
+
+    /**
+     * try to add to the base once
+     * 
+     * @return false if contended
+     */
+    private boolean casBase(long delta) {
+        long current = base;
+        long next = current + delta;
+        if (overflows(current, delta, next)) {
+            spillBase(delta);
+            return true;
+        }
+        return BASE.compareAndSet(this, current, next);
+    }
+
+    /**
+     * add to the cell of the current thread's probe, creating or doubling the cells on contention, the same as
+     * {@code Striped64.longAccumulate}
+     */
+    private void addToCells(long delta) {
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        boolean collide = false;
+        for (;;) {
+            Cell[] cs = cells;
+            int n;
+            if (cs != null && (n = cs.length) > 0) {
+                Cell cell = cs[h & (n - 1)];
+                if (cell == null) {
+                    if (cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1)) {
+                        try {
+                            Cell[] rs = cells;
+                            int j = h & (rs.length - 1);
+                            if (rs[j] == null) {
+                                rs[j] = new Cell(delta);
+                                return;
+                            }
+                        } finally {
+                            cellsBusy = 0;
+                        }
+                        // the slot is taken meanwhile, retry
+                        continue;
+                    }
+                    collide = false;
+                } else {
+                    long current = cell.value;
+                    long next = current + delta;
+                    if (overflows(current, delta, next)) {
+                        spill(cell, delta);
+                        return;
+                    }
+                    if (cell.compareAndSet(current, next)) {
+                        return;
+                    }
+                    if (n >= MAX_CELLS || cells != cs) {
+                        // at max size or stale, just rehash
+                        collide = false;
+                    } else if (!collide) {
+                        collide = true;
+                    } else if (cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1)) {
+                        try {
+                            if (cells == cs) {
+                                cells = Arrays.copyOf(cs, n << 1);
+                            }
+                        } finally {
+                            cellsBusy = 0;
+                        }
+                        collide = false;
+                        // retry with the doubled cells
+                        continue;
+                    }
+                }
+                // xorshift, so contended threads move apart
+                h ^= h << 13;
+                h ^= h >>> 17;
+                h ^= h << 5;
+                probe[0] = h;
+            } else if (cellsBusy == 0 && cells == cs && CELLS_BUSY.compareAndSet(this, 0, 1)) {
+                try {
+                    if (cells == cs) {
+                        Cell[] rs = new Cell[2];
+                        rs[h & 1] = new Cell(delta);
+                        cells = rs;
+                        return;
+                    }
+                } finally {
+                    cellsBusy = 0;
+                }
+            } else if (casBase(delta)) {
+                // the cells are being created, fall back to the base
+                return;
+            }
+        }
+    }
+
+    /**
+     * the sum of added money
+     * 
+     * @return the rounded sum
+     */
+    public Money sum() {
+        long sum = 0;
+        BigDecimal spilled;
+        synchronized (this) {
+            spilled = overflow;
+            Cell[] cs = cells;
+            int n = cs == null ? 0 : cs.length;
+            for (int i = -1; i < n; i++) {
+                long value;
+                if (i < 0) {
+                    value = base;
+                } else if (cs[i] != null) {
+                    value = cs[i].value;
+                } else {
+                    continue;
+                }
+                long next = sum + value;
+                if (overflows(sum, value, next)) {
+                    BigDecimal part = BigDecimal.valueOf(sum, currency.getScale());
+                    spilled = spilled == null ? part : spilled.add(part);
+                    next = value;
+                }
+                sum = next;
+            }
+        }
+        if (spilled == null) {
+            return Money.rounded(currency, sum);
+        }
+        return Money.rounded(currency, spilled.add(BigDecimal.valueOf(sum, currency.getScale())));
+    }
+
+    /**
+     * reset the sum to 0, only effective if there is no concurrent update
+     */
+    public synchronized void reset() {
+        base = 0;
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell cell : cs) {
+                if (cell != null) {
+                    cell.value = 0;
+                }
+            }
+        }
+        overflow = null;
+    }
+
+    /**
+     * the number of cell slots, 0 until the first contention
+     */
+    int cellCount() {
+        Cell[] cs = cells;
+        return cs == null ? 0 : cs.length;
+    }
+
+    private static boolean overflows(long current, long delta, long next) {
+        return ((current ^ next) & (delta ^ next)) < 0;
+    }
+
+    /**
+     * move the base and the delta into {@link #overflow}, exactly
+     */
+    private synchronized void spillBase(long delta) {
+        addSpilled(BASE.getAndSet(this, 0), delta);
+    }
+
+    /**
+     * move the cell and the delta into {@link #overflow}, exactly
+     */
+    private synchronized void spill(Cell cell, long delta) {
+        addSpilled(cell.getAndSet(0), delta);
+    }
+
+    private void addSpilled(long value, long delta) {
+        BigDecimal part = BigDecimal.valueOf(value, currency.getScale())
+            .add(BigDecimal.valueOf(delta, currency.getScale()));
+        overflow = overflow == null ? part : overflow.add(part);
+    }
+
+    private synchronized void addOverflow(BigDecimal basicUnitValue) {
+        overflow = overflow == null ? basicUnitValue : overflow.add(basicUnitValue);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(64);
+        builder.append("MoneyAdder [sum=");
+        builder.append(sum());
+        builder.append(", roundingMode=");
+        builder.append(getRoundingMode());
+        builder.append("]");
+        return builder.toString();
+    }
+
+    /**
+     * longs before the value of a cell, the padding is split over a class hierarchy because the JVM doesn't reorder
+     * fields across classes, so a cell never shares a cache line with another
+     */
+    @SuppressWarnings("unused")
+    private static class CellPaddingBefore {
+        long p0, p1, p2, p3, p4, p5, p6;
+    }
+
+    private static class CellValue extends CellPaddingBefore {
+        static final AtomicLongFieldUpdater<CellValue> VALUE =
+            AtomicLongFieldUpdater.newUpdater(CellValue.class, "value");
+        volatile long value;
+    }
+
+    /**
+     * a striped cell in minor unit
+     */
+    @SuppressWarnings("unused")
+    private static final class Cell extends CellValue {
+        long q0, q1, q2, q3, q4, q5, q6;
+
+        Cell(long value) {
+            this.value = value;
+        }
+
+        boolean compareAndSet(long expect, long update) {
+            return VALUE.compareAndSet(this, expect, update);
+        }
+
+        long getAndSet(long update) {
+            return VALUE.getAndSet(this, update);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.github.ciferliu;
+
+import java.math.RoundingMode;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * The bulk aggregation of same currency money - <strong>threadsafe</strong>.
+ * <p>
+ * 对大批量同币种金额求和、最小值、最大值、平均值及按正负号计数，结果与逐个{@code calculator.add}完全一致。<br>
+ * 每种舍入模式只有一个共享实例；{@code parallelSummarize}系列方法将输入拆分后在{@link ForkJoinPool}上并行汇总。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyAggregator aggregator = MoneyAggregator.fromRoundingMode(RoundingMode.HALF_UP);
+ * 
+ * MoneySummaryStatistics statistics = aggregator.parallelSummarize(moneyArray);
+ * Money sum = statistics.getSum();
+ * Money average = statistics.getAverage();
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyAggregator {
+    /**
+     * inputs no larger than this are summarized sequentially by a single fork/join task
+     */
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    private static final MoneyAggregator[] INSTANCES;
+    static {
+        RoundingMode[] roundingModes = RoundingMode.values();
+        INSTANCES = new MoneyAggregator[roundingModes.length];
+        for (RoundingMode roundingMode : roundingModes) {
+            INSTANCES[roundingMode.ordinal()] = new MoneyAggregator(roundingMode);
+        }
+    }
+
+    private final RoundingMode roundingMode;
+
+    private MoneyAggregator(RoundingMode roundingMode) {
+        this.roundingMode = roundingMode;
+    }
+
+    /**
+     * get the shared aggregator of the rounding mode
+     * 
+     * @param roundingMode
+     * @return
+     */
+    public static MoneyAggregator fromRoundingMode(RoundingMode roundingMode) {
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("roundingMode can't be null");
+        }
+        return INSTANCES[roundingMode.ordinal()];
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * summarize sequentially
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics summarize(Iterable<Money> monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        MoneySummaryStatistics statistics = MoneySummaryStatistics.fromRoundingMode(roundingMode);
+        for (Money m : monies) {
+            statistics.accept(m);
+        }
+        return statistics;
+    }
+
+    /**
+     * summarize sequentially
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics summarize(Money[] monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return summarize(monies, 0, monies.length);
+    }
+
+    /**
+     * summarize the range {@code [from, to)} of the array sequentially
+     * 
+     * @param monies
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the range is out of the array
+     */
+    public MoneySummaryStatistics summarize(Money[] monies, int from, int to) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        MoneySummaryStatistics statistics = MoneySummaryStatistics.fromRoundingMode(roundingMode);
+        for (int i = from; i < to; i++) {
+            statistics.accept(monies[i]);
+        }
+        return statistics;
+    }
+
+    /**
+     * summarize the stream, in parallel if the stream is parallel
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics summarize(Stream<Money> monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        final RoundingMode roundingMode = this.roundingMode;
+        return monies.collect(() -> MoneySummaryStatistics.fromRoundingMode(roundingMode),
+            MoneySummaryStatistics::accept, MoneySummaryStatistics::combine);
+    }
+
+    /**
+     * summarize sequentially
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics summarize(Spliterator<Money> monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        MoneySummaryStatistics statistics = MoneySummaryStatistics.fromRoundingMode(roundingMode);
+        monies.forEachRemaining(statistics::accept);
+        return statistics;
+    }
+
+    /**
+     * summarize in parallel on the common fork/join pool
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics parallelSummarize(Iterable<Money> monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return parallelSummarize(monies.spliterator());
+    }
+
+    /**
+     * summarize in parallel on the common fork/join pool
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics parallelSummarize(Money[] monies) {
+        return parallelSummarize(monies, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * summarize in parallel on the given fork/join pool
+     * 
+     * @param monies
+     * @param pool
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies, any element or pool is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics parallelSummarize(Money[] monies, ForkJoinPool pool) {
+        if (monies == null || pool == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return pool.invoke(new ArrayTask(monies, 0, monies.length));
+    }
+
+    /**
+     * summarize the stream in parallel
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics parallelSummarize(Stream<Money> monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return summarize(monies.parallel());
+    }
+
+    /**
+     * summarize in parallel on the common fork/join pool, the spliterator is split by {@link Spliterator#trySplit()}
+     * 
+     * @param monies
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics parallelSummarize(Spliterator<Money> monies) {
+        return parallelSummarize(monies, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * summarize in parallel on the given fork/join pool, the spliterator is split by {@link Spliterator#trySplit()}
+     * 
+     * @param monies
+     * @param pool
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies, any element or pool is null, or the currencies are not same.
+     */
+    public MoneySummaryStatistics parallelSummarize(Spliterator<Money> monies, ForkJoinPool pool) {
+        if (monies == null || pool == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return pool.invoke(new SpliteratorTask(monies));
+    }
+
+    private final class ArrayTask extends RecursiveTask<MoneySummaryStatistics> {
+        private static final long serialVersionUID = 1L;
+        private final Money[] monies;
+        private final int from;
+        private final int to;
+
+        ArrayTask(Money[] monies, int from, int to) {
+            this.monies = monies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MoneySummaryStatistics compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return summarize(monies, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ArrayTask left = new ArrayTask(monies, from, middle);
+            left.fork();
+            MoneySummaryStatistics statistics = new ArrayTask(monies, middle, to).compute();
+            MoneySummaryStatistics leftStatistics = left.join();
+            leftStatistics.combine(statistics);
+            return leftStatistics;
+        }
+    }
+
+    private final class SpliteratorTask extends RecursiveTask<MoneySummaryStatistics> {
+        private static final long serialVersionUID = 1L;
+        private final Spliterator<Money> monies;
+
+        SpliteratorTask(Spliterator<Money> monies) {
+            this.monies = monies;
+        }
+
+        @Override
+        protected MoneySummaryStatistics compute() {
+            Spliterator<Money> prefix;
+            if (monies.estimateSize() <= PARALLEL_THRESHOLD || (prefix = monies.trySplit()) == null) {
+                return summarize(monies);
+            }
+            SpliteratorTask left = new SpliteratorTask(prefix);
+            left.fork();
+            MoneySummaryStatistics statistics = new SpliteratorTask(monies).compute();
+            MoneySummaryStatistics leftStatistics = left.join();
+            leftStatistics.combine(statistics);
+            return leftStatistics;
+        }
+    }
+}
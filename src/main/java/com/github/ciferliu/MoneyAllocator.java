@@ -0,0 +1,279 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The allocation of money by weights, with an exact sum - <strong>threadsafe</strong>.
+ * <p>
+ * 按权重将金额拆分为N份，各份之和严格等于原金额（最大余额法）：每份先取{@code total * weight / sum(weights)}向零取整的最小单位，
+ * 剩余的最小单位依次分给余数最大的份额，余数相同时下标小者优先，结果确定。<br>
+ * 拆分全程在{@code long}最小单位上完成，不为每份创建{@code BigDecimal}；待拆分金额先按舍入模式舍入到币种精度。<br>
+ * 负数金额按其绝对值拆分后取负，权重为0的份额为0。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyAllocator allocator = MoneyAllocator.fromRoundingMode(RoundingMode.HALF_UP);
+ * 
+ * Money[] shares = allocator.allocate(usd.fromBasicUnitValue(100), new long[] {1, 1, 1});// 33.34, 33.33, 33.33
+ * Money[] fees = allocator.allocate(charge, new double[] {0.029, 0.06, 0.911});
+ * long[] payroll = allocator.allocateMinorUnitValues(total, salaries);
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyAllocator {
+    private static final MoneyAllocator[] INSTANCES;
+    static {
+        RoundingMode[] roundingModes = RoundingMode.values();
+        INSTANCES = new MoneyAllocator[roundingModes.length];
+        for (RoundingMode roundingMode : roundingModes) {
+            INSTANCES[roundingMode.ordinal()] = new MoneyAllocator(roundingMode);
+        }
+    }
+
+    private final MoneyArithmetic arithmetic;
+
+    private MoneyAllocator(RoundingMode roundingMode) {
+        this.arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
+    }
+
+    /**
+     * get the shared allocator of the rounding mode
+     * 
+     * @param roundingMode
+     *            - to round the money before allocation
+     * @return
+     */
+    public static MoneyAllocator fromRoundingMode(RoundingMode roundingMode) {
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("roundingMode can't be null");
+        }
+        return INSTANCES[roundingMode.ordinal()];
+    }
+
+    public RoundingMode getRoundingMode() {
+        return arithmetic.getRoundingMode();
+    }
+
+    /**
+     * allocate into n equal shares, the leading shares take one more minor unit if not divisible
+     * 
+     * @param m
+     * @param n
+     *            - can't less than 1
+     * @return the rounded shares
+     * @throws IllegalArgumentException
+     *             if m is null or out of {@code long} range in minor unit, or n is less than 1
+     */
+    public Money[] allocate(Money m, int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        long[] weights = new long[n];
+        Arrays.fill(weights, 1);
+        return allocate(m, weights);
+    }
+
+    /**
+     * allocate by integer weights
+     * 
+     * @param m
+     * @param weights
+     *            - can't be negative, and the sum must be positive and in {@code long} range
+     * @return the rounded shares, the sum is exactly the rounded m
+     * @throws IllegalArgumentException
+     *             if m is null or out of {@code long} range in minor unit, or weights is illegal
+     */
+    public Money[] allocate(Money m, long[] weights) {
+        Money rounded = arithmetic.round(m);
+        if (!rounded.isCompact()) {
+            throw new IllegalArgumentException("money is out of long range, can't be allocated");
+        }
+        Currency currency = m.getCurrency();
+        long[] shares = allocateMinorUnitValues(rounded.minorUnitValue(), weights);
+        Money[] monies = new Money[shares.length];
+        for (int i = 0; i < shares.length; i++) {
+            monies[i] = Money.rounded(currency, shares[i]);
+        }
+        return monies;
+    }
+
+    /**
+     * allocate by decimal ratios, e.g. {@code 0.029, 0.06, 0.911}, the ratios needn't sum up to 1
+     * 
+     * @param m
+     * @param ratios
+     *            - can't be negative, Infinite or NaN
+     * @return the rounded shares, the sum is exactly the rounded m
+     * @throws IllegalArgumentException
+     *             if m is null or out of {@code long} range in minor unit, or ratios is illegal
+     */
+    public Money[] allocate(Money m, double[] ratios) {
+        return allocate(m, toWeights(ratios));
+    }
+
+    /**
+     * allocate an amount in minor unit by integer weights, the primitive form for large allocations
+     * 
+     * @param total
+     *            - in minor unit
+     * @param weights
+     *            - can't be negative, and the sum must be positive and in {@code long} range
+     * @return the shares in minor unit, the sum is exactly the total
+     * @throws IllegalArgumentException
+     *             if weights is illegal, or total is {@code Long.MIN_VALUE}
+     */
+    public long[] allocateMinorUnitValues(long total, long[] weights) {
+        if (total == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("total is out of range");
+        }
+        long sum = checkWeights(weights);
+        int n = weights.length;
+        long[] shares = new long[n];
+        long[] remainders = new long[n];
+        long magnitude = Math.abs(total);
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            try {
+                long product = Math.multiplyExact(magnitude, weights[i]);
+                shares[i] = product / sum;
+                remainders[i] = product % sum;
+            } catch (ArithmeticException e) {
+                BigInteger[] qr = BigInteger.valueOf(magnitude).multiply(BigInteger.valueOf(weights[i]))
+                    .divideAndRemainder(BigInteger.valueOf(sum));
+                shares[i] = qr[0].longValue();
+                remainders[i] = qr[1].longValue();
+            }
+            allocated += shares[i];
+        }
+        // the minor units left are less than n, one more for each of the largest remainders
+        int left = (int)(magnitude - allocated);
+        if (left > 0) {
+            // the selection permutes the remainders, so they are computed again by index below
+            long threshold = select(remainders, n - left);
+            int above = 0;
+            for (long remainder : remainders) {
+                if (remainder > threshold) {
+                    above++;
+                }
+            }
+            int ties = left - above;
+            for (int i = 0; i < n; i++) {
+                long remainder = remainder(magnitude, weights[i], sum);
+                if (remainder > threshold) {
+                    shares[i]++;
+                } else if (remainder == threshold && ties > 0) {
+                    shares[i]++;
+                    ties--;
+                }
+            }
+        }
+        if (total < 0) {
+            for (int i = 0; i < n; i++) {
+                shares[i] = -shares[i];
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * {@code magnitude * weight % sum}
+     */
+    private static long remainder(long magnitude, long weight, long sum) {
+        try {
+            return Math.multiplyExact(magnitude, weight) % sum;
+        } catch (ArithmeticException e) {
+            return BigInteger.valueOf(magnitude).multiply(BigInteger.valueOf(weight)).mod(BigInteger.valueOf(sum))
+                .longValue();
+        }
+    }
+
+    /**
+     * the k-th smallest of the values, from 0, by quickselect in expected linear time; the values are permuted
+     */
+    private static long select(long[] values, int k) {
+        int from = 0;
+        int to = values.length - 1;
+        while (from < to) {
+            long pivot = values[from + ThreadLocalRandom.current().nextInt(to - from + 1)];
+            // three-way partition, as equal remainders are common: [from, lt) < pivot, [lt, gt] == pivot,
+            // (gt, to] > pivot
+            int lt = from;
+            int gt = to;
+            int i = from;
+            while (i <= gt) {
+                long value = values[i];
+                if (value < pivot) {
+                    values[i++] = values[lt];
+                    values[lt++] = value;
+                } else if (value > pivot) {
+                    values[i] = values[gt];
+                    values[gt--] = value;
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                to = lt - 1;
+            } else if (k > gt) {
+                from = gt + 1;
+            } else {
+                return pivot;
+            }
+        }
+        return values[k];
+    }
+
+    private static long checkWeights(long[] weights) {
+        if (weights == null || weights.length == 0) {
+            throw new IllegalArgumentException("weights can't be null or empty");
+        }
+        long sum = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("weight can't be negative");
+            }
+            try {
+                sum = Math.addExact(sum, weight);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("sum of weights is out of long range");
+            }
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("sum of weights can't be zero");
+        }
+        return sum;
+    }
+
+    /**
+     * scale the ratios to integer weights of the same proportion
+     */
+    private static long[] toWeights(double[] ratios) {
+        if (ratios == null || ratios.length == 0) {
+            throw new IllegalArgumentException("ratios can't be null or empty");
+        }
+        BigDecimal[] decimals = new BigDecimal[ratios.length];
+        int scale = 0;
+        for (int i = 0; i < ratios.length; i++) {
+            if (Double.isInfinite(ratios[i]) || Double.isNaN(ratios[i]) || ratios[i] < 0) {
+                throw new IllegalArgumentException("ratio can't be negative, Infinite or NaN");
+            }
+            decimals[i] = BigDecimal.valueOf(ratios[i]);
+            scale = Math.max(scale, decimals[i].scale());
+        }
+        long[] weights = new long[ratios.length];
+        try {
+            for (int i = 0; i < ratios.length; i++) {
+                weights[i] = decimals[i].setScale(scale).unscaledValue().longValueExact();
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("ratios are out of range");
+        }
+        return weights;
+    }
+}
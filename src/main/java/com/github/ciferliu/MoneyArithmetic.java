@@ -0,0 +1,431 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The stateless money arithmetic - <strong>threadsafe</strong>.
+ * <p>
+ * 与{@link MoneyCalculator}的计算规则完全一致，但不持有计算结果，也不修改入参，每种舍入模式只有一个共享实例，可在多线程间共享使用。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyArithmetic arithmetic = MoneyArithmetic.fromRoundingMode(RoundingMode.HALF_UP);// 四舍五入，全局共享
+ * 
+ * Money m = CurrencyFactory.get("USD").fromBasicUnitValue(100.00);
+ * Money m2 = CurrencyFactory.get("USD").fromMinorUnitValue(10000);
+ * 
+ * Money result = arithmetic.multiply(arithmetic.add(m, m2), 0.5);
+ * long minorUnitValue = result.getMinorUnitValue();// 10000
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyArithmetic {
+    private static final MoneyArithmetic[] INSTANCES;
+    static {
+        RoundingMode[] roundingModes = RoundingMode.values();
+        INSTANCES = new MoneyArithmetic[roundingModes.length];
+        for (RoundingMode roundingMode : roundingModes) {
+            INSTANCES[roundingMode.ordinal()] = new MoneyArithmetic(roundingMode);
+        }
+    }
+
+    private final RoundingMode roundingMode;
+
+    private MoneyArithmetic(RoundingMode roundingMode) {
+        this.roundingMode = roundingMode;
+    }
+
+    /**
+     * get the shared arithmetic of the rounding mode
+     * 
+     * @param roundingMode
+     * @return
+     */
+    public static MoneyArithmetic fromRoundingMode(RoundingMode roundingMode) {
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("roundingMode can't be null");
+        }
+        return INSTANCES[roundingMode.ordinal()];
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * round the money to its currency's scale
+     * 
+     * @param m
+     * @return the rounded money, {@code m} itself if it's already rounded
+     * @throws IllegalArgumentException
+     *             if m is null
+     */
+    public Money round(Money m) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (m.isRounded()) {
+            return m;
+        }
+        if (m.isCompact()) {
+            return Money.rounded(m.getCurrency(), m.minorUnitValue());
+        }
+        return Money.rounded(m.getCurrency(),
+            m.basicUnitValue().divide(BigDecimal.ONE, m.getCurrency().getScale(), roundingMode));
+    }
+
+    /**
+     * add
+     * 
+     * @param m1
+     * @param m2
+     *            augend value.
+     * @return {@code m1 + m2}
+     * @throws IllegalArgumentException
+     *             if arguments are illegal.
+     */
+    public Money add(Money m1, Money m2) {
+        checkSameCurrency(m1, m2);
+        m1 = round(m1);
+        m2 = round(m2);
+        if (m1.isCompact() && m2.isCompact()) {
+            try {
+                return Money.rounded(m2.getCurrency(), Math.addExact(m1.minorUnitValue(), m2.minorUnitValue()));
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        return Money.rounded(m2.getCurrency(), m1.basicUnitValue().add(m2.basicUnitValue()));
+    }
+
+    /**
+     * subtract {@code (m1 - m2)}
+     * 
+     * @param m1
+     * @param m2
+     *            subtrahend value.
+     * @return {@code m1 - m2}
+     * @throws IllegalArgumentException
+     *             if arguments are illegal.
+     */
+    public Money subtract(Money m1, Money m2) {
+        checkSameCurrency(m1, m2);
+        m1 = round(m1);
+        m2 = round(m2);
+        if (m1.isCompact() && m2.isCompact()) {
+            try {
+                return Money.rounded(m2.getCurrency(), Math.subtractExact(m1.minorUnitValue(), m2.minorUnitValue()));
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        return Money.rounded(m2.getCurrency(), m1.basicUnitValue().subtract(m2.basicUnitValue()));
+    }
+
+    /**
+     * multiply {@code (m * rate)}
+     * 
+     * @param m
+     * @param rate
+     *            multiplicand value.
+     * @return {@code m * rate}
+     * @throws IllegalArgumentException
+     *             if arguments are illegal.
+     */
+    public Money multiply(Money m, double rate) {
+        m = round(m);
+        return multiply(m, Rate.of(rate), m.getCurrency());
+    }
+
+    /**
+     * multiply {@code (m * rate)}
+     * 
+     * @param m
+     * @param rate
+     *            multiplicand value.
+     * @return {@code m * rate}
+     * @throws IllegalArgumentException
+     *             if arguments are illegal.
+     */
+    public Money multiply(Money m, Rate rate) {
+        m = round(m);
+        if (rate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return multiply(m, rate, m.getCurrency());
+    }
+
+    /**
+     * divide {@code (m / rate)}
+     * 
+     * @param m
+     * @param rate
+     *            divisor value.
+     * @return {@code m / rate}
+     * @throws IllegalArgumentException
+     *             if m is null or rate is 0.
+     */
+    public Money divide(Money m, double rate) {
+        m = round(m);
+        if (rate == 0) {
+            throw new IllegalArgumentException("rate can't be zero");
+        }
+        return divide(m, Rate.of(rate), m.getCurrency());
+    }
+
+    /**
+     * divide {@code (m / rate)}
+     * 
+     * @param m
+     * @param rate
+     *            divisor value.
+     * @return {@code m / rate}
+     * @throws IllegalArgumentException
+     *             if m or rate is null, or rate is 0.
+     */
+    public Money divide(Money m, Rate rate) {
+        m = round(m);
+        if (rate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (rate.signum() == 0) {
+            throw new IllegalArgumentException("rate can't be zero");
+        }
+        return divide(m, rate, m.getCurrency());
+    }
+
+    /**
+     * FX {@code (m * rate)}
+     * 
+     * @param m
+     * @param targetCurrency
+     *            target currency
+     * @param fxRate
+     *            FX rate
+     * @return a new currency money with value {@code m * rate}, or the rounded {@code m} if the currency is same
+     * @throws IllegalArgumentException
+     *             if m or targetCurrency is null, or rate is 0.
+     */
+    public Money fxByMultiply(Money m, Currency targetCurrency, double fxRate) {
+        m = round(m);
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        // Currency is same, the rate is 1, and the result is the same value
+        if (m.getCurrency().equals(targetCurrency)) {
+            return m;
+        }
+        if (fxRate == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        return multiply(m, Rate.of(fxRate), targetCurrency);
+    }
+
+    /**
+     * FX {@code (m * rate)}
+     * 
+     * @param m
+     * @param targetCurrency
+     *            target currency
+     * @param fxRate
+     *            FX rate
+     * @return a new currency money with value {@code m * rate}, or the rounded {@code m} if the currency is same
+     * @throws IllegalArgumentException
+     *             if m, targetCurrency or fxRate is null, or rate is 0.
+     */
+    public Money fxByMultiply(Money m, Currency targetCurrency, Rate fxRate) {
+        m = round(m);
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        if (fxRate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        // Currency is same, the rate is 1, and the result is the same value
+        if (m.getCurrency().equals(targetCurrency)) {
+            return m;
+        }
+        if (fxRate.signum() == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        return multiply(m, fxRate, targetCurrency);
+    }
+
+    /**
+     * FX {@code (m * rate)}, with the current rate of the provider
+     * 
+     * @param m
+     * @param targetCurrency
+     *            target currency
+     * @param provider
+     *            the provider of FX rate
+     * @return a new currency money with value {@code m * provider.getRate(m.currency, targetCurrency)}, or the rounded
+     *         {@code m} if the currency is same
+     * @throws IllegalArgumentException
+     *             if m, targetCurrency or provider is null, or the rate is not provided.
+     */
+    public Money fxByMultiply(Money m, Currency targetCurrency, FxRateProvider provider) {
+        m = round(m);
+        if (targetCurrency == null || provider == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (m.getCurrency().equals(targetCurrency)) {
+            return m;
+        }
+        return fxByMultiply(m, targetCurrency, provider.getExactRate(m.getCurrency(), targetCurrency));
+    }
+
+    /**
+     * FX {@code (m / rate)}
+     * 
+     * @param m
+     * @param targetCurrency
+     *            target currency
+     * @param fxRate
+     *            FX rate
+     * @return a new currency money with value {@code m / rate}, or the rounded {@code m} if the currency is same
+     * @throws IllegalArgumentException
+     *             if m or targetCurrency is null, or rate is 0.
+     */
+    public Money fxByDivide(Money m, Currency targetCurrency, double fxRate) {
+        m = round(m);
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        // Currency is same, the rate is 1, and the result is the same value
+        if (m.getCurrency().equals(targetCurrency)) {
+            return m;
+        }
+        if (fxRate == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        return divide(m, Rate.of(fxRate), targetCurrency);
+    }
+
+    /**
+     * FX {@code (m / rate)}
+     * 
+     * @param m
+     * @param targetCurrency
+     *            target currency
+     * @param fxRate
+     *            FX rate
+     * @return a new currency money with value {@code m / rate}, or the rounded {@code m} if the currency is same
+     * @throws IllegalArgumentException
+     *             if m, targetCurrency or fxRate is null, or rate is 0.
+     */
+    public Money fxByDivide(Money m, Currency targetCurrency, Rate fxRate) {
+        m = round(m);
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        if (fxRate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        // Currency is same, the rate is 1, and the result is the same value
+        if (m.getCurrency().equals(targetCurrency)) {
+            return m;
+        }
+        if (fxRate.signum() == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        return divide(m, fxRate, targetCurrency);
+    }
+
+    /**
+     * {@code m * rate} rounded to the target currency, m is rounded
+     */
+    private Money multiply(Money m, Rate rate, Currency targetCurrency) {
+        int targetScale = targetCurrency.getScale();
+        if (m.isCompact() && rate.isCompact()) {
+            try {
+                return Money.rounded(targetCurrency,
+                    multiplyMinorUnitValue(m.minorUnitValue(), m.getCurrency().getScale(), rate, targetScale));
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        BigDecimal value = m.basicUnitValue().multiply(rate.toBigDecimal());
+        return Money.rounded(targetCurrency, value.divide(BigDecimal.ONE, targetScale, roundingMode));
+    }
+
+    /**
+     * {@code m / rate} rounded to the target currency, m is rounded and rate is not 0
+     */
+    private Money divide(Money m, Rate rate, Currency targetCurrency) {
+        int targetScale = targetCurrency.getScale();
+        if (m.isCompact() && rate.isCompact()) {
+            try {
+                return Money.rounded(targetCurrency,
+                    divideMinorUnitValue(m.minorUnitValue(), m.getCurrency().getScale(), rate, targetScale));
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        return Money.rounded(targetCurrency, m.basicUnitValue().divide(rate.toBigDecimal(), targetScale, roundingMode));
+    }
+
+    /**
+     * {@code minorUnitValue * rate} rounded to the target scale, entirely in {@code long}, the kernel shared by every
+     * multiplication and FX by multiply on minor unit amounts
+     * 
+     * @throws ArithmeticException
+     *             if the rate is not compact, or the result can't be computed in {@code long}, the caller falls back
+     *             to the {@code BigDecimal} path
+     */
+    long multiplyMinorUnitValue(long minorUnitValue, int scale, Rate rate, int targetScale) {
+        if (!rate.isCompact()) {
+            throw new ArithmeticException("long overflow");
+        }
+        return MinorUnitMath.multiply(minorUnitValue, scale, rate.unscaledValue(), rate.getScale(), targetScale,
+            roundingMode);
+    }
+
+    /**
+     * {@code minorUnitValue / rate} rounded to the target scale, entirely in {@code long}, rate is not 0
+     * 
+     * @throws ArithmeticException
+     *             if the rate is not compact, or the result can't be computed in {@code long}, the caller falls back
+     *             to the {@code BigDecimal} path
+     */
+    long divideMinorUnitValue(long minorUnitValue, int scale, Rate rate, int targetScale) {
+        if (!rate.isCompact()) {
+            throw new ArithmeticException("long overflow");
+        }
+        return MinorUnitMath.divide(minorUnitValue, scale, rate.unscaledValue(), rate.getScale(), targetScale,
+            roundingMode);
+    }
+
+    /**
+     * Compares its two arguments for order. Returns a negative integer, zero, or a positive integer as the first
+     * argument is less than, equal to, or greater than the second.
+     * 
+     * @param m1
+     * @param m2
+     * @return a negative integer, zero, or a positive integer as the first argument is less than, equal to, or greater
+     *         than the second.
+     * @throws IllegalArgumentException
+     *             if m1 or m2 is null, or the currency of two parameters are not same.
+     */
+    public int compare(Money m1, Money m2) {
+        checkSameCurrency(m1, m2);
+        m1 = round(m1);
+        m2 = round(m2);
+        if (m1.isCompact() && m2.isCompact()) {
+            return Long.compare(m1.minorUnitValue(), m2.minorUnitValue());
+        }
+        return m1.basicUnitValue().compareTo(m2.basicUnitValue());
+    }
+
+    private static void checkSameCurrency(Money m1, Money m2) {
+        if (m1 == null || m2 == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (!m1.getCurrency().equals(m2.getCurrency())) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * A multi-currency amount, e.g. a wallet or an account balance - <strong>non-threadsafe</strong>.
+ * <p>
+ * 每个币种一个槽位，金额按最小单位保存在{@code long[]}中，更新时不创建{@link Money}对象；超出{@code long}范围的金额以
+ * {@code BigDecimal}单独保存。币种少时（常见的1~3个）按槽位线性查找，币种多时建立以{@link Currency#getId()}为下标的索引，
+ * 可容纳全部注册币种。只支持{@link CurrencyFactory}中注册的币种。<br>
+ * 每次加减都按舍入模式舍入到币种精度，与对应币种上的{@code calculator.add}/{@code subtract}链一致。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyBag wallet = new MoneyBag(RoundingMode.HALF_UP);
+ * wallet.add(usd.fromBasicUnitValue(10)).add(cny.fromBasicUnitValue(20)).subtract(usd.fromBasicUnitValue(1));
+ * wallet.add(otherWallet);// 合并
+ * 
+ * Money total = wallet.convertByMultiply(usd, registry);// 一次遍历折算为美元合计
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public class MoneyBag {
+    /**
+     * marks the slot whose value is in {@link #overflows}
+     */
+    private static final long OVERFLOW = Long.MIN_VALUE;
+    /**
+     * slots looked up linearly up to this size, then by {@link #slotById}
+     */
+    private static final int LINEAR_LIMIT = 8;
+    private static final int DEFAULT_CAPACITY = 2;
+
+    private final MoneyArithmetic arithmetic;
+    private Currency[] currencies;
+    /**
+     * amounts in minor unit, by slot
+     */
+    private long[] values;
+    private int size;
+    /**
+     * amounts in basic unit out of {@code long} range, by slot, null if none
+     */
+    private BigDecimal[] overflows;
+    /**
+     * currency id -> slot + 1, 0 if absent, null while the bag is small
+     */
+    private int[] slotById;
+
+    /**
+     * MoneyBag constructor, an empty bag
+     * 
+     * @param roundingMode
+     *            - can't be null
+     */
+    public MoneyBag(RoundingMode roundingMode) {
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        this.arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
+        this.currencies = new Currency[DEFAULT_CAPACITY];
+        this.values = new long[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * build a bag of the monies
+     * 
+     * @param roundingMode
+     * @param monies
+     * @return
+     */
+    public static MoneyBag of(RoundingMode roundingMode, Money... monies) {
+        MoneyBag bag = new MoneyBag(roundingMode);
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        for (Money m : monies) {
+            bag.add(m);
+        }
+        return bag;
+    }
+
+    public RoundingMode getRoundingMode() {
+        return arithmetic.getRoundingMode();
+    }
+
+    /**
+     * the number of currencies in the bag
+     * 
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * whether the currency has been added, even if its amount is 0 now
+     * 
+     * @param currency
+     * @return
+     */
+    public boolean contains(Currency currency) {
+        return currency != null && slot(currency) >= 0;
+    }
+
+    /**
+     * get the amount of the currency
+     * 
+     * @param currency
+     * @return the rounded amount, 0 if the currency is not in the bag
+     */
+    public Money get(Currency currency) {
+        if (currency == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        int slot = slot(currency);
+        return slot < 0 ? Money.rounded(currency, 0) : get(slot);
+    }
+
+    /**
+     * the currencies in the bag, in the order they were added
+     * 
+     * @return
+     */
+    public Currency[] currencies() {
+        return Arrays.copyOf(currencies, size);
+    }
+
+    /**
+     * the amounts in the bag, in the order their currencies were added
+     * 
+     * @return the rounded amounts
+     */
+    public Money[] toArray() {
+        Money[] monies = new Money[size];
+        for (int i = 0; i < size; i++) {
+            monies[i] = get(i);
+        }
+        return monies;
+    }
+
+    /**
+     * add a money
+     * 
+     * @param m
+     * @return
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not registered in {@link CurrencyFactory}
+     */
+    public MoneyBag add(Money m) {
+        return add(m, false);
+    }
+
+    /**
+     * subtract a money
+     * 
+     * @param m
+     * @return
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not registered in {@link CurrencyFactory}
+     */
+    public MoneyBag subtract(Money m) {
+        return add(m, true);
+    }
+
+    /**
+     * merge another bag into this one, currency by currency
+     * 
+     * @param other
+     * @return
+     */
+    public MoneyBag add(MoneyBag other) {
+        return add(other, false);
+    }
+
+    /**
+     * subtract another bag from this one, currency by currency
+     * 
+     * @param other
+     * @return
+     */
+    public MoneyBag subtract(MoneyBag other) {
+        return add(other, true);
+    }
+
+    /**
+     * convert the whole bag into one currency, {@code sum(amount * rate)}, in a single pass over the slots. Each
+     * amount is converted and rounded the same as {@link MoneyCalculator#fxByMultiply(Currency, FxRateProvider)},
+     * then summed.
+     * 
+     * @param targetCurrency
+     * @param rates
+     *            - {@code 1 from = rates.getRate(from, targetCurrency) * targetCurrency}
+     * @return the rounded total in target currency, 0 if the bag is empty
+     * @throws IllegalArgumentException
+     *             if any argument is null, or a rate is not provided or is 0.
+     */
+    public Money convertByMultiply(Currency targetCurrency, FxRateProvider rates) {
+        return convert(targetCurrency, rates, false);
+    }
+
+    /**
+     * convert the whole bag into one currency, {@code sum(amount / rate)}, in a single pass over the slots. Each
+     * amount is converted and rounded the same as {@link MoneyCalculator#fxByDivide(Currency, double)}, then summed.
+     * 
+     * @param targetCurrency
+     * @param rates
+     *            - {@code 1 targetCurrency = rates.getRate(targetCurrency, from) * from}
+     * @return the rounded total in target currency, 0 if the bag is empty
+     * @throws IllegalArgumentException
+     *             if any argument is null, or a rate is not provided or is 0.
+     */
+    public Money convertByDivide(Currency targetCurrency, FxRateProvider rates) {
+        return convert(targetCurrency, rates, true);
+    }
+
+    private Money convert(Currency targetCurrency, FxRateProvider rates, boolean divide) {
+        if (targetCurrency == null || rates == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (rates instanceof FxRateRegistry) {
+            rates = ((FxRateRegistry)rates).getSnapshot();
+        }
+        int targetScale = targetCurrency.getScale();
+        long sum = 0;
+        BigDecimal overflowSum = null;
+        for (int i = 0; i < size; i++) {
+            Currency currency = currencies[i];
+            long value = values[i];
+            long converted = 0;
+            BigDecimal convertedOverflow = null;
+            if (currency.equals(targetCurrency)) {
+                if (value == OVERFLOW) {
+                    convertedOverflow = overflows[i];
+                } else {
+                    converted = value;
+                }
+            } else {
+                Rate rate = divide ? rates.getExactRate(targetCurrency, currency)
+                    : rates.getExactRate(currency, targetCurrency);
+                if (rate.signum() == 0) {
+                    throw new IllegalArgumentException("fxRate can't be zero");
+                }
+                boolean fast = false;
+                if (value != OVERFLOW && rate.isCompact()) {
+                    try {
+                        converted = divide
+                            ? arithmetic.divideMinorUnitValue(value, currency.getScale(), rate, targetScale)
+                            : arithmetic.multiplyMinorUnitValue(value, currency.getScale(), rate, targetScale);
+                        fast = true;
+                    } catch (ArithmeticException e) {
+                        // overflow, fall through to the BigDecimal path
+                    }
+                }
+                if (!fast) {
+                    Money m = divide ? arithmetic.fxByDivide(get(i), targetCurrency, rate)
+                        : arithmetic.fxByMultiply(get(i), targetCurrency, rate);
+                    if (m.isCompact()) {
+                        converted = m.minorUnitValue();
+                    } else {
+                        convertedOverflow = m.basicUnitValue();
+                    }
+                }
+            }
+            if (convertedOverflow != null) {
+                overflowSum = overflowSum == null ? convertedOverflow : overflowSum.add(convertedOverflow);
+                continue;
+            }
+            long next = sum + converted;
+            if (((sum ^ next) & (converted ^ next)) < 0) {
+                BigDecimal spilled = BigDecimal.valueOf(sum, targetScale);
+                overflowSum = overflowSum == null ? spilled : overflowSum.add(spilled);
+                next = converted;
+            }
+            sum = next;
+        }
+        if (overflowSum == null) {
+            return Money.rounded(targetCurrency, sum);
+        }
+        return Money.rounded(targetCurrency, overflowSum.add(BigDecimal.valueOf(sum, targetScale)));
+    }
+
+    private MoneyBag add(Money m, boolean subtract) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        Currency currency = m.getCurrency();
+        if (currency.getId() < 0) {
+            throw new IllegalArgumentException("currency is not registered in CurrencyFactory: " + currency.getCode());
+        }
+        m = arithmetic.round(m);
+        int slot = slotOrAdd(currency);
+        if (m.isCompact()) {
+            addMinorUnitValue(slot, m.minorUnitValue(), subtract);
+        } else {
+            addOverflow(slot, subtract ? m.basicUnitValue().negate() : m.basicUnitValue());
+        }
+        return this;
+    }
+
+    private MoneyBag add(MoneyBag other, boolean subtract) {
+        if (other == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        // a snapshot of the size, other may be this bag
+        int otherSize = other.size;
+        for (int i = 0; i < otherSize; i++) {
+            int slot = slotOrAdd(other.currencies[i]);
+            long value = other.values[i];
+            if (value == OVERFLOW) {
+                BigDecimal overflow = other.overflows[i];
+                addOverflow(slot, subtract ? overflow.negate() : overflow);
+            } else {
+                addMinorUnitValue(slot, value, subtract);
+            }
+        }
+        return this;
+    }
+
+    private void addMinorUnitValue(int slot, long value, boolean subtract) {
+        long current = values[slot];
+        if (current != OVERFLOW) {
+            try {
+                long next = subtract ? Math.subtractExact(current, value) : Math.addExact(current, value);
+                if (next != OVERFLOW) {
+                    values[slot] = next;
+                    return;
+                }
+            } catch (ArithmeticException e) {
+                // overflow, fall through to the BigDecimal path
+            }
+        }
+        BigDecimal delta = BigDecimal.valueOf(value, currencies[slot].getScale());
+        addOverflow(slot, subtract ? delta.negate() : delta);
+    }
+
+    private void addOverflow(int slot, BigDecimal delta) {
+        BigDecimal current = values[slot] == OVERFLOW ? overflows[slot]
+            : BigDecimal.valueOf(values[slot], currencies[slot].getScale());
+        BigDecimal next = current.add(delta);
+        int scale = currencies[slot].getScale();
+        if (next.scale() == scale && next.unscaledValue().bitLength() < 64
+            && next.unscaledValue().longValue() != OVERFLOW) {
+            values[slot] = next.unscaledValue().longValue();
+            if (overflows != null) {
+                overflows[slot] = null;
+            }
+            return;
+        }
+        if (overflows == null) {
+            overflows = new BigDecimal[currencies.length];
+        }
+        overflows[slot] = next;
+        values[slot] = OVERFLOW;
+    }
+
+    private Money get(int slot) {
+        long value = values[slot];
+        if (value == OVERFLOW) {
+            return Money.rounded(currencies[slot], overflows[slot]);
+        }
+        return Money.rounded(currencies[slot], value);
+    }
+
+    /**
+     * the slot of the currency, -1 if absent
+     */
+    private int slot(Currency currency) {
+        int id = currency.getId();
+        if (slotById != null) {
+            return id >= 0 && id < slotById.length ? slotById[id] - 1 : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (currencies[i].getId() == id && currencies[i].equals(currency)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int slotOrAdd(Currency currency) {
+        int slot = slot(currency);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (size == currencies.length) {
+            int capacity = currencies.length * 2;
+            currencies = Arrays.copyOf(currencies, capacity);
+            values = Arrays.copyOf(values, capacity);
+            if (overflows != null) {
+                overflows = Arrays.copyOf(overflows, capacity);
+            }
+        }
+        slot = size++;
+        currencies[slot] = currency;
+        values[slot] = 0;
+        if (slotById == null && size > LINEAR_LIMIT) {
+            slotById = new int[0];
+            for (int i = 0; i < size; i++) {
+                index(i);
+            }
+        } else if (slotById != null) {
+            index(slot);
+        }
+        return slot;
+    }
+
+    private void index(int slot) {
+        int id = currencies[slot].getId();
+        if (id >= slotById.length) {
+            slotById = Arrays.copyOf(slotById, Math.max(id + 1, slotById.length * 2));
+        }
+        slotById[id] = slot + 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(16 + size * 16);
+        builder.append("MoneyBag [");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(get(i));
+        }
+        builder.append("]");
+        return builder.toString();
+    }
+}
@@ -1,12 +1,13 @@
 package com.github.ciferliu;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
 
 /**
  * The Money Calculator - <strong>non-threadsafe</strong>.
  * <p>
- * 注意：此类为<strong>非线程安全</strong>，请确保在单线程下使用。<br> 
+ * 注意：此类为<strong>非线程安全</strong>，请确保在单线程下使用；多线程共享请使用{@link MoneyArithmetic}。<br> 
  * 用法：
  * 
  * <pre class="code">
@@ -21,15 +22,29 @@ import java.math.RoundingMode;
  * long minorUnitValue = result.getMinorUnitValue();// 20000
  * </pre>
  * 
+ * 可选的运行指标：{@link #withMetrics(MoneyMetricsSink)}开启后，每次运算向{@link MoneyMetricsSink}报告操作类型、舍入残差及抽样耗时；
+ * 未开启时每次运算只多一次判断。
+ * 
  * @author Cifer Liu
  * @date 2020/03/18
  */
 public class MoneyCalculator {
-    private RoundingMode roundingMode = null;
+    /**
+     * one operation in this many is timed by default
+     */
+    public static final int DEFAULT_LATENCY_SAMPLE_INTERVAL = 64;
+
+    private final MoneyArithmetic arithmetic;
     private Money result;
+    /**
+     * null if metrics are disabled
+     */
+    private MoneyMetricsSink metrics;
+    private int latencySampleInterval;
+    private int unsampled;
 
     private MoneyCalculator(RoundingMode roundingMode) {
-        this.roundingMode = roundingMode;
+        this.arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
     }
 
     /**
@@ -45,6 +60,36 @@ public class MoneyCalculator {
         return new MoneyCalculator(roundingMode);
     }
 
+    /**
+     * enable metrics, with the {@link #DEFAULT_LATENCY_SAMPLE_INTERVAL}
+     * 
+     * @param sink
+     *            - null to disable metrics
+     * @return
+     */
+    public MoneyCalculator withMetrics(MoneyMetricsSink sink) {
+        return withMetrics(sink, DEFAULT_LATENCY_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * enable metrics
+     * 
+     * @param sink
+     *            - null to disable metrics
+     * @param latencySampleInterval
+     *            - time one operation in this many, 1 to time all of them
+     * @return
+     */
+    public MoneyCalculator withMetrics(MoneyMetricsSink sink, int latencySampleInterval) {
+        if (latencySampleInterval < 1) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        this.metrics = sink;
+        this.latencySampleInterval = latencySampleInterval;
+        this.unsampled = 0;
+        return this;
+    }
+
     /**
      * init a value to calculator
      * 
@@ -54,11 +99,10 @@ public class MoneyCalculator {
      *             if m is null
      */
     public MoneyCalculator init(Money m) {
-        if (m == null) {
-            throw new IllegalArgumentException("argument can't be null");
+        if (metrics != null) {
+            return measure(MoneyOperation.INIT, m, null, null);
         }
-        round(m);
-        result = m;
+        result = arithmetic.round(m);
         return this;
     }
 
@@ -68,7 +112,8 @@ public class MoneyCalculator {
      * @return
      */
     public Money getResult() {
-        Money result = Money.rounded(this.result.getCurrency(), this.result.basicUnitValue());
+        preCheck();
+        Money result = this.result;
         this.result = null;
         return result;
     }
@@ -93,8 +138,11 @@ public class MoneyCalculator {
      *             if arguments are illegal.
      */
     public MoneyCalculator add(Money m) {
-        preCheck(m);
-        result = Money.rounded(m.getCurrency(), result.basicUnitValue().add(m.basicUnitValue()));
+        preCheck();
+        if (metrics != null) {
+            return measure(MoneyOperation.ADD, m, null, null);
+        }
+        result = arithmetic.add(result, m);
         return this;
     }
 
@@ -108,8 +156,11 @@ public class MoneyCalculator {
      *             if arguments are illegal.
      */
     public MoneyCalculator subtract(Money m) {
-        preCheck(m);
-        result = Money.rounded(m.getCurrency(), result.basicUnitValue().subtract(m.basicUnitValue()));
+        preCheck();
+        if (metrics != null) {
+            return measure(MoneyOperation.SUBTRACT, m, null, null);
+        }
+        result = arithmetic.subtract(result, m);
         return this;
     }
 
@@ -124,9 +175,28 @@ public class MoneyCalculator {
      */
     public MoneyCalculator multiply(double rate) {
         preCheck();
-        BigDecimal bvalue = result.basicUnitValue().multiply(BigDecimal.valueOf(rate));
-        bvalue = bvalue.divide(BigDecimal.ONE, result.getCurrency().getScale(), roundingMode);
-        result = Money.rounded(result.getCurrency(), bvalue);
+        if (metrics != null) {
+            return measure(MoneyOperation.MULTIPLY, null, Rate.of(rate), null);
+        }
+        result = arithmetic.multiply(result, rate);
+        return this;
+    }
+
+    /**
+     * multiply {@code (m * rate)}
+     * 
+     * @param rate
+     *            multiplicand value.
+     * @return {@code this.value * rate}
+     * @throws IllegalArgumentException
+     *             if rate is null.
+     */
+    public MoneyCalculator multiply(Rate rate) {
+        preCheck();
+        if (metrics != null && rate != null) {
+            return measure(MoneyOperation.MULTIPLY, null, rate, null);
+        }
+        result = arithmetic.multiply(result, rate);
         return this;
     }
 
@@ -141,78 +211,134 @@ public class MoneyCalculator {
      */
     public MoneyCalculator divide(double rate) {
         preCheck();
-        if (rate == 0) {
-            throw new IllegalArgumentException("rate can't be zero");
+        if (metrics != null) {
+            return measure(MoneyOperation.DIVIDE, null, Rate.of(rate), null);
         }
-        BigDecimal bvalue =
-            result.basicUnitValue().divide(BigDecimal.valueOf(rate), result.getCurrency().getScale(), roundingMode);
-        result = Money.rounded(result.getCurrency(), bvalue);
+        result = arithmetic.divide(result, rate);
+        return this;
+    }
+
+    /**
+     * divide {@code (m / rate)}
+     * 
+     * @param rate
+     *            divisor value.
+     * @return {@code this.value / rate}
+     * @throws IllegalArgumentException
+     *             if rate is null or 0.
+     */
+    public MoneyCalculator divide(Rate rate) {
+        preCheck();
+        if (metrics != null && rate != null) {
+            return measure(MoneyOperation.DIVIDE, null, rate, null);
+        }
+        result = arithmetic.divide(result, rate);
         return this;
     }
 
     /**
      * FX {@code (m * rate)}
      * 
-     * @param m
      * @param fxRate
      *            FX rate
      * @param targetCurrency
      *            target currency
      * @return a new currency money with value {@code m * rate}
-     * @throws NullPointerException
-     *             if m or targetCurrency is null.
      * @throws IllegalArgumentException
-     *             if rate is 0.
+     *             if targetCurrency is null, or rate is 0.
      */
     public MoneyCalculator fxByMultiply(Currency targetCurrency, double fxRate) {
         preCheck();
-        if (targetCurrency == null) {
-            throw new IllegalArgumentException("targetCurrency can't be null");
-        }
-        // Currency is same, the rate is 1, and the result is the same value
-        if (result.getCurrency().equals(targetCurrency)) {
-            return this;
+        if (metrics != null) {
+            return measure(MoneyOperation.FX_BY_MULTIPLY, null, Rate.of(fxRate), targetCurrency);
         }
-        if (fxRate == 0) {
-            throw new IllegalArgumentException("fxRate can't be zero");
+        result = arithmetic.fxByMultiply(result, targetCurrency, fxRate);
+        return this;
+    }
+
+    /**
+     * FX {@code (m * rate)}
+     * 
+     * @param targetCurrency
+     *            target currency
+     * @param fxRate
+     *            FX rate
+     * @return a new currency money with value {@code m * rate}
+     * @throws IllegalArgumentException
+     *             if targetCurrency or fxRate is null, or rate is 0.
+     */
+    public MoneyCalculator fxByMultiply(Currency targetCurrency, Rate fxRate) {
+        preCheck();
+        if (metrics != null && fxRate != null) {
+            return measure(MoneyOperation.FX_BY_MULTIPLY, null, fxRate, targetCurrency);
         }
+        result = arithmetic.fxByMultiply(result, targetCurrency, fxRate);
+        return this;
+    }
 
-        BigDecimal value = result.basicUnitValue().multiply(BigDecimal.valueOf(fxRate));
-        value = value.divide(BigDecimal.ONE, targetCurrency.getScale(), roundingMode);
-        result = Money.rounded(targetCurrency, value);
+    /**
+     * FX {@code (m * rate)}, with the current rate of the provider
+     * 
+     * @param targetCurrency
+     *            target currency
+     * @param provider
+     *            the provider of FX rate
+     * @return a new currency money with value {@code m * provider.getRate(m.currency, targetCurrency)}
+     * @throws IllegalArgumentException
+     *             if targetCurrency or provider is null, or the rate is not provided.
+     */
+    public MoneyCalculator fxByMultiply(Currency targetCurrency, FxRateProvider provider) {
+        preCheck();
+        if (metrics != null) {
+            if (targetCurrency == null || provider == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            // resolve the rate once, so the residual is computed with the rate of the result
+            Rate fxRate = result.getCurrency().equals(targetCurrency) ? Rate.ONE
+                : provider.getExactRate(result.getCurrency(), targetCurrency);
+            return measure(MoneyOperation.FX_BY_MULTIPLY, null, fxRate, targetCurrency);
+        }
+        result = arithmetic.fxByMultiply(result, targetCurrency, provider);
         return this;
     }
 
     /**
      * FX {@code (m / rate)}
      * 
-     * @param m
      * @param fxRate
      *            FX rate
      * @param targetCurrency
      *            target currency
      * @return a new currency money with value {@code m / rate}
-     * @throws NullPointerException
-     *             if m or targetCurrency is null.
      * @throws IllegalArgumentException
-     *             if rate is 0.
+     *             if targetCurrency is null, or rate is 0.
      */
     public MoneyCalculator fxByDivide(Currency targetCurrency, double fxRate) {
         preCheck();
-        if (targetCurrency == null) {
-            throw new IllegalArgumentException("targetCurrency can't be null");
-        }
-        // Currency is same, the rate is 1, and the result is the same value
-        if (result.getCurrency().equals(targetCurrency)) {
-            return this;
-        }
-        if (fxRate == 0) {
-            throw new IllegalArgumentException("fxRate can't be zero");
+        if (metrics != null) {
+            return measure(MoneyOperation.FX_BY_DIVIDE, null, Rate.of(fxRate), targetCurrency);
         }
+        result = arithmetic.fxByDivide(result, targetCurrency, fxRate);
+        return this;
+    }
 
-        BigDecimal value =
-            result.basicUnitValue().divide(BigDecimal.valueOf(fxRate), targetCurrency.getScale(), roundingMode);
-        result = Money.rounded(targetCurrency, value);
+    /**
+     * FX {@code (m / rate)}
+     * 
+     * @param targetCurrency
+     *            target currency
+     * @param fxRate
+     *            FX rate
+     * @return a new currency money with value {@code m / rate}
+     * @throws IllegalArgumentException
+     *             if targetCurrency or fxRate is null, or rate is 0.
+     */
+    public MoneyCalculator fxByDivide(Currency targetCurrency, Rate fxRate) {
+        preCheck();
+        if (metrics != null && fxRate != null) {
+            return measure(MoneyOperation.FX_BY_DIVIDE, null, fxRate, targetCurrency);
+        }
+        result = arithmetic.fxByDivide(result, targetCurrency, fxRate);
         return this;
     }
 
@@ -224,51 +350,89 @@ public class MoneyCalculator {
      * @param m2
      * @return a negative integer, zero, or a positive integer as the first argument is less than, equal to, or greater
      *         than the second.
-     * @throws NullPointerException
-     *             if m1 or m2 is null.
      * @throws IllegalArgumentException
-     *             if the currency of two parameters are not same.
+     *             if m1 or m2 is null, or the currency of two parameters are not same.
      */
     public int compare(Money m1, Money m2) {
-        if (m1 == null || m2 == null) {
-            throw new IllegalArgumentException("argument can't be null");
-        }
-        if (!m1.getCurrency().equals(m2.getCurrency())) {
-            throw new IllegalArgumentException("currency is not same, can't do the calculation");
-        }
-        round(m1);
-        round(m2);
-        long m1MinorUnitValue = m1.getMinorUnitValue();
-        long m2MinorUnitValue = m2.getMinorUnitValue();
-        if (m1MinorUnitValue < m2MinorUnitValue) {
-            return -1;
-        } else if (m1MinorUnitValue == m2MinorUnitValue) {
-            return 0;
-        } else {
-            return 1;
-        }
+        return arithmetic.compare(m1, m2);
     }
 
-    private void preCheck() {
-        if (this.result == null) {
-            throw new IllegalArgumentException("please inoke 'init' method first");
+    /**
+     * the operation with metrics, the same result as without
+     */
+    private MoneyCalculator measure(MoneyOperation operation, Money m, Rate rate, Currency targetCurrency) {
+        boolean sampled = ++unsampled >= latencySampleInterval;
+        long start = sampled ? System.nanoTime() : 0;
+        Money output;
+        switch (operation) {
+            case INIT:
+                output = arithmetic.round(m);
+                break;
+            case ADD:
+                output = arithmetic.add(result, m);
+                break;
+            case SUBTRACT:
+                output = arithmetic.subtract(result, m);
+                break;
+            case MULTIPLY:
+                output = arithmetic.multiply(result, rate);
+                break;
+            case DIVIDE:
+                output = arithmetic.divide(result, rate);
+                break;
+            case FX_BY_MULTIPLY:
+                output = arithmetic.fxByMultiply(result, targetCurrency, rate);
+                break;
+            default:
+                output = arithmetic.fxByDivide(result, targetCurrency, rate);
         }
-    }
+        long nanos = sampled ? System.nanoTime() - start : 0;
 
-    private void preCheck(Money m) {
-        preCheck();
-        if (m == null) {
-            throw new IllegalArgumentException("argument can't be null");
+        Currency currency = output.getCurrency();
+        metrics.onOperation(operation, currency);
+        BigDecimal exact = exact(operation, m, rate, currency);
+        if (exact != null) {
+            BigDecimal residual = output.basicUnitValue().subtract(exact);
+            if (residual.signum() != 0) {
+                metrics.onRounding(operation, arithmetic.getRoundingMode(), currency, residual);
+            }
+        }
+        if (sampled) {
+            unsampled = 0;
+            metrics.onLatency(operation, nanos);
         }
-        if (!this.result.getCurrency().equals(m.getCurrency())) {
-            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        result = output;
+        return this;
+    }
+
+    /**
+     * the exact value of the operation on the current result, null if nothing could be rounded
+     */
+    private BigDecimal exact(MoneyOperation operation, Money m, Rate rate, Currency currency) {
+        switch (operation) {
+            case INIT:
+                return m.isRounded() ? null : m.basicUnitValue();
+            case ADD:
+                return m.isRounded() ? null : result.basicUnitValue().add(m.basicUnitValue());
+            case SUBTRACT:
+                return m.isRounded() ? null : result.basicUnitValue().subtract(m.basicUnitValue());
+            case MULTIPLY:
+                return result.basicUnitValue().multiply(rate.toBigDecimal());
+            case DIVIDE:
+                return result.basicUnitValue().divide(rate.toBigDecimal(), MathContext.DECIMAL128);
+            case FX_BY_MULTIPLY:
+                // same currency, nothing is converted
+                return result.getCurrency().equals(currency) ? null
+                    : result.basicUnitValue().multiply(rate.toBigDecimal());
+            default:
+                return result.getCurrency().equals(currency) ? null
+                    : result.basicUnitValue().divide(rate.toBigDecimal(), MathContext.DECIMAL128);
         }
-        round(m);
     }
 
-    private void round(Money m) {
-        if (!m.isRounded()) {
-            m.rounded(m.basicUnitValue().divide(BigDecimal.ONE, m.getCurrency().getScale(), roundingMode));
+    private void preCheck() {
+        if (this.result == null) {
+            throw new IllegalArgumentException("please inoke 'init' method first");
         }
     }
 }
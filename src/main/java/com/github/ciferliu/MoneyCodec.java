@@ -0,0 +1,490 @@
+package com.github.ciferliu;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * The compact binary codec of {@link Money} - <strong>threadsafe</strong>.
+ * <p>
+ * 每个金额编码为：一个varint标签（{@code currencyId << 2 | kind}），加上zigzag varint编码的最小单位值；超出{@code long}
+ * 范围的金额转义为{@code BigDecimal}（zigzag varint的scale、varint的字节数及{@code unscaledValue}的补码字节）。
+ * 常见金额只占2~6个字节，编解码完全精确，保留是否已舍入。<br>
+ * 批量编码：数组为varint个数加逐个金额；{@link MoneyColumn}为币种id、varint个数，加逐个zigzag varint的最小单位值。<br>
+ * 币种以{@link Currency#getId()}编码，只支持{@link CurrencyFactory}中注册的币种，编解码双方的币种配置必须一致。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * ByteBuffer buffer = ByteBuffer.allocate(MoneyCodec.encodedSize(m));
+ * MoneyCodec.encode(m, buffer);
+ * buffer.flip();
+ * Money decoded = MoneyCodec.decode(buffer);
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyCodec {
+    private static final int ROUNDED = 0;
+    private static final int UNROUNDED = 1;
+    private static final int ROUNDED_DECIMAL = 2;
+    private static final int UNROUNDED_DECIMAL = 3;
+    private static final int KIND_BITS = 2;
+
+    private MoneyCodec() {}
+
+    /**
+     * the encoded size of the money in bytes
+     * 
+     * @param m
+     * @return
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not registered
+     */
+    public static int encodedSize(Money m) {
+        checkMoney(m);
+        int id = m.getCurrency().getId();
+        if (m.isCompact()) {
+            return varLongSize(tag(id, m.isRounded() ? ROUNDED : UNROUNDED)) + varLongSize(zigZag(m.minorUnitValue()));
+        }
+        BigDecimal value = m.basicUnitValue();
+        int length = (value.unscaledValue().bitLength() >> 3) + 1;
+        return varLongSize(tag(id, ROUNDED_DECIMAL)) + varLongSize(zigZag(value.scale())) + varLongSize(length)
+            + length;
+    }
+
+    /**
+     * encode the money at the position of the buffer
+     * 
+     * @param m
+     * @param buffer
+     * @throws IllegalArgumentException
+     *             if any argument is null, or the currency is not registered
+     * @throws java.nio.BufferOverflowException
+     *             if there is insufficient space in the buffer
+     */
+    public static void encode(Money m, ByteBuffer buffer) {
+        try {
+            encode(m, output(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * encode the money to the output
+     * 
+     * @param m
+     * @param out
+     * @throws IOException
+     *             if the output throws
+     * @throws IllegalArgumentException
+     *             if any argument is null, or the currency is not registered
+     */
+    public static void encode(Money m, DataOutput out) throws IOException {
+        encode(m, output(out));
+    }
+
+    /**
+     * decode a money at the position of the buffer
+     * 
+     * @param buffer
+     * @return
+     * @throws IllegalArgumentException
+     *             if buffer is null, or the encoding is illegal
+     * @throws java.nio.BufferUnderflowException
+     *             if the buffer ends in the middle of a money
+     */
+    public static Money decode(ByteBuffer buffer) {
+        try {
+            return decode(input(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * decode a money from the input
+     * 
+     * @param in
+     * @return
+     * @throws IOException
+     *             if the input throws, e.g. {@code EOFException}
+     * @throws IllegalArgumentException
+     *             if in is null, or the encoding is illegal
+     */
+    public static Money decode(DataInput in) throws IOException {
+        return decode(input(in));
+    }
+
+    /**
+     * encode the array at the position of the buffer
+     * 
+     * @param monies
+     *            - any currencies
+     * @param buffer
+     * @throws IllegalArgumentException
+     *             if any argument or element is null, or a currency is not registered
+     */
+    public static void encode(Money[] monies, ByteBuffer buffer) {
+        try {
+            encode(monies, output(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * encode the array to the output
+     * 
+     * @param monies
+     *            - any currencies
+     * @param out
+     * @throws IOException
+     *             if the output throws
+     * @throws IllegalArgumentException
+     *             if any argument or element is null, or a currency is not registered
+     */
+    public static void encode(Money[] monies, DataOutput out) throws IOException {
+        encode(monies, output(out));
+    }
+
+    /**
+     * decode an array encoded by {@link #encode(Money[], ByteBuffer)}
+     * 
+     * @param buffer
+     * @return
+     */
+    public static Money[] decodeArray(ByteBuffer buffer) {
+        try {
+            return decodeArray(input(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * decode an array encoded by {@link #encode(Money[], DataOutput)}
+     * 
+     * @param in
+     * @return
+     * @throws IOException
+     *             if the input throws
+     */
+    public static Money[] decodeArray(DataInput in) throws IOException {
+        return decodeArray(input(in));
+    }
+
+    /**
+     * encode the column at the position of the buffer
+     * 
+     * @param column
+     * @param buffer
+     * @throws IllegalArgumentException
+     *             if any argument is null, or the currency is not registered
+     */
+    public static void encode(MoneyColumn column, ByteBuffer buffer) {
+        try {
+            encode(column, output(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * encode the column to the output
+     * 
+     * @param column
+     * @param out
+     * @throws IOException
+     *             if the output throws
+     * @throws IllegalArgumentException
+     *             if any argument is null, or the currency is not registered
+     */
+    public static void encode(MoneyColumn column, DataOutput out) throws IOException {
+        encode(column, output(out));
+    }
+
+    /**
+     * decode a column encoded by {@link #encode(MoneyColumn, ByteBuffer)}
+     * 
+     * @param buffer
+     * @param roundingMode
+     *            - the rounding mode of the decoded column
+     * @return
+     */
+    public static MoneyColumn decodeColumn(ByteBuffer buffer, RoundingMode roundingMode) {
+        try {
+            return decodeColumn(input(buffer), roundingMode);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * decode a column encoded by {@link #encode(MoneyColumn, DataOutput)}
+     * 
+     * @param in
+     * @param roundingMode
+     *            - the rounding mode of the decoded column
+     * @return
+     * @throws IOException
+     *             if the input throws
+     */
+    public static MoneyColumn decodeColumn(DataInput in, RoundingMode roundingMode) throws IOException {
+        return decodeColumn(input(in), roundingMode);
+    }
+
+    private static void encode(Money m, Output out) throws IOException {
+        checkMoney(m);
+        int id = m.getCurrency().getId();
+        if (m.isCompact()) {
+            out.writeVarLong(tag(id, m.isRounded() ? ROUNDED : UNROUNDED));
+            out.writeVarLong(zigZag(m.minorUnitValue()));
+        } else {
+            out.writeVarLong(tag(id, m.isRounded() ? ROUNDED_DECIMAL : UNROUNDED_DECIMAL));
+            writeDecimal(m.basicUnitValue(), out);
+        }
+    }
+
+    private static Money decode(Input in) throws IOException {
+        long tag = in.readVarLong();
+        Currency currency = currency(tag >>> KIND_BITS);
+        switch ((int)(tag & ((1 << KIND_BITS) - 1))) {
+            case ROUNDED:
+                return Money.rounded(currency, unZigZag(in.readVarLong()));
+            case UNROUNDED:
+                return Money.unRound(currency, unZigZag(in.readVarLong()));
+            case ROUNDED_DECIMAL:
+                return Money.rounded(currency, readDecimal(in));
+            default:
+                return Money.unRound(currency, readDecimal(in));
+        }
+    }
+
+    private static void encode(Money[] monies, Output out) throws IOException {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        out.writeVarLong(monies.length);
+        for (Money m : monies) {
+            encode(m, out);
+        }
+    }
+
+    private static Money[] decodeArray(Input in) throws IOException {
+        Money[] monies = new Money[length(in.readVarLong())];
+        for (int i = 0; i < monies.length; i++) {
+            monies[i] = decode(in);
+        }
+        return monies;
+    }
+
+    private static void encode(MoneyColumn column, Output out) throws IOException {
+        if (column == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        checkCurrency(column.getCurrency());
+        out.writeVarLong(column.getCurrency().getId());
+        out.writeVarLong(column.size());
+        for (int i = 0; i < column.size(); i++) {
+            long value = column.rawValue(i);
+            // the overflow sentinel Long.MIN_VALUE is followed by the escaped amount
+            out.writeVarLong(zigZag(value));
+            if (value == MoneyColumn.OVERFLOW) {
+                writeDecimal(column.get(i).basicUnitValue(), out);
+            }
+        }
+    }
+
+    private static MoneyColumn decodeColumn(Input in, RoundingMode roundingMode) throws IOException {
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("roundingMode can't be null");
+        }
+        Currency currency = currency(in.readVarLong());
+        int size = length(in.readVarLong());
+        MoneyColumn column = new MoneyColumn(currency, roundingMode, size);
+        for (int i = 0; i < size; i++) {
+            long value = unZigZag(in.readVarLong());
+            if (value == MoneyColumn.OVERFLOW) {
+                column.append(Money.rounded(currency, readDecimal(in)));
+            } else {
+                column.appendMinorUnitValue(value);
+            }
+        }
+        return column;
+    }
+
+    private static void writeDecimal(BigDecimal value, Output out) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeVarLong(zigZag(value.scale()));
+        out.writeVarLong(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(Input in) throws IOException {
+        long scale = unZigZag(in.readVarLong());
+        if (scale != (int)scale) {
+            throw new IllegalArgumentException("illegal encoding, scale: " + scale);
+        }
+        byte[] unscaled = new byte[length(in.readVarLong())];
+        if (unscaled.length == 0) {
+            throw new IllegalArgumentException("illegal encoding, empty decimal");
+        }
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), (int)scale);
+    }
+
+    private static long tag(int id, int kind) {
+        return ((long)id << KIND_BITS) | kind;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int length(long length) {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("illegal encoding, length: " + length);
+        }
+        return (int)length;
+    }
+
+    private static Currency currency(long id) {
+        Currency currency = id <= Integer.MAX_VALUE ? CurrencyFactory.get((int)id) : null;
+        if (currency == null) {
+            throw new IllegalArgumentException("illegal encoding, currency id: " + id);
+        }
+        return currency;
+    }
+
+    private static void checkMoney(Money m) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        checkCurrency(m.getCurrency());
+    }
+
+    private static void checkCurrency(Currency currency) {
+        if (currency.getId() < 0) {
+            throw new IllegalArgumentException("currency is not registered in CurrencyFactory: " + currency.getCode());
+        }
+    }
+
+    private static Output output(final ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return new Output() {
+            @Override
+            void writeByte(int b) {
+                buffer.put((byte)b);
+            }
+
+            @Override
+            void write(byte[] bytes) {
+                buffer.put(bytes);
+            }
+        };
+    }
+
+    private static Output output(final DataOutput out) {
+        if (out == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return new Output() {
+            @Override
+            void writeByte(int b) throws IOException {
+                out.writeByte(b);
+            }
+
+            @Override
+            void write(byte[] bytes) throws IOException {
+                out.write(bytes);
+            }
+        };
+    }
+
+    private static Input input(final ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return new Input() {
+            @Override
+            int readByte() {
+                return buffer.get();
+            }
+
+            @Override
+            void readFully(byte[] bytes) {
+                buffer.get(bytes);
+            }
+        };
+    }
+
+    private static Input input(final DataInput in) {
+        if (in == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return new Input() {
+            @Override
+            int readByte() throws IOException {
+                return in.readByte();
+            }
+
+            @Override
+            void readFully(byte[] bytes) throws IOException {
+                in.readFully(bytes);
+            }
+        };
+    }
+
+    private abstract static class Output {
+        abstract void writeByte(int b) throws IOException;
+
+        abstract void write(byte[] bytes) throws IOException;
+
+        final void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int)(value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int)value);
+        }
+    }
+
+    private abstract static class Input {
+        abstract int readByte() throws IOException;
+
+        abstract void readFully(byte[] bytes) throws IOException;
+
+        final long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long)(b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("illegal encoding, varint is too long");
+        }
+    }
+}
@@ -0,0 +1,702 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A columnar container of same currency money - <strong>non-threadsafe</strong>.
+ * <p>
+ * Amounts are held rounded, as a {@code long[]} of minor units, instead of a {@link Money} object per amount. The rare
+ * amount out of {@code long} range is kept in a side table and marked by a sentinel in the array. Every operation
+ * rounds the same way as {@link MoneyCalculator} does, so {@code column.get(i)} is exactly the money the calculator
+ * would return for the same input.
+ * <p>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyColumn column = new MoneyColumn(CurrencyFactory.get("USD"), RoundingMode.HALF_UP);
+ * column.appendMinorUnitValues(new long[] {100, 250, 399});
+ * column.append(CurrencyFactory.get("USD").fromBasicUnitValue(1.005));
+ * column.multiply(1.1);
+ * Money sum = column.sum();
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public class MoneyColumn {
+    /**
+     * marks the element whose value is in {@link #overflows}
+     */
+    static final long OVERFLOW = Long.MIN_VALUE;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Currency currency;
+    private final MoneyArithmetic arithmetic;
+    private long[] values;
+    private int size;
+    /**
+     * index -> amount in basic unit, for amounts out of {@code long} range, null if none
+     */
+    private Map<Integer, BigDecimal> overflows;
+
+    /**
+     * MoneyColumn constructor
+     * 
+     * @param currency
+     *            - can't be null
+     * @param roundingMode
+     *            - can't be null
+     */
+    public MoneyColumn(Currency currency, RoundingMode roundingMode) {
+        this(currency, roundingMode, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * MoneyColumn constructor
+     * 
+     * @param currency
+     *            - can't be null
+     * @param roundingMode
+     *            - can't be null
+     * @param initialCapacity
+     *            - can't less than 0
+     */
+    public MoneyColumn(Currency currency, RoundingMode roundingMode, int initialCapacity) {
+        if (currency == null || roundingMode == null || initialCapacity < 0) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        this.currency = currency;
+        this.arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
+        this.values = new long[initialCapacity];
+    }
+
+    /**
+     * build a column of the money array
+     * 
+     * @param monies
+     *            - can't be null or empty
+     * @param roundingMode
+     * @return
+     * @throws IllegalArgumentException
+     *             if monies is empty, any element is null, or the currencies are not same.
+     */
+    public static MoneyColumn of(Money[] monies, RoundingMode roundingMode) {
+        if (monies == null || monies.length == 0) {
+            throw new IllegalArgumentException("monies can't be null or empty");
+        }
+        MoneyColumn column = new MoneyColumn(monies[0].getCurrency(), roundingMode, monies.length);
+        for (Money m : monies) {
+            column.append(m);
+        }
+        return column;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public RoundingMode getRoundingMode() {
+        return arithmetic.getRoundingMode();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * append a money, rounded to the currency's scale
+     * 
+     * @param m
+     * @return
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not same as the column.
+     */
+    public MoneyColumn append(Money m) {
+        checkCurrency(m);
+        m = arithmetic.round(m);
+        ensureCapacity(size + 1);
+        if (m.isCompact()) {
+            set0(size++, m.minorUnitValue());
+        } else {
+            setOverflow(size++, m.basicUnitValue());
+        }
+        return this;
+    }
+
+    /**
+     * append an amount in minor unit
+     * 
+     * @param minorUnitValue
+     * @return
+     */
+    public MoneyColumn appendMinorUnitValue(long minorUnitValue) {
+        ensureCapacity(size + 1);
+        set0(size++, minorUnitValue);
+        return this;
+    }
+
+    /**
+     * append amounts in minor unit
+     * 
+     * @param minorUnitValues
+     * @return
+     */
+    public MoneyColumn appendMinorUnitValues(long[] minorUnitValues) {
+        if (minorUnitValues == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return appendMinorUnitValues(minorUnitValues, 0, minorUnitValues.length);
+    }
+
+    /**
+     * append amounts in minor unit of the range {@code [from, to)}
+     * 
+     * @param minorUnitValues
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     * @return
+     */
+    public MoneyColumn appendMinorUnitValues(long[] minorUnitValues, int from, int to) {
+        if (minorUnitValues == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (from < 0 || to > minorUnitValues.length || from > to) {
+            throw new ArrayIndexOutOfBoundsException("range [" + from + ", " + to + ") is out of bounds");
+        }
+        ensureCapacity(size + to - from);
+        System.arraycopy(minorUnitValues, from, values, size, to - from);
+        for (int i = size, end = size + to - from; i < end; i++) {
+            if (values[i] == OVERFLOW) {
+                setOverflow(i, BigDecimal.valueOf(OVERFLOW, currency.getScale()));
+            }
+        }
+        size += to - from;
+        return this;
+    }
+
+    /**
+     * append amounts in basic unit, each rounded the same as {@code currency.fromBasicUnitValue(value)}
+     * 
+     * @param basicUnitValues
+     * @return
+     * @throws IllegalArgumentException
+     *             if any value is Infinite or NaN.
+     */
+    public MoneyColumn appendBasicUnitValues(double[] basicUnitValues) {
+        if (basicUnitValues == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        ensureCapacity(size + basicUnitValues.length);
+        for (double basicUnitValue : basicUnitValues) {
+            append(currency.fromBasicUnitValue(basicUnitValue));
+        }
+        return this;
+    }
+
+    /**
+     * get the money at the index
+     * 
+     * @param index
+     * @return the rounded money
+     */
+    public Money get(int index) {
+        checkIndex(index);
+        long value = values[index];
+        if (value == OVERFLOW) {
+            return Money.rounded(currency, overflows.get(index));
+        }
+        return Money.rounded(currency, value);
+    }
+
+    /**
+     * get the amount in minor unit at the index, the same as {@code get(index).getMinorUnitValue()}
+     * 
+     * @param index
+     * @return
+     */
+    public long getMinorUnitValue(int index) {
+        checkIndex(index);
+        long value = values[index];
+        if (value == OVERFLOW) {
+            return get(index).getMinorUnitValue();
+        }
+        return value;
+    }
+
+    /**
+     * replace the money at the index
+     * 
+     * @param index
+     * @param m
+     * @return
+     */
+    public MoneyColumn set(int index, Money m) {
+        checkIndex(index);
+        checkCurrency(m);
+        m = arithmetic.round(m);
+        if (m.isCompact()) {
+            set0(index, m.minorUnitValue());
+        } else {
+            setOverflow(index, m.basicUnitValue());
+        }
+        return this;
+    }
+
+    /**
+     * element-wise add, {@code this[i] = this[i] + other[i]}
+     * 
+     * @param other
+     * @return
+     * @throws IllegalArgumentException
+     *             if other is null, its size or currency is not same as this column.
+     */
+    public MoneyColumn add(MoneyColumn other) {
+        checkColumn(other);
+        for (int i = 0; i < size; i++) {
+            long a = values[i];
+            long b = other.values[i];
+            if (a != OVERFLOW && b != OVERFLOW) {
+                long r = a + b;
+                // the overflow check of Math.addExact
+                if (((a ^ r) & (b ^ r)) >= 0) {
+                    set0(i, r);
+                    continue;
+                }
+            }
+            setOverflow(i, get(i).basicUnitValue().add(other.get(i).basicUnitValue()));
+        }
+        return this;
+    }
+
+    /**
+     * element-wise subtract, {@code this[i] = this[i] - other[i]}
+     * 
+     * @param other
+     * @return
+     * @throws IllegalArgumentException
+     *             if other is null, its size or currency is not same as this column.
+     */
+    public MoneyColumn subtract(MoneyColumn other) {
+        checkColumn(other);
+        for (int i = 0; i < size; i++) {
+            long a = values[i];
+            long b = other.values[i];
+            if (a != OVERFLOW && b != OVERFLOW) {
+                long r = a - b;
+                // the overflow check of Math.subtractExact
+                if (((a ^ b) & (a ^ r)) >= 0) {
+                    set0(i, r);
+                    continue;
+                }
+            }
+            setOverflow(i, get(i).basicUnitValue().subtract(other.get(i).basicUnitValue()));
+        }
+        return this;
+    }
+
+    /**
+     * add the money to every element, {@code this[i] = this[i] + m}
+     * 
+     * @param m
+     * @return
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not same as this column.
+     */
+    public MoneyColumn add(Money m) {
+        checkCurrency(m);
+        m = arithmetic.round(m);
+        if (!m.isCompact()) {
+            for (int i = 0; i < size; i++) {
+                setOverflow(i, get(i).basicUnitValue().add(m.basicUnitValue()));
+            }
+            return this;
+        }
+        long b = m.minorUnitValue();
+        for (int i = 0; i < size; i++) {
+            long a = values[i];
+            if (a != OVERFLOW) {
+                long r = a + b;
+                if (((a ^ r) & (b ^ r)) >= 0) {
+                    set0(i, r);
+                    continue;
+                }
+            }
+            setOverflow(i, get(i).basicUnitValue().add(m.basicUnitValue()));
+        }
+        return this;
+    }
+
+    /**
+     * subtract the money from every element, {@code this[i] = this[i] - m}
+     * 
+     * @param m
+     * @return
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not same as this column.
+     */
+    public MoneyColumn subtract(Money m) {
+        checkCurrency(m);
+        m = arithmetic.round(m);
+        if (!m.isCompact()) {
+            for (int i = 0; i < size; i++) {
+                setOverflow(i, get(i).basicUnitValue().subtract(m.basicUnitValue()));
+            }
+            return this;
+        }
+        long b = m.minorUnitValue();
+        for (int i = 0; i < size; i++) {
+            long a = values[i];
+            if (a != OVERFLOW) {
+                long r = a - b;
+                if (((a ^ b) & (a ^ r)) >= 0) {
+                    set0(i, r);
+                    continue;
+                }
+            }
+            setOverflow(i, get(i).basicUnitValue().subtract(m.basicUnitValue()));
+        }
+        return this;
+    }
+
+    /**
+     * multiply every element by the rate, {@code this[i] = this[i] * rate}, rounded the same as
+     * {@link MoneyCalculator#multiply(double)}
+     * 
+     * @param rate
+     * @return
+     */
+    public MoneyColumn multiply(double rate) {
+        return multiply(Rate.of(rate));
+    }
+
+    /**
+     * multiply every element by the rate, {@code this[i] = this[i] * rate}, rounded the same as
+     * {@link MoneyCalculator#multiply(Rate)}
+     * 
+     * @param rate
+     * @return
+     * @throws IllegalArgumentException
+     *             if rate is null.
+     */
+    public MoneyColumn multiply(Rate rate) {
+        if (rate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        int scale = currency.getScale();
+        for (int i = 0; i < size; i++) {
+            long value = values[i];
+            if (rate.isCompact() && value != OVERFLOW) {
+                try {
+                    set0(i, arithmetic.multiplyMinorUnitValue(value, scale, rate, scale));
+                    continue;
+                } catch (ArithmeticException e) {
+                    // overflow, fall through to the BigDecimal path
+                }
+            }
+            Money m = arithmetic.multiply(get(i), rate);
+            if (m.isCompact()) {
+                set0(i, m.minorUnitValue());
+            } else {
+                setOverflow(i, m.basicUnitValue());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * FX every element to a new column, {@code result[i] = this[i] * fxRate}, rounded the same as
+     * {@link MoneyCalculator#fxByMultiply(Currency, double)}
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new column of the target currency, a copy of this column if the currency is same
+     * @throws IllegalArgumentException
+     *             if targetCurrency is null, or fxRate is 0.
+     */
+    public MoneyColumn fxByMultiply(Currency targetCurrency, double fxRate) {
+        return fx(targetCurrency, Rate.of(fxRate), false);
+    }
+
+    /**
+     * FX every element to a new column, {@code result[i] = this[i] * fxRate}, rounded the same as
+     * {@link MoneyCalculator#fxByMultiply(Currency, Rate)}
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new column of the target currency, a copy of this column if the currency is same
+     * @throws IllegalArgumentException
+     *             if targetCurrency or fxRate is null, or fxRate is 0.
+     */
+    public MoneyColumn fxByMultiply(Currency targetCurrency, Rate fxRate) {
+        return fx(targetCurrency, fxRate, false);
+    }
+
+    /**
+     * FX every element to a new column, {@code result[i] = this[i] / fxRate}, rounded the same as
+     * {@link MoneyCalculator#fxByDivide(Currency, double)}
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new column of the target currency, a copy of this column if the currency is same
+     * @throws IllegalArgumentException
+     *             if targetCurrency is null, or fxRate is 0.
+     */
+    public MoneyColumn fxByDivide(Currency targetCurrency, double fxRate) {
+        return fx(targetCurrency, Rate.of(fxRate), true);
+    }
+
+    /**
+     * FX every element to a new column, {@code result[i] = this[i] / fxRate}, rounded the same as
+     * {@link MoneyCalculator#fxByDivide(Currency, Rate)}
+     * 
+     * @param targetCurrency
+     * @param fxRate
+     * @return a new column of the target currency, a copy of this column if the currency is same
+     * @throws IllegalArgumentException
+     *             if targetCurrency or fxRate is null, or fxRate is 0.
+     */
+    public MoneyColumn fxByDivide(Currency targetCurrency, Rate fxRate) {
+        return fx(targetCurrency, fxRate, true);
+    }
+
+    private MoneyColumn fx(Currency targetCurrency, Rate fxRate, boolean divide) {
+        if (targetCurrency == null) {
+            throw new IllegalArgumentException("targetCurrency can't be null");
+        }
+        if (fxRate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        MoneyColumn result = new MoneyColumn(targetCurrency, arithmetic.getRoundingMode(), size);
+        result.size = size;
+        if (currency.equals(targetCurrency)) {
+            System.arraycopy(values, 0, result.values, 0, size);
+            if (overflows != null) {
+                result.overflows = new HashMap<>(overflows);
+            }
+            return result;
+        }
+        if (fxRate.signum() == 0) {
+            throw new IllegalArgumentException("fxRate can't be zero");
+        }
+        int scale = currency.getScale();
+        int targetScale = targetCurrency.getScale();
+        for (int i = 0; i < size; i++) {
+            long value = values[i];
+            if (fxRate.isCompact() && value != OVERFLOW) {
+                try {
+                    result.set0(i, divide ? arithmetic.divideMinorUnitValue(value, scale, fxRate, targetScale)
+                        : arithmetic.multiplyMinorUnitValue(value, scale, fxRate, targetScale));
+                    continue;
+                } catch (ArithmeticException e) {
+                    // overflow, fall through to the BigDecimal path
+                }
+            }
+            Money m = divide ? arithmetic.fxByDivide(get(i), targetCurrency, fxRate)
+                : arithmetic.fxByMultiply(get(i), targetCurrency, fxRate);
+            if (m.isCompact()) {
+                result.set0(i, m.minorUnitValue());
+            } else {
+                result.setOverflow(i, m.basicUnitValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * apply the formula to every element to a new column, the same as {@link MoneyFormula#apply(MoneyColumn)}
+     */
+    MoneyColumn apply(MoneyFormula formula) {
+        MoneyColumn result = new MoneyColumn(formula.getResultCurrency(), formula.getRoundingMode(), size);
+        result.size = size;
+        for (int i = 0; i < size; i++) {
+            long value = values[i];
+            if (value != OVERFLOW) {
+                try {
+                    result.set0(i, formula.applyMinorUnitValue(value));
+                    continue;
+                } catch (ArithmeticException e) {
+                    // overflow, fall through to the BigDecimal path
+                }
+            }
+            Money m = formula.apply(get(i));
+            if (m.isCompact()) {
+                result.set0(i, m.minorUnitValue());
+            } else {
+                result.setOverflow(i, m.basicUnitValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * the sum of all elements, the same as adding them one by one by {@link MoneyCalculator#add(Money)}
+     * 
+     * @return the rounded sum, zero if the column is empty
+     */
+    public Money sum() {
+        long sum = 0;
+        BigDecimal overflowSum = null;
+        for (int i = 0; i < size; i++) {
+            long value = values[i];
+            if (value != OVERFLOW) {
+                long r = sum + value;
+                if (((sum ^ r) & (value ^ r)) >= 0) {
+                    sum = r;
+                    continue;
+                }
+                // spill the sum, keep on accumulating the value in long
+                BigDecimal spilled = BigDecimal.valueOf(sum, currency.getScale());
+                overflowSum = overflowSum == null ? spilled : overflowSum.add(spilled);
+                sum = value;
+            } else {
+                BigDecimal overflow = overflows.get(i);
+                overflowSum = overflowSum == null ? overflow : overflowSum.add(overflow);
+            }
+        }
+        if (overflowSum == null) {
+            return Money.rounded(currency, sum);
+        }
+        return Money.rounded(currency, overflowSum.add(BigDecimal.valueOf(sum, currency.getScale())));
+    }
+
+    /**
+     * copy to a money array
+     * 
+     * @return
+     */
+    public Money[] toArray() {
+        Money[] monies = new Money[size];
+        for (int i = 0; i < size; i++) {
+            monies[i] = get(i);
+        }
+        return monies;
+    }
+
+    /**
+     * copy the amounts in minor unit, amounts out of {@code long} range are the same as
+     * {@link Money#getMinorUnitValue()}
+     * 
+     * @return
+     */
+    public long[] toMinorUnitValues() {
+        long[] copy = Arrays.copyOf(values, size);
+        if (overflows != null) {
+            for (Map.Entry<Integer, BigDecimal> entry : overflows.entrySet()) {
+                copy[entry.getKey()] = get(entry.getKey()).getMinorUnitValue();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * sort the amounts in ascending order, in place. Amounts in {@code long} range are sorted by a radix sort of the
+     * minor units.
+     * 
+     * @return
+     */
+    public MoneyColumn sort() {
+        if (!hasOverflow()) {
+            MoneyRanking.sort(values, 0, size);
+            return this;
+        }
+        Money[] monies = toArray();
+        Arrays.sort(monies);
+        overflows = null;
+        for (int i = 0; i < size; i++) {
+            Money m = monies[i];
+            if (m.isCompact()) {
+                set0(i, m.minorUnitValue());
+            } else {
+                values[i] = 0;
+                setOverflow(i, m.basicUnitValue());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * whether any amount is out of {@code long} range
+     */
+    boolean hasOverflow() {
+        return overflows != null && !overflows.isEmpty();
+    }
+
+    /**
+     * the backing array, valid in {@code [0, size())}
+     */
+    long[] rawValues() {
+        return values;
+    }
+
+    /**
+     * the raw element without index check, {@link #OVERFLOW} if the amount is in the side table
+     */
+    long rawValue(int index) {
+        return values[index];
+    }
+
+    private void set0(int index, long value) {
+        if (value == OVERFLOW) {
+            setOverflow(index, BigDecimal.valueOf(value, currency.getScale()));
+            return;
+        }
+        if (values[index] == OVERFLOW && overflows != null) {
+            overflows.remove(index);
+        }
+        values[index] = value;
+    }
+
+    private void setOverflow(int index, BigDecimal basicUnitValue) {
+        if (basicUnitValue.scale() == currency.getScale() && basicUnitValue.precision() < 19) {
+            long value = basicUnitValue.unscaledValue().longValue();
+            if (value != OVERFLOW) {
+                set0(index, value);
+                return;
+            }
+        }
+        if (overflows == null) {
+            overflows = new HashMap<>();
+        }
+        overflows.put(index, basicUnitValue);
+        values[index] = OVERFLOW;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length + (values.length >> 1) + 1));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void checkCurrency(Money m) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (m.getCurrency() != currency && !currency.equals(m.getCurrency())) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+    }
+
+    private void checkColumn(MoneyColumn other) {
+        if (other == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (other.size != size) {
+            throw new IllegalArgumentException("size is not same, can't do the calculation");
+        }
+        if (other.currency != currency && !currency.equals(other.currency)) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.github.ciferliu;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * The formatting and parsing of money text - <strong>immutable and threadsafe</strong>.
+ * <p>
+ * 将金额直接写入调用方提供的{@link Appendable}、{@link CharBuffer}或{@link ByteBuffer}（UTF-8），不创建中间{@code String}。<br>
+ * {@link #DEFAULT}的输出与{@link Money#toString()}逐字节一致，如{@code USD 1234.50}；可改为输出币种符号，及使用千分位分隔符：
+ * 
+ * <pre class="code">
+ * MoneyFormat.DEFAULT.format(m, builder);// USD 1234.50
+ * MoneyFormat.DEFAULT.withGrouping(',').format(m, builder);// USD 1,234.50
+ * MoneyFormat.DEFAULT.withSymbol().withGrouping(',').format(m, byteBuffer);// US$1,234.50
+ * 
+ * Money m = MoneyFormat.DEFAULT.parse("USD 1234.50");
+ * </pre>
+ * 
+ * 金额在{@code long}范围内的已舍入金额，逐位直接输出，不经过{@code BigDecimal.toString()}。
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyFormat {
+    /**
+     * currency code + whitespace + amount in basic unit, the same as {@link Money#toString()}, e.g. {@code USD 1.00}
+     */
+    public static final MoneyFormat DEFAULT = new MoneyFormat(false, (char)0);
+
+    /**
+     * BigDecimal.toString() uses the scientific notation when the adjusted exponent is less than this
+     */
+    private static final int MIN_PLAIN_EXPONENT = -6;
+
+    private final boolean symbol;
+    /**
+     * the grouping separator of the integer part, 0 if no grouping
+     */
+    private final char grouping;
+
+    private MoneyFormat(boolean symbol, char grouping) {
+        this.symbol = symbol;
+        this.grouping = grouping;
+    }
+
+    /**
+     * a format the same as this one, but prints {@link Currency#getSymbol()} right before the amount, and the sign
+     * before the symbol, e.g. {@code -US$1.00}. The amount is always printed in plain notation.
+     * 
+     * @return
+     */
+    public MoneyFormat withSymbol() {
+        return new MoneyFormat(true, grouping);
+    }
+
+    /**
+     * a format the same as this one, but groups every three digits of the integer part by the separator, e.g.
+     * {@code USD 1,234.00}. The amount is always printed in plain notation.
+     * 
+     * @param separator
+     *            - can't be a digit, '.', '-', '+' or whitespace
+     * @return
+     */
+    public MoneyFormat withGrouping(char separator) {
+        if ((separator >= '0' && separator <= '9') || separator == '.' || separator == '-' || separator == '+'
+            || separator <= ' ') {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return new MoneyFormat(symbol, separator);
+    }
+
+    /**
+     * format to a new string
+     * 
+     * @param m
+     * @return
+     */
+    public String format(Money m) {
+        StringBuilder builder = new StringBuilder(32);
+        format(m, builder);
+        return builder.toString();
+    }
+
+    /**
+     * format into the string builder
+     * 
+     * @param m
+     * @param builder
+     * @return the builder
+     */
+    public StringBuilder format(Money m, StringBuilder builder) {
+        try {
+            formatTo(m, builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder;
+    }
+
+    /**
+     * format into the appendable, e.g. a {@code Writer}
+     * 
+     * @param m
+     * @param appendable
+     * @return the appendable
+     * @throws IOException
+     *             if the appendable throws
+     */
+    public <A extends Appendable> A format(Money m, A appendable) throws IOException {
+        formatTo(m, appendable);
+        return appendable;
+    }
+
+    /**
+     * format into the char buffer at its position, the position is advanced
+     * 
+     * @param m
+     * @param buffer
+     * @return the buffer
+     * @throws BufferOverflowException
+     *             if there is insufficient space in the buffer
+     */
+    public CharBuffer format(Money m, CharBuffer buffer) {
+        try {
+            formatTo(m, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+    /**
+     * format into the byte buffer at its position in UTF-8, the position is advanced
+     * 
+     * @param m
+     * @param buffer
+     * @return the buffer
+     * @throws BufferOverflowException
+     *             if there is insufficient space in the buffer
+     */
+    public ByteBuffer format(Money m, ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        try {
+            formatTo(m, new Utf8Appendable(buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+    /**
+     * format the amount only, without currency code or symbol, e.g. {@code -1234.50}
+     */
+    void formatAmount(Money m, Appendable out) throws IOException {
+        format(m, out, false);
+    }
+
+    private void formatTo(Money m, Appendable out) throws IOException {
+        format(m, out, true);
+    }
+
+    private void format(Money m, Appendable out, boolean withCurrency) throws IOException {
+        if (m == null || out == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        Currency currency = m.getCurrency();
+        boolean plain = symbol || grouping != 0;
+        if (m.isCompact() && m.isRounded() && currency.getScale() < MinorUnitMath.POWERS_OF_TEN.length) {
+            long value = m.minorUnitValue();
+            // non-positive, so Long.MIN_VALUE needs no special case
+            long negative = value < 0 ? value : -value;
+            int scale = currency.getScale();
+            int precision = digits(negative);
+            if (plain || scale == 0 || precision - 1 - scale >= MIN_PLAIN_EXPONENT) {
+                int digits = Math.max(precision, scale + 1);
+                prefix(currency, value < 0, withCurrency, out);
+                for (int k = digits - 1; k >= 0; k--) {
+                    int intDigit = k - scale;
+                    if (grouping != 0 && intDigit >= 0 && intDigit % 3 == 2 && k != digits - 1) {
+                        out.append(grouping);
+                    } else if (intDigit == -1) {
+                        out.append('.');
+                    }
+                    out.append((char)('0' - (negative / MinorUnitMath.POWERS_OF_TEN[k]) % 10));
+                }
+                return;
+            }
+        }
+        BigDecimal value = m.basicUnitValue();
+        prefix(currency, value.signum() < 0, withCurrency, out);
+        if (!plain) {
+            out.append(value.abs().toString());
+            return;
+        }
+        String text = value.abs().toPlainString();
+        int point = text.indexOf('.');
+        int intDigits = point < 0 ? text.length() : point;
+        for (int i = 0; i < text.length(); i++) {
+            if (grouping != 0 && i > 0 && i < intDigits && (intDigits - i) % 3 == 0) {
+                out.append(grouping);
+            }
+            out.append(text.charAt(i));
+        }
+    }
+
+    private void prefix(Currency currency, boolean negative, boolean withCurrency, Appendable out)
+        throws IOException {
+        if (!withCurrency) {
+            if (negative) {
+                out.append('-');
+            }
+        } else if (symbol) {
+            if (negative) {
+                out.append('-');
+            }
+            out.append(currency.getSymbol());
+        } else {
+            out.append(currency.getCode()).append(' ');
+            if (negative) {
+                out.append('-');
+            }
+        }
+    }
+
+    /**
+     * the number of decimal digits of a non-positive value, 1 for 0
+     */
+    private static int digits(long negative) {
+        int digits = 1;
+        while (digits < MinorUnitMath.POWERS_OF_TEN.length && negative <= -MinorUnitMath.POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * parse the text of this format, e.g. {@code "USD 1,234.50"} - the currency code, whitespaces, then the amount
+     * 
+     * @param text
+     * @return a rounded money if the amount has exactly the scale of currency, otherwise an unrounded money with the
+     *         exact amount of the text. So {@code parse(m.toString())} equals {@code m}.
+     * @throws IllegalArgumentException
+     *             if the text is null or illegal, or the currency is not found in {@link CurrencyFactory}
+     * @throws IllegalStateException
+     *             if this format prints symbol
+     */
+    public Money parse(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (symbol) {
+            throw new IllegalStateException("symbol format can't parse");
+        }
+        int from = 0;
+        int to = text.length();
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        int codeEnd = from;
+        while (codeEnd < to && text.charAt(codeEnd) > ' ') {
+            codeEnd++;
+        }
+        if (codeEnd == from || codeEnd == to) {
+            throw new IllegalArgumentException("illegal money: " + text);
+        }
+        Currency currency = CurrencyFactory.get(text, from, codeEnd);
+        if (currency == null) {
+            throw new IllegalArgumentException("currency is not found: " + text);
+        }
+        int amountFrom = codeEnd;
+        while (text.charAt(amountFrom) <= ' ') {
+            amountFrom++;
+        }
+        try {
+            return parseAmount(currency, text, amountFrom, to);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("illegal money: " + text, e);
+        }
+    }
+
+    /**
+     * parse the amount in {@code [from, to)} of the text, grouping separators of this format are skipped
+     * 
+     * @return a rounded money if the amount has exactly the scale of currency, otherwise an unrounded money with the
+     *         exact amount of the text
+     * @throws NumberFormatException
+     *             if the amount is illegal
+     */
+    Money parseAmount(Currency currency, CharSequence text, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("amount is empty");
+        }
+        // fast path: plain decimal with exactly the scale of currency
+        int i = from;
+        boolean negative = false;
+        if (text.charAt(i) == '-' || text.charAt(i) == '+') {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean exact = true;
+        for (; i < to && exact; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (unscaled > (Long.MAX_VALUE - 9) / 10) {
+                    exact = false;
+                } else {
+                    unscaled = unscaled * 10 + (c - '0');
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c != grouping || grouping == 0 || fractionDigits >= 0) {
+                exact = false;
+            }
+        }
+        if (exact && digits > 0 && Math.max(fractionDigits, 0) == currency.getScale()) {
+            return Money.rounded(currency, negative ? -unscaled : unscaled);
+        }
+
+        StringBuilder amount = new StringBuilder(to - from);
+        for (i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c != grouping || grouping == 0) {
+                amount.append(c);
+            }
+        }
+        BigDecimal value = new BigDecimal(amount.toString());
+        if (value.scale() == currency.getScale()) {
+            return Money.rounded(currency, value);
+        }
+        return Money.unRound(currency, value);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(48);
+        builder.append("MoneyFormat [symbol=");
+        builder.append(symbol);
+        builder.append(", grouping=");
+        builder.append(grouping == 0 ? "" : String.valueOf(grouping));
+        builder.append("]");
+        return builder.toString();
+    }
+
+    /**
+     * UTF-8 encoding appendable over a byte buffer
+     */
+    private static final class Utf8Appendable implements Appendable {
+        private final ByteBuffer buffer;
+        private char highSurrogate;
+
+        Utf8Appendable(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (c < 0x80) {
+                buffer.put((byte)c);
+            } else if (c < 0x800) {
+                buffer.put((byte)(0xC0 | (c >> 6))).put((byte)(0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+                int codePoint = Character.toCodePoint(highSurrogate, c);
+                highSurrogate = 0;
+                buffer.put((byte)(0xF0 | (codePoint >> 18))).put((byte)(0x80 | ((codePoint >> 12) & 0x3F)))
+                    .put((byte)(0x80 | ((codePoint >> 6) & 0x3F))).put((byte)(0x80 | (codePoint & 0x3F)));
+            } else {
+                buffer.put((byte)(0xE0 | (c >> 12))).put((byte)(0x80 | ((c >> 6) & 0x3F)))
+                    .put((byte)(0x80 | (c & 0x3F)));
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.github.ciferliu;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled, reusable chain of money operations - <strong>immutable and threadsafe</strong>.
+ * <p>
+ * 将{@link MoneyCalculator}的链式操作预先编译为公式：构建时完成参数及币种校验，并预先解析常量（金额的最小单位、汇率的
+ * {@link Rate}），应用时在{@code long}最小单位上逐条执行，不再创建中间结果，仅在溢出时回退到
+ * {@code BigDecimal}。结果与同样的{@code calculator.init(m)...getResult()}链完全一致。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyFormula fee = MoneyFormula.builder(cny, RoundingMode.HALF_UP)
+ *     .multiply(0.003).add(cny.fromBasicUnitValue(2)).fxByMultiply(usd, 0.1548).build();// 可全局共享
+ * 
+ * Money result = fee.apply(m);
+ * Money[] results = fee.apply(monies);
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyFormula {
+    private static final byte ADD = 0;
+    private static final byte SUBTRACT = 1;
+    private static final byte MULTIPLY = 2;
+    private static final byte DIVIDE = 3;
+    private static final byte FX_BY_MULTIPLY = 4;
+    private static final byte FX_BY_DIVIDE = 5;
+
+    private final MoneyArithmetic arithmetic;
+    private final Currency inputCurrency;
+    private final Currency resultCurrency;
+    private final byte[] operations;
+    /**
+     * the currency before each operation
+     */
+    private final Currency[] currencies;
+    /**
+     * the scale before and after each operation
+     */
+    private final int[] scales;
+    private final int[] targetScales;
+    /**
+     * the operand of add/subtract
+     */
+    private final Money[] monies;
+    /**
+     * the rate of multiply/divide/fx
+     */
+    private final Rate[] rates;
+    /**
+     * the minor unit of the operand of add/subtract
+     */
+    private final long[] operands;
+    /**
+     * whether the operand can be computed in {@code long}
+     */
+    private final boolean[] compact;
+
+    private MoneyFormula(Builder builder) {
+        int n = builder.operations.size();
+        this.arithmetic = builder.arithmetic;
+        this.inputCurrency = builder.inputCurrency;
+        this.resultCurrency = builder.currency;
+        this.operations = new byte[n];
+        this.currencies = builder.currencies.toArray(new Currency[n]);
+        this.monies = builder.monies.toArray(new Money[n]);
+        this.rates = builder.rates.toArray(new Rate[n]);
+        this.operands = new long[n];
+        this.compact = new boolean[n];
+        this.scales = new int[n];
+        this.targetScales = new int[n];
+        for (int i = 0; i < n; i++) {
+            operations[i] = builder.operations.get(i);
+            scales[i] = currencies[i].getScale();
+            targetScales[i] = target(i).getScale();
+            if (monies[i] != null) {
+                compact[i] = monies[i].isCompact();
+                operands[i] = compact[i] ? monies[i].minorUnitValue() : 0;
+            } else {
+                compact[i] = rates[i].isCompact();
+            }
+        }
+    }
+
+    /**
+     * start to build a formula
+     * 
+     * @param inputCurrency
+     *            - the currency of the money the formula is applied to
+     * @param roundingMode
+     * @return
+     */
+    public static Builder builder(Currency inputCurrency, RoundingMode roundingMode) {
+        if (inputCurrency == null || roundingMode == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return new Builder(inputCurrency, MoneyArithmetic.fromRoundingMode(roundingMode));
+    }
+
+    public Currency getInputCurrency() {
+        return inputCurrency;
+    }
+
+    public Currency getResultCurrency() {
+        return resultCurrency;
+    }
+
+    public RoundingMode getRoundingMode() {
+        return arithmetic.getRoundingMode();
+    }
+
+    /**
+     * apply the formula to a money
+     * 
+     * @param m
+     * @return the rounded result
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not the input currency.
+     */
+    public Money apply(Money m) {
+        checkInput(m);
+        m = arithmetic.round(m);
+        if (!m.isCompact()) {
+            return applySlow(m, 0);
+        }
+        long value = m.minorUnitValue();
+        for (int i = 0; i < operations.length; i++) {
+            try {
+                value = step(i, value);
+            } catch (ArithmeticException e) {
+                // overflow, go on with the BigDecimal path
+                return applySlow(Money.rounded(currencies[i], value), i);
+            }
+        }
+        return Money.rounded(resultCurrency, value);
+    }
+
+    /**
+     * apply the formula to every money of the array
+     * 
+     * @param monies
+     * @return the rounded results, in the same order
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or its currency is not the input currency.
+     */
+    public Money[] apply(Money[] monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        Money[] results = new Money[monies.length];
+        for (int i = 0; i < monies.length; i++) {
+            results[i] = apply(monies[i]);
+        }
+        return results;
+    }
+
+    /**
+     * apply the formula to every element of the column
+     * 
+     * @param column
+     * @return a new column of the result currency, rounded by the rounding mode of this formula
+     * @throws IllegalArgumentException
+     *             if column is null, or its currency is not the input currency.
+     */
+    public MoneyColumn apply(MoneyColumn column) {
+        if (column == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (!inputCurrency.equals(column.getCurrency())) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+        return column.apply(this);
+    }
+
+    /**
+     * apply to an amount in minor unit of the input currency, entirely in {@code long}
+     * 
+     * @return the result in minor unit of the result currency
+     * @throws ArithmeticException
+     *             if it can't be computed in {@code long}, the caller falls back to {@link #apply(Money)}
+     */
+    long applyMinorUnitValue(long value) {
+        for (int i = 0; i < operations.length; i++) {
+            value = step(i, value);
+        }
+        return value;
+    }
+
+    private long step(int i, long value) {
+        if (!compact[i]) {
+            throw new ArithmeticException("long overflow");
+        }
+        switch (operations[i]) {
+            case ADD:
+                return Math.addExact(value, operands[i]);
+            case SUBTRACT:
+                return Math.subtractExact(value, operands[i]);
+            case MULTIPLY:
+            case FX_BY_MULTIPLY:
+                return arithmetic.multiplyMinorUnitValue(value, scales[i], rates[i], targetScales[i]);
+            default:
+                return arithmetic.divideMinorUnitValue(value, scales[i], rates[i], targetScales[i]);
+        }
+    }
+
+    private Money applySlow(Money m, int from) {
+        for (int i = from; i < operations.length; i++) {
+            switch (operations[i]) {
+                case ADD:
+                    m = arithmetic.add(m, monies[i]);
+                    break;
+                case SUBTRACT:
+                    m = arithmetic.subtract(m, monies[i]);
+                    break;
+                case MULTIPLY:
+                    m = arithmetic.multiply(m, rates[i]);
+                    break;
+                case DIVIDE:
+                    m = arithmetic.divide(m, rates[i]);
+                    break;
+                case FX_BY_MULTIPLY:
+                    m = arithmetic.fxByMultiply(m, target(i), rates[i]);
+                    break;
+                default:
+                    m = arithmetic.fxByDivide(m, target(i), rates[i]);
+            }
+        }
+        return m;
+    }
+
+    private Currency target(int i) {
+        return i + 1 < currencies.length ? currencies[i + 1] : resultCurrency;
+    }
+
+    private void checkInput(Money m) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (m.getCurrency() != inputCurrency && !inputCurrency.equals(m.getCurrency())) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(64);
+        builder.append("MoneyFormula [").append(inputCurrency.getCode());
+        for (int i = 0; i < operations.length; i++) {
+            switch (operations[i]) {
+                case ADD:
+                    builder.append(" + ").append(monies[i]);
+                    break;
+                case SUBTRACT:
+                    builder.append(" - ").append(monies[i]);
+                    break;
+                case MULTIPLY:
+                    builder.append(" * ").append(rates[i]);
+                    break;
+                case DIVIDE:
+                    builder.append(" / ").append(rates[i]);
+                    break;
+                case FX_BY_MULTIPLY:
+                    builder.append(" * ").append(rates[i]).append(" -> ").append(target(i).getCode());
+                    break;
+                default:
+                    builder.append(" / ").append(rates[i]).append(" -> ").append(target(i).getCode());
+            }
+        }
+        builder.append(", roundingMode=").append(getRoundingMode()).append("]");
+        return builder.toString();
+    }
+
+    /**
+     * The builder of {@link MoneyFormula}, with the same operations as {@link MoneyCalculator} -
+     * <strong>non-threadsafe</strong>.
+     * <p>
+     * Every operation is validated at once, with the same errors as the calculator.
+     */
+    public static final class Builder {
+        private final Currency inputCurrency;
+        private final MoneyArithmetic arithmetic;
+        private Currency currency;
+        private final List<Byte> operations = new ArrayList<>();
+        private final List<Currency> currencies = new ArrayList<>();
+        private final List<Money> monies = new ArrayList<>();
+        private final List<Rate> rates = new ArrayList<>();
+
+        private Builder(Currency inputCurrency, MoneyArithmetic arithmetic) {
+            this.inputCurrency = inputCurrency;
+            this.arithmetic = arithmetic;
+            this.currency = inputCurrency;
+        }
+
+        /**
+         * add
+         * 
+         * @param m
+         *            augend value.
+         * @return
+         * @throws IllegalArgumentException
+         *             if m is null, or its currency is not the current currency of the formula.
+         */
+        public Builder add(Money m) {
+            return operation(ADD, checkMoney(m), null);
+        }
+
+        /**
+         * subtract
+         * 
+         * @param m
+         *            subtrahend value.
+         * @return
+         * @throws IllegalArgumentException
+         *             if m is null, or its currency is not the current currency of the formula.
+         */
+        public Builder subtract(Money m) {
+            return operation(SUBTRACT, checkMoney(m), null);
+        }
+
+        /**
+         * multiply
+         * 
+         * @param rate
+         *            multiplicand value.
+         * @return
+         */
+        public Builder multiply(double rate) {
+            return operation(MULTIPLY, null, Rate.of(rate));
+        }
+
+        /**
+         * multiply
+         * 
+         * @param rate
+         *            multiplicand value.
+         * @return
+         * @throws IllegalArgumentException
+         *             if rate is null.
+         */
+        public Builder multiply(Rate rate) {
+            if (rate == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            return operation(MULTIPLY, null, rate);
+        }
+
+        /**
+         * divide
+         * 
+         * @param rate
+         *            divisor value.
+         * @return
+         * @throws IllegalArgumentException
+         *             if rate is 0.
+         */
+        public Builder divide(double rate) {
+            if (rate == 0) {
+                throw new IllegalArgumentException("rate can't be zero");
+            }
+            return operation(DIVIDE, null, Rate.of(rate));
+        }
+
+        /**
+         * divide
+         * 
+         * @param rate
+         *            divisor value.
+         * @return
+         * @throws IllegalArgumentException
+         *             if rate is null or 0.
+         */
+        public Builder divide(Rate rate) {
+            if (rate == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            if (rate.signum() == 0) {
+                throw new IllegalArgumentException("rate can't be zero");
+            }
+            return operation(DIVIDE, null, rate);
+        }
+
+        /**
+         * FX, multiply by the rate
+         * 
+         * @param targetCurrency
+         *            target currency
+         * @param fxRate
+         *            FX rate
+         * @return
+         * @throws IllegalArgumentException
+         *             if targetCurrency is null, or rate is 0.
+         */
+        public Builder fxByMultiply(Currency targetCurrency, double fxRate) {
+            return fx(FX_BY_MULTIPLY, targetCurrency, Rate.of(fxRate));
+        }
+
+        /**
+         * FX, multiply by the rate
+         * 
+         * @param targetCurrency
+         *            target currency
+         * @param fxRate
+         *            FX rate
+         * @return
+         * @throws IllegalArgumentException
+         *             if targetCurrency or fxRate is null, or rate is 0.
+         */
+        public Builder fxByMultiply(Currency targetCurrency, Rate fxRate) {
+            return fx(FX_BY_MULTIPLY, targetCurrency, fxRate);
+        }
+
+        /**
+         * FX, divide by the rate
+         * 
+         * @param targetCurrency
+         *            target currency
+         * @param fxRate
+         *            FX rate
+         * @return
+         * @throws IllegalArgumentException
+         *             if targetCurrency is null, or rate is 0.
+         */
+        public Builder fxByDivide(Currency targetCurrency, double fxRate) {
+            return fx(FX_BY_DIVIDE, targetCurrency, Rate.of(fxRate));
+        }
+
+        /**
+         * FX, divide by the rate
+         * 
+         * @param targetCurrency
+         *            target currency
+         * @param fxRate
+         *            FX rate
+         * @return
+         * @throws IllegalArgumentException
+         *             if targetCurrency or fxRate is null, or rate is 0.
+         */
+        public Builder fxByDivide(Currency targetCurrency, Rate fxRate) {
+            return fx(FX_BY_DIVIDE, targetCurrency, fxRate);
+        }
+
+        /**
+         * compile the operations
+         * 
+         * @return
+         */
+        public MoneyFormula build() {
+            return new MoneyFormula(this);
+        }
+
+        private Builder fx(byte operation, Currency targetCurrency, Rate fxRate) {
+            if (targetCurrency == null) {
+                throw new IllegalArgumentException("targetCurrency can't be null");
+            }
+            if (fxRate == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            // Currency is same, the calculator returns the same value
+            if (currency.equals(targetCurrency)) {
+                return this;
+            }
+            if (fxRate.signum() == 0) {
+                throw new IllegalArgumentException("fxRate can't be zero");
+            }
+            operation(operation, null, fxRate);
+            currency = targetCurrency;
+            return this;
+        }
+
+        private Money checkMoney(Money m) {
+            if (m == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            if (!currency.equals(m.getCurrency())) {
+                throw new IllegalArgumentException("currency is not same, can't do the calculation");
+            }
+            return arithmetic.round(m);
+        }
+
+        private Builder operation(byte operation, Money m, Rate rate) {
+            operations.add(operation);
+            currencies.add(currency);
+            monies.add(m);
+            rates.add(rate);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The in-memory {@link MoneyMetricsSink} - <strong>threadsafe</strong>.
+ * <p>
+ * 按操作类型及币种计数；按舍入模式及币种统计舍入次数与舍入残差（{@code rounded - exact}）的精确累计值，即舍入带来的累计偏差；
+ * 抽样的耗时记录在按2的幂分桶的直方图中。计数使用{@link LongAdder}，多线程共享时无锁竞争。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyMetrics metrics = new MoneyMetrics();
+ * MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).withMetrics(metrics);
+ * ...
+ * long count = metrics.getOperationCount(MoneyOperation.MULTIPLY, usd);
+ * BigDecimal drift = metrics.getRoundingResidual(RoundingMode.HALF_UP, usd);// 舍入累计偏差，单位：元
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public class MoneyMetrics implements MoneyMetricsSink {
+    /**
+     * bucket i counts latencies in {@code [2^(i-1), 2^i)} nanoseconds, bucket 0 counts 0
+     */
+    public static final int LATENCY_BUCKETS = 64;
+
+    private static final MoneyOperation[] OPERATIONS = MoneyOperation.values();
+    private static final RoundingMode[] ROUNDING_MODES = RoundingMode.values();
+
+    /**
+     * currency -> count by operation ordinal
+     */
+    private final ConcurrentMap<Currency, LongAdder[]> operations = new ConcurrentHashMap<>();
+    /**
+     * currency -> residuals by rounding mode ordinal
+     */
+    private final ConcurrentMap<Currency, Residual[]> residuals = new ConcurrentHashMap<>();
+    /**
+     * latency buckets by operation ordinal
+     */
+    private final AtomicLongArray[] latencies = new AtomicLongArray[OPERATIONS.length];
+
+    public MoneyMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new AtomicLongArray(LATENCY_BUCKETS);
+        }
+    }
+
+    @Override
+    public void onOperation(MoneyOperation operation, Currency currency) {
+        LongAdder[] counts = operations.get(currency);
+        if (counts == null) {
+            counts = new LongAdder[OPERATIONS.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+            LongAdder[] prev = operations.putIfAbsent(currency, counts);
+            if (prev != null) {
+                counts = prev;
+            }
+        }
+        counts[operation.ordinal()].increment();
+    }
+
+    @Override
+    public void onRounding(MoneyOperation operation, RoundingMode roundingMode, Currency currency,
+        BigDecimal residual) {
+        Residual[] byMode = residuals.get(currency);
+        if (byMode == null) {
+            byMode = new Residual[ROUNDING_MODES.length];
+            for (int i = 0; i < byMode.length; i++) {
+                byMode[i] = new Residual();
+            }
+            Residual[] prev = residuals.putIfAbsent(currency, byMode);
+            if (prev != null) {
+                byMode = prev;
+            }
+        }
+        byMode[roundingMode.ordinal()].add(residual);
+    }
+
+    @Override
+    public void onLatency(MoneyOperation operation, long nanos) {
+        int bucket = nanos <= 0 ? 0 : Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        latencies[operation.ordinal()].incrementAndGet(bucket);
+    }
+
+    /**
+     * get the count of the operation whose result is in the currency
+     * 
+     * @param operation
+     * @param currency
+     * @return
+     */
+    public long getOperationCount(MoneyOperation operation, Currency currency) {
+        if (operation == null || currency == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        LongAdder[] counts = operations.get(currency);
+        return counts == null ? 0 : counts[operation.ordinal()].sum();
+    }
+
+    /**
+     * get the count of the operation in all currencies
+     * 
+     * @param operation
+     * @return
+     */
+    public long getOperationCount(MoneyOperation operation) {
+        if (operation == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        long count = 0;
+        for (LongAdder[] counts : operations.values()) {
+            count += counts[operation.ordinal()].sum();
+        }
+        return count;
+    }
+
+    /**
+     * get the count of the roundings which changed a value
+     * 
+     * @param roundingMode
+     * @param currency
+     * @return
+     */
+    public long getRoundingCount(RoundingMode roundingMode, Currency currency) {
+        Residual residual = residual(roundingMode, currency);
+        return residual == null ? 0 : residual.count();
+    }
+
+    /**
+     * get the exact sum of the rounding residuals {@code rounded - exact}, the cumulative drift introduced by rounding.
+     * The residuals of division are computed against the quotient in {@code MathContext.DECIMAL128} precision.
+     * 
+     * @param roundingMode
+     * @param currency
+     * @return the sum in basic unit, positive if rounding increased the values in total
+     */
+    public BigDecimal getRoundingResidual(RoundingMode roundingMode, Currency currency) {
+        Residual residual = residual(roundingMode, currency);
+        return residual == null ? BigDecimal.ZERO : residual.sum();
+    }
+
+    private Residual residual(RoundingMode roundingMode, Currency currency) {
+        if (roundingMode == null || currency == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        Residual[] byMode = residuals.get(currency);
+        return byMode == null ? null : byMode[roundingMode.ordinal()];
+    }
+
+    /**
+     * get a copy of the latency histogram of the operation
+     * 
+     * @param operation
+     * @return {@link #LATENCY_BUCKETS} counts, bucket i counts latencies in {@code [2^(i-1), 2^i)} nanoseconds
+     */
+    public long[] getLatencyHistogram(MoneyOperation operation) {
+        if (operation == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        AtomicLongArray buckets = latencies[operation.ordinal()];
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = buckets.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(128);
+        builder.append("MoneyMetrics [");
+        boolean first = true;
+        for (MoneyOperation operation : OPERATIONS) {
+            long count = getOperationCount(operation);
+            if (count == 0) {
+                continue;
+            }
+            if (!first) {
+                builder.append(", ");
+            }
+            first = false;
+            builder.append(operation);
+            builder.append("=");
+            builder.append(count);
+        }
+        builder.append("]");
+        return builder.toString();
+    }
+
+    private static final class Residual {
+        private long count;
+        private BigDecimal sum = BigDecimal.ZERO;
+
+        synchronized void add(BigDecimal residual) {
+            count++;
+            sum = sum.add(residual);
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized BigDecimal sum() {
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The receiver of {@link MoneyCalculator} metrics, e.g. an adapter to the metrics library of the application.
+ * <p>
+ * Implementations must be <strong>threadsafe</strong> if shared by calculators of several threads, and should be
+ * cheap: they are called in the calculating thread, once or twice per operation.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see MoneyCalculator#withMetrics(MoneyMetricsSink)
+ * @see MoneyMetrics
+ */
+public interface MoneyMetricsSink {
+    /**
+     * an operation is done
+     * 
+     * @param operation
+     * @param currency
+     *            - the currency of the result
+     */
+    void onOperation(MoneyOperation operation, Currency currency);
+
+    /**
+     * rounding changed a value of the operation
+     * 
+     * @param operation
+     * @param roundingMode
+     * @param currency
+     *            - the currency of the rounded value
+     * @param residual
+     *            - {@code rounded - exact} in basic unit, never zero, positive if rounding increased the value
+     */
+    void onRounding(MoneyOperation operation, RoundingMode roundingMode, Currency currency, BigDecimal residual);
+
+    /**
+     * the latency of a sampled operation
+     * 
+     * @param operation
+     * @param nanos
+     */
+    void onLatency(MoneyOperation operation, long nanos);
+}
@@ -0,0 +1,271 @@
+package com.github.ciferliu;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * The Jackson module of {@link Money} and {@link Currency}, streaming serializers and deserializers.
+ * <p>
+ * 序列化直接从内部表示写出：已舍入金额逐位写出精确的十进制文本或最小单位的{@code long}，不经过{@code double}；
+ * 反序列化直接读取数值token的原始文本，币种经{@link CurrencyFactory}查找得到共享实例。<br>
+ * {@link Money}的JSON形态（反序列化时三种形态都接受，与序列化形态无关）：
+ * <ul>
+ * <li>{@link Shape#OBJECT}：{@code {"currency":"USD","amount":1.00}}</li>
+ * <li>{@link Shape#STRING}：{@code "USD 1.00"}，与{@link Money#toString()}一致</li>
+ * <li>{@link Shape#MINOR_UNIT}：{@code {"currency":"USD","minorUnitValue":100}}，未舍入金额按
+ * {@link Money#getMinorUnitValue()}写出</li>
+ * </ul>
+ * {@link Currency}序列化为币种代码，如{@code "USD"}。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new MoneyModule(MoneyModule.Shape.STRING));
+ * 
+ * String json = mapper.writeValueAsString(money);// "USD 1.00"
+ * Money m = mapper.readValue(json, Money.class);
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public class MoneyModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The JSON shape of serialized {@link Money}.
+     */
+    public enum Shape {
+        /**
+         * {@code {"currency":"USD","amount":1.00}}, the amount is the exact decimal number
+         */
+        OBJECT,
+        /**
+         * {@code "USD 1.00"}, the same as {@link Money#toString()}
+         */
+        STRING,
+        /**
+         * {@code {"currency":"USD","minorUnitValue":100}}
+         */
+        MINOR_UNIT
+    }
+
+    static final String CURRENCY = "currency";
+    static final String AMOUNT = "amount";
+    static final String MINOR_UNIT_VALUE = "minorUnitValue";
+
+    /**
+     * MoneyModule constructor, the shape is {@link Shape#OBJECT}
+     */
+    public MoneyModule() {
+        this(Shape.OBJECT);
+    }
+
+    /**
+     * MoneyModule constructor
+     * 
+     * @param shape
+     *            - the shape of serialized money, can't be null
+     */
+    public MoneyModule(Shape shape) {
+        super(MoneyModule.class.getSimpleName());
+        if (shape == null) {
+            throw new IllegalArgumentException("shape can't be null");
+        }
+        addSerializer(Money.class, new MoneySerializer(shape));
+        addDeserializer(Money.class, new MoneyDeserializer());
+        addSerializer(Currency.class, new CurrencySerializer());
+        addDeserializer(Currency.class, new CurrencyDeserializer());
+    }
+
+    static final class MoneySerializer extends StdSerializer<Money> {
+        private static final long serialVersionUID = 1L;
+        private final Shape shape;
+
+        MoneySerializer(Shape shape) {
+            super(Money.class);
+            this.shape = shape;
+        }
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            switch (shape) {
+                case STRING:
+                    if (value.isCompact()) {
+                        CharBuffer buffer = CharBuffer.allocate(bufferSize(value));
+                        MoneyFormat.DEFAULT.format(value, buffer);
+                        gen.writeString(buffer.array(), 0, buffer.position());
+                    } else {
+                        gen.writeString(value.toString());
+                    }
+                    break;
+                case MINOR_UNIT:
+                    gen.writeStartObject();
+                    gen.writeStringField(CURRENCY, value.getCurrency().getCode());
+                    gen.writeNumberField(MINOR_UNIT_VALUE, value.getMinorUnitValue());
+                    gen.writeEndObject();
+                    break;
+                default:
+                    gen.writeStartObject();
+                    gen.writeStringField(CURRENCY, value.getCurrency().getCode());
+                    gen.writeFieldName(AMOUNT);
+                    if (value.isCompact()) {
+                        CharBuffer buffer = CharBuffer.allocate(bufferSize(value));
+                        MoneyFormat.DEFAULT.formatAmount(value, buffer);
+                        gen.writeRawValue(buffer.array(), 0, buffer.position());
+                    } else {
+                        gen.writeNumber(value.basicUnitValue());
+                    }
+                    gen.writeEndObject();
+            }
+        }
+    }
+
+    /**
+     * the char buffer size for a compact money: the code, a whitespace, a sign, up to 19 digits, a decimal point and
+     * the leading zeros of the scale, which is also more than the scientific notation takes
+     */
+    static int bufferSize(Money m) {
+        return m.getCurrency().getCode().length() + m.getCurrency().getScale() + 22;
+    }
+
+    static final class MoneyDeserializer extends StdDeserializer<Money> {
+        private static final long serialVersionUID = 1L;
+
+        MoneyDeserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.getCurrentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                try {
+                    return MoneyFormat.DEFAULT.parse(text(p));
+                } catch (IllegalArgumentException e) {
+                    return ctxt.reportInputMismatch(this, e.getMessage());
+                }
+            }
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+            Currency currency = null;
+            Money money = null;
+            String amount = null;
+            boolean minorUnit = false;
+            long minorUnitValue = 0;
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String name = p.getCurrentName();
+                token = p.nextToken();
+                if (CURRENCY.equals(name)) {
+                    currency = currency(p, ctxt, this);
+                } else if (AMOUNT.equals(name)) {
+                    if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                        && token != JsonToken.VALUE_STRING) {
+                        return ctxt.reportInputMismatch(this, "amount must be a number");
+                    }
+                    if (currency != null) {
+                        money = amount(currency, text(p), ctxt);
+                    } else {
+                        // the currency is not read yet
+                        amount = p.getText();
+                    }
+                } else if (MINOR_UNIT_VALUE.equals(name)) {
+                    if (token != JsonToken.VALUE_NUMBER_INT) {
+                        return ctxt.reportInputMismatch(this, "minorUnitValue must be an integer");
+                    }
+                    minorUnit = true;
+                    minorUnitValue = p.getLongValue();
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                return ctxt.reportInputMismatch(this, "money must be a string or an object");
+            }
+            if (currency == null) {
+                return ctxt.reportInputMismatch(this, "currency is not found");
+            }
+            if (money != null) {
+                return money;
+            }
+            if (amount != null) {
+                return amount(currency, amount, ctxt);
+            }
+            if (minorUnit) {
+                return Money.rounded(currency, minorUnitValue);
+            }
+            return ctxt.reportInputMismatch(this, "amount is not found");
+        }
+
+        private Money amount(Currency currency, CharSequence text, DeserializationContext ctxt) throws IOException {
+            try {
+                return MoneyFormat.DEFAULT.parseAmount(currency, text, 0, text.length());
+            } catch (NumberFormatException e) {
+                return ctxt.reportInputMismatch(this, "illegal amount: " + text);
+            }
+        }
+    }
+
+    static final class CurrencySerializer extends StdSerializer<Currency> {
+        private static final long serialVersionUID = 1L;
+
+        CurrencySerializer() {
+            super(Currency.class);
+        }
+
+        @Override
+        public void serialize(Currency value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(value.getCode());
+        }
+    }
+
+    static final class CurrencyDeserializer extends StdDeserializer<Currency> {
+        private static final long serialVersionUID = 1L;
+
+        CurrencyDeserializer() {
+            super(Currency.class);
+        }
+
+        @Override
+        public Currency deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return currency(p, ctxt, this);
+        }
+    }
+
+    /**
+     * the text of current token, a view of the parser's buffer without copy
+     */
+    private static CharSequence text(JsonParser p) throws IOException {
+        return CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    }
+
+    /**
+     * read the currency code of current token, the currency is interned by {@link CurrencyFactory}
+     */
+    private static Currency currency(JsonParser p, DeserializationContext ctxt, StdDeserializer<?> deserializer)
+        throws IOException {
+        if (p.getCurrentToken() != JsonToken.VALUE_STRING) {
+            return ctxt.reportInputMismatch(deserializer, "currency must be a string");
+        }
+        CharSequence code = text(p);
+        Currency currency = null;
+        try {
+            currency = CurrencyFactory.get(code);
+        } catch (IllegalArgumentException e) {
+            // blank code
+        }
+        if (currency == null) {
+            return ctxt.reportInputMismatch(deserializer, "currency is not found: " + code);
+        }
+        return currency;
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.ciferliu;
+
+/**
+ * The operations of {@link MoneyCalculator}, as reported to {@link MoneyMetricsSink}.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public enum MoneyOperation {
+    INIT, ADD, SUBTRACT, MULTIPLY, DIVIDE, FX_BY_MULTIPLY, FX_BY_DIVIDE
+}
@@ -0,0 +1,420 @@
+package com.github.ciferliu;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A streaming stage which applies a {@link MoneyFormula} to money events and passes the results to a
+ * {@link MoneyResultHandler} - <strong>threadsafe</strong>.
+ * <p>
+ * 事件先进入有界缓冲区，由执行器上的排空任务按批取出，对每个事件应用{@link MoneyFormula}后交给{@link MoneyResultHandler}；
+ * 同一时刻最多一个排空任务，因此处理器不会被并发调用，且按事件入缓冲区的顺序收到结果。<br>
+ * 有界缓冲区即背压：公式或处理器跟不上时，{@link #submit(Money)}阻塞，{@link #offer(Money)}返回false，不会无限缓冲。
+ * 排空任务从不阻塞等待事件，可使用任意执行器，包括Java 21及以上的{@link #newVirtualThreadExecutor()}。<br>
+ * 处理失败的事件（如币种与公式的输入币种不同）计入{@link #getFailedCount()}，可由{@link #getLastError()}获取，后续事件照常处理；
+ * 抛出{@link Error}的事件同样计为失败，先调度新的排空任务，再将该{@code Error}抛给执行器。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyPipeline pipeline = MoneyPipeline.builder((input, fee) -&gt; ledger.post(input, fee))
+ *     .formula(feeFormula).executor(executor).bufferSize(4096).build();
+ * 
+ * pipeline.submit(m);// 缓冲区满时阻塞
+ * boolean accepted = pipeline.offer(m2);// 缓冲区满时返回false
+ * 
+ * pipeline.close();// 不再接受新事件，已缓冲的事件继续处理
+ * pipeline.awaitTermination(10, TimeUnit.SECONDS);
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see MoneyWindowAggregator
+ */
+public final class MoneyPipeline implements Closeable {
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * null if the results are the events themselves
+     */
+    private final MoneyFormula formula;
+    private final MoneyResultHandler handler;
+    private final Executor executor;
+    private final BlockingQueue<Money> buffer;
+    private final int batchSize;
+    /**
+     * only used by the draining task, which is at most one at a time
+     */
+    private final List<Money> batch;
+    /**
+     * the number of signals not seen by the draining task yet, the task is scheduled when it turns from 0 to 1
+     */
+    private final AtomicInteger wip = new AtomicInteger();
+    /**
+     * the number of producers inside {@link #enqueue(Money, long)}
+     */
+    private final AtomicInteger producers = new AtomicInteger();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean closed;
+    private volatile long processedCount;
+    private volatile long failedCount;
+    private volatile RuntimeException lastError;
+
+    private MoneyPipeline(Builder builder) {
+        this.formula = builder.formula;
+        this.handler = builder.handler;
+        this.executor = builder.executor;
+        this.buffer = new ArrayBlockingQueue<>(builder.bufferSize);
+        this.batchSize = builder.batchSize;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * start to build a pipeline
+     * 
+     * @param handler
+     *            - receives the results
+     * @return
+     */
+    public static Builder builder(MoneyResultHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return new Builder(handler);
+    }
+
+    /**
+     * a new executor which starts a virtual thread per task, {@code Executors.newVirtualThreadPerTaskExecutor()}
+     * 
+     * @return
+     * @throws UnsupportedOperationException
+     *             if virtual threads are not available, before Java 21
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService)method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("virtual threads are not available", e);
+        }
+    }
+
+    /**
+     * buffer an event, block while the buffer is full
+     * 
+     * @param m
+     * @throws IllegalArgumentException
+     *             if m is null
+     * @throws IllegalStateException
+     *             if the pipeline is closed
+     * @throws InterruptedException
+     */
+    public void submit(Money m) throws InterruptedException {
+        enqueue(m, -1);
+    }
+
+    /**
+     * buffer an event if the buffer is not full
+     * 
+     * @param m
+     * @return false if the buffer is full
+     * @throws IllegalArgumentException
+     *             if m is null
+     * @throws IllegalStateException
+     *             if the pipeline is closed
+     */
+    public boolean offer(Money m) {
+        try {
+            return enqueue(m, 0);
+        } catch (InterruptedException e) {
+            // never blocks
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * buffer an event, wait up to the timeout while the buffer is full
+     * 
+     * @param m
+     * @param timeout
+     * @param unit
+     * @return false if the buffer is still full after the timeout
+     * @throws IllegalArgumentException
+     *             if m or unit is null
+     * @throws IllegalStateException
+     *             if the pipeline is closed
+     * @throws InterruptedException
+     */
+    public boolean offer(Money m, long timeout, TimeUnit unit) throws InterruptedException {
+        if (unit == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return enqueue(m, Math.max(unit.toNanos(timeout), 0));
+    }
+
+    /**
+     * @param timeoutNanos
+     *            - negative to wait without timeout
+     */
+    private boolean enqueue(Money m, long timeoutNanos) throws InterruptedException {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        producers.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("pipeline is closed");
+            }
+            if (timeoutNanos < 0) {
+                buffer.put(m);
+                return true;
+            }
+            return timeoutNanos == 0 ? buffer.offer(m) : buffer.offer(m, timeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            producers.decrementAndGet();
+            signal();
+        }
+    }
+
+    /**
+     * schedule the draining task if it's not running, it runs in the caller thread if the executor rejects it
+     */
+    private void signal() {
+        if (wip.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        boolean completed = false;
+        try {
+            for (;;) {
+                while (buffer.drainTo(batch, batchSize) > 0) {
+                    process();
+                }
+                if (closed && producers.get() == 0 && buffer.isEmpty()) {
+                    terminated.countDown();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    completed = true;
+                    return;
+                }
+            }
+        } finally {
+            if (!completed) {
+                // an Error escaped the formula or the handler, schedule a new task before it's rethrown, otherwise
+                // wip never returns to 0 and nothing is drained any more
+                wip.set(0);
+                signal();
+            }
+        }
+    }
+
+    private void process() {
+        long processed = processedCount;
+        long failed = failedCount;
+        int i = 0;
+        try {
+            for (int n = batch.size(); i < n; i++) {
+                Money m = batch.get(i);
+                try {
+                    handler.accept(m, formula == null ? m : formula.apply(m));
+                    processed++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    lastError = e;
+                }
+            }
+        } finally {
+            if (i < batch.size()) {
+                // the event threw an Error, it's failed, the rest of the batch is processed by the next task
+                failed++;
+                i++;
+            }
+            batch.subList(0, i).clear();
+            processedCount = processed;
+            failedCount = failed;
+        }
+    }
+
+    /**
+     * stop accepting events, the buffered events are still processed
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            signal();
+        }
+    }
+
+    /**
+     * wait until the pipeline is closed and all buffered events are processed
+     * 
+     * @param timeout
+     * @param unit
+     * @return false if the timeout elapsed before termination
+     * @throws InterruptedException
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    /**
+     * get the number of events passed to the handler
+     * 
+     * @return
+     */
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    /**
+     * get the number of events failed in the formula or the handler
+     * 
+     * @return
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * get the last failure of the formula or the handler
+     * 
+     * @return null if no event failed
+     */
+    public RuntimeException getLastError() {
+        return lastError;
+    }
+
+    /**
+     * get the number of events in the buffer
+     * 
+     * @return
+     */
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(128);
+        builder.append("MoneyPipeline [formula=");
+        builder.append(formula);
+        builder.append(", buffered=");
+        builder.append(buffer.size());
+        builder.append(", processed=");
+        builder.append(processedCount);
+        builder.append(", failed=");
+        builder.append(failedCount);
+        builder.append(", closed=");
+        builder.append(closed);
+        builder.append("]");
+        return builder.toString();
+    }
+
+    /**
+     * The builder of {@link MoneyPipeline} - <strong>non-threadsafe</strong>.
+     */
+    public static final class Builder {
+        private final MoneyResultHandler handler;
+        private MoneyFormula formula;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+
+        private Builder(MoneyResultHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * the formula applied to every event, the events are passed to the handler as they are without formula
+         * 
+         * @param formula
+         * @return
+         */
+        public Builder formula(MoneyFormula formula) {
+            if (formula == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            this.formula = formula;
+            return this;
+        }
+
+        /**
+         * the executor of the draining task, the common fork/join pool by default
+         * 
+         * @param executor
+         * @return
+         */
+        public Builder executor(Executor executor) {
+            if (executor == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * the capacity of the buffer, {@link MoneyPipeline#DEFAULT_BUFFER_SIZE} by default
+         * 
+         * @param bufferSize
+         *            - positive
+         * @return
+         */
+        public Builder bufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("param is illegal");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * the max number of events taken from the buffer at a time, {@link MoneyPipeline#DEFAULT_BATCH_SIZE} by
+         * default
+         * 
+         * @param batchSize
+         *            - positive
+         * @return
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("param is illegal");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public MoneyPipeline build() {
+            return new MoneyPipeline(this);
+        }
+    }
+}
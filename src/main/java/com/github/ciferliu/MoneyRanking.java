@@ -0,0 +1,407 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Sorting, top-K and range counting of same currency amounts, on primitive minor units.
+ * <p>
+ * 对最小单位的{@code long}数组直接排序（基数排序，跳过所有元素字节相同的轮次），选取最大的K个（大小为K的最小堆），统计区间内的个数；
+ * {@link Money}数组和{@link MoneyColumn}在金额都能用{@code long}表示时走同样的原始类型路径，否则按自然顺序比较。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * int[] top = MoneyRanking.topK(column, 100);// 金额最大的100笔的下标，降序
+ * int count = MoneyRanking.countInRange(column, usd.fromBasicUnitValue(100), usd.fromBasicUnitValue(1000));
+ * column.sort();
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyRanking {
+    /**
+     * arrays shorter than this are sorted by {@code Arrays.sort}
+     */
+    static final int RADIX_SORT_THRESHOLD = 512;
+
+    private MoneyRanking() {}
+
+    /**
+     * sort the amounts in minor unit in ascending order
+     * 
+     * @param minorUnitValues
+     */
+    public static void sort(long[] minorUnitValues) {
+        if (minorUnitValues == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        sort(minorUnitValues, 0, minorUnitValues.length);
+    }
+
+    /**
+     * sort the range {@code [from, to)} of the amounts in minor unit in ascending order
+     * 
+     * @param minorUnitValues
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     */
+    public static void sort(long[] minorUnitValues, int from, int to) {
+        if (minorUnitValues == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        checkRange(minorUnitValues.length, from, to);
+        if (to - from < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(minorUnitValues, from, to);
+            return;
+        }
+        radixSort(minorUnitValues, null, from, to);
+    }
+
+    /**
+     * sort the monies in the natural order, stable. If all of them are compact amounts of the same currency, they are
+     * sorted by a radix sort of the minor units.
+     * 
+     * @param monies
+     * @throws IllegalArgumentException
+     *             if monies or any element is null
+     */
+    public static void sort(Money[] monies) {
+        if (monies == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        long[] keys = keys(monies);
+        if (keys == null || monies.length < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(monies);
+            return;
+        }
+        int[] order = new int[monies.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        radixSort(keys, order, 0, keys.length);
+        Money[] copy = monies.clone();
+        for (int i = 0; i < order.length; i++) {
+            monies[i] = copy[order[i]];
+        }
+    }
+
+    /**
+     * select the k largest amounts
+     * 
+     * @param minorUnitValues
+     * @param k
+     * @return the indices of the k largest amounts in descending order of the amount, equal amounts in ascending
+     *         order of the index; all of the indices if k is larger than the length
+     */
+    public static int[] topK(long[] minorUnitValues, int k) {
+        if (minorUnitValues == null || k < 0) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return topK(minorUnitValues.length, k, (i, j) -> Long.compare(minorUnitValues[i], minorUnitValues[j]));
+    }
+
+    /**
+     * select the k largest monies in the natural order
+     * 
+     * @param monies
+     * @param k
+     * @return the k largest monies in descending order, equal ones in ascending order of the index
+     * @throws IllegalArgumentException
+     *             if monies or any element is null, or k is negative
+     */
+    public static Money[] topK(Money[] monies, int k) {
+        if (monies == null || k < 0) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        long[] keys = keys(monies);
+        int[] indices = keys != null ? topK(keys, k)
+            : topK(monies.length, k, (i, j) -> monies[i].compareTo(monies[j]));
+        Money[] top = new Money[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            top[i] = monies[indices[i]];
+        }
+        return top;
+    }
+
+    /**
+     * select the k largest amounts of the column
+     * 
+     * @param column
+     * @param k
+     * @return the indices of the k largest amounts in descending order of the amount, equal amounts in ascending
+     *         order of the index
+     */
+    public static int[] topK(MoneyColumn column, int k) {
+        if (column == null || k < 0) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        if (!column.hasOverflow()) {
+            long[] values = column.rawValues();
+            return topK(column.size(), k, (i, j) -> Long.compare(values[i], values[j]));
+        }
+        return topK(column.size(), k, (i, j) -> column.get(i).compareTo(column.get(j)));
+    }
+
+    /**
+     * count the amounts in {@code [from, to)}
+     * 
+     * @param minorUnitValues
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     * @return
+     */
+    public static int countInRange(long[] minorUnitValues, long from, long to) {
+        if (minorUnitValues == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        int count = 0;
+        for (long value : minorUnitValues) {
+            if (value >= from && value < to) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * count the amounts in {@code [from, to)} of the array sorted in ascending order, by binary search
+     * 
+     * @param sortedMinorUnitValues
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     * @return
+     */
+    public static int countInSortedRange(long[] sortedMinorUnitValues, long from, long to) {
+        if (sortedMinorUnitValues == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (from >= to) {
+            return 0;
+        }
+        return lowerBound(sortedMinorUnitValues, to) - lowerBound(sortedMinorUnitValues, from);
+    }
+
+    /**
+     * count the amounts of the column in {@code [from, to)}, the bounds are compared exactly, without rounding
+     * 
+     * @param column
+     * @param from
+     *            inclusive
+     * @param to
+     *            exclusive
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument is null, or the currencies are not same
+     */
+    public static int countInRange(MoneyColumn column, Money from, Money to) {
+        if (column == null || from == null || to == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        Currency currency = column.getCurrency();
+        if (!currency.equals(from.getCurrency()) || !currency.equals(to.getCurrency())) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+        // value >= from <=> value >= ceil(from), value < to <=> value < ceil(to), in minor unit
+        BigDecimal lower = from.basicUnitValue().setScale(currency.getScale(), RoundingMode.CEILING);
+        BigDecimal upper = to.basicUnitValue().setScale(currency.getScale(), RoundingMode.CEILING);
+        if (lower.compareTo(upper) >= 0) {
+            return 0;
+        }
+        if (!column.hasOverflow() && fitsInLong(lower) && fitsInLong(upper)) {
+            long[] values = column.rawValues();
+            long low = lower.unscaledValue().longValue();
+            long high = upper.unscaledValue().longValue();
+            int count = 0;
+            for (int i = 0, n = column.size(); i < n; i++) {
+                long value = values[i];
+                if (value >= low && value < high) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        int count = 0;
+        for (int i = 0, n = column.size(); i < n; i++) {
+            BigDecimal value = column.get(i).basicUnitValue();
+            if (value.compareTo(lower) >= 0 && value.compareTo(upper) < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean fitsInLong(BigDecimal value) {
+        return value.unscaledValue().bitLength() < 64;
+    }
+
+    /**
+     * the minor units of the monies, if all of them are compact amounts of the same currency, rounded or all not
+     * rounded; otherwise null
+     */
+    private static long[] keys(Money[] monies) {
+        if (monies.length == 0) {
+            return null;
+        }
+        for (Money m : monies) {
+            if (m == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+        }
+        Money first = monies[0];
+        Currency currency = first.getCurrency();
+        long[] keys = new long[monies.length];
+        for (int i = 0; i < monies.length; i++) {
+            Money m = monies[i];
+            if (!m.isCompact() || m.isRounded() != first.isRounded() || !(m.getCurrency() == currency
+                || (m.getCurrency().equals(currency) && m.getCurrency().getScale() == currency.getScale()))) {
+                return null;
+            }
+            keys[i] = m.minorUnitValue();
+        }
+        return keys;
+    }
+
+    /**
+     * LSD radix sort by bytes of the range, stable, with the payload moved along with the keys if not null. The
+     * passes in which all of the keys have the same byte are skipped.
+     */
+    private static void radixSort(long[] keys, int[] payload, int from, int to) {
+        int n = to - from;
+        int[][] counts = new int[8][257];
+        for (int i = from; i < to; i++) {
+            // flip the sign bit, so the unsigned order of the bytes is the signed order of the keys
+            long key = keys[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < 8; pass++) {
+                counts[pass][(int)(key >>> (pass << 3) & 0xFF) + 1]++;
+            }
+        }
+        long[] src = keys;
+        long[] dst = new long[n];
+        int srcFrom = from;
+        int dstFrom = 0;
+        int[] srcPayload = payload;
+        int[] dstPayload = payload == null ? null : new int[n];
+        for (int pass = 0; pass < 8; pass++) {
+            int[] count = counts[pass];
+            int shift = pass << 3;
+            if (count[(int)((src[srcFrom] ^ Long.MIN_VALUE) >>> shift & 0xFF) + 1] == n) {
+                continue;
+            }
+            for (int b = 0; b < 256; b++) {
+                count[b + 1] += count[b];
+            }
+            for (int i = 0; i < n; i++) {
+                long key = src[srcFrom + i];
+                int position = count[(int)((key ^ Long.MIN_VALUE) >>> shift & 0xFF)]++;
+                dst[dstFrom + position] = key;
+                if (srcPayload != null) {
+                    dstPayload[dstFrom + position] = srcPayload[srcFrom + i];
+                }
+            }
+            long[] tmp = src;
+            src = dst;
+            dst = tmp;
+            int tmpFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = tmpFrom;
+            int[] tmpPayload = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = tmpPayload;
+        }
+        if (src != keys) {
+            System.arraycopy(src, srcFrom, keys, from, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, srcFrom, payload, from, n);
+            }
+        }
+    }
+
+    /**
+     * select the k largest of {@code [0, n)} by a min-heap of size k
+     */
+    private static int[] topK(int n, int k, IndexOrder order) {
+        k = Math.min(k, n);
+        int[] heap = new int[k];
+        if (k == 0) {
+            return heap;
+        }
+        // the root is the smallest, and the one with the largest index among equal ones
+        IndexOrder heapOrder = (i, j) -> {
+            int cmp = order.compare(i, j);
+            return cmp != 0 ? cmp : Integer.compare(j, i);
+        };
+        for (int i = 0; i < k; i++) {
+            heap[i] = i;
+        }
+        for (int i = (k >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, i, k, heapOrder);
+        }
+        for (int i = k; i < n; i++) {
+            // a later index never beats an equal one in the heap
+            if (order.compare(i, heap[0]) > 0) {
+                heap[0] = i;
+                siftDown(heap, 0, k, heapOrder);
+            }
+        }
+        // heap sort, the smallest is moved to the end
+        for (int size = k - 1; size > 0; size--) {
+            int root = heap[0];
+            heap[0] = heap[size];
+            heap[size] = root;
+            siftDown(heap, 0, size, heapOrder);
+        }
+        return heap;
+    }
+
+    private static void siftDown(int[] heap, int i, int size, IndexOrder order) {
+        int value = heap[i];
+        for (;;) {
+            int child = (i << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (order.compare(heap[child], value) >= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new ArrayIndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + length);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexOrder {
+        int compare(int i, int j);
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.ciferliu;
+
+/**
+ * The receiver of the results of {@link MoneyPipeline}, one call per event, in the order the events are buffered.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface MoneyResultHandler {
+    /**
+     * receive a result, in the draining thread of the pipeline, never concurrently
+     * 
+     * @param input
+     *            - the event submitted to the pipeline
+     * @param result
+     *            - the result of the formula of the pipeline, or input itself if the pipeline has no formula
+     */
+    void accept(Money input, Money result);
+}
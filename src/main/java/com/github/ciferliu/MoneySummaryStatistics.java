@@ -0,0 +1,249 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The statistics of a batch of same currency money: count, sum, min, max, average and count by sign -
+ * <strong>non-threadsafe</strong>.
+ * <p>
+ * Every accepted money is rounded the same way as {@link MoneyCalculator} does, and the sum is accumulated in
+ * {@code long} minor units, spilled to {@code BigDecimal} only on overflow. So the sum is exactly the result of the
+ * {@code calculator.init(m1).add(m2)...add(mn).getResult()} chain, without an intermediate money per element.
+ * <p>
+ * Designed like {@code java.util.LongSummaryStatistics}, it can be used as the container of a mutable reduction:
+ * 
+ * <pre class="code">
+ * MoneySummaryStatistics statistics =
+ *     stream.collect(() -&gt; MoneySummaryStatistics.fromRoundingMode(RoundingMode.HALF_UP),
+ *         MoneySummaryStatistics::accept, MoneySummaryStatistics::combine);
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see MoneyAggregator
+ */
+public class MoneySummaryStatistics {
+    private final MoneyArithmetic arithmetic;
+    private Currency currency;
+    private long count;
+    /**
+     * sum in minor unit
+     */
+    private long sum;
+    /**
+     * the part of sum spilled out of {@link #sum} on overflow, in basic unit, null if never overflow
+     */
+    private BigDecimal overflowSum;
+    private Money min;
+    private Money max;
+    private long negativeCount;
+    private long zeroCount;
+    private long positiveCount;
+
+    private MoneySummaryStatistics(MoneyArithmetic arithmetic) {
+        this.arithmetic = arithmetic;
+    }
+
+    /**
+     * construct an empty statistics from the rounding mode
+     * 
+     * @param roundingMode
+     * @return
+     */
+    public static MoneySummaryStatistics fromRoundingMode(RoundingMode roundingMode) {
+        return new MoneySummaryStatistics(MoneyArithmetic.fromRoundingMode(roundingMode));
+    }
+
+    /**
+     * record a money
+     * 
+     * @param m
+     * @throws IllegalArgumentException
+     *             if m is null, or its currency is not same as the recorded ones.
+     */
+    public void accept(Money m) {
+        if (m == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (m.getCurrency() != currency) {
+            checkCurrency(m.getCurrency());
+        }
+        if (!m.isRounded()) {
+            m = arithmetic.round(m);
+        }
+        count++;
+        if (m.isCompact()) {
+            long value = m.minorUnitValue();
+            addCompact(value);
+            countSign(Long.signum(value));
+        } else {
+            addOverflow(m.basicUnitValue());
+            countSign(m.basicUnitValue().signum());
+        }
+        if (min == null || compare(m, min) < 0) {
+            min = m;
+        }
+        if (max == null || compare(m, max) > 0) {
+            max = m;
+        }
+    }
+
+    /**
+     * combine the state of another statistics into this one
+     * 
+     * @param other
+     * @throws IllegalArgumentException
+     *             if other is null, or its currency is not same as this one.
+     */
+    public void combine(MoneySummaryStatistics other) {
+        if (other == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (other.currency != currency) {
+            checkCurrency(other.currency);
+        }
+        count += other.count;
+        addCompact(other.sum);
+        if (other.overflowSum != null) {
+            addOverflow(other.overflowSum);
+        }
+        negativeCount += other.negativeCount;
+        zeroCount += other.zeroCount;
+        positiveCount += other.positiveCount;
+        if (min == null || compare(other.min, min) < 0) {
+            min = other.min;
+        }
+        if (max == null || compare(other.max, max) > 0) {
+            max = other.max;
+        }
+    }
+
+    private void checkCurrency(Currency other) {
+        if (currency == null) {
+            currency = other;
+        } else if (!currency.equals(other)) {
+            throw new IllegalArgumentException("currency is not same, can't do the calculation");
+        }
+    }
+
+    private void addCompact(long value) {
+        try {
+            sum = Math.addExact(sum, value);
+        } catch (ArithmeticException e) {
+            addOverflow(BigDecimal.valueOf(sum, currency.getScale()));
+            sum = value;
+        }
+    }
+
+    private void addOverflow(BigDecimal value) {
+        overflowSum = overflowSum == null ? value : overflowSum.add(value);
+    }
+
+    private void countSign(int signum) {
+        if (signum < 0) {
+            negativeCount++;
+        } else if (signum == 0) {
+            zeroCount++;
+        } else {
+            positiveCount++;
+        }
+    }
+
+    private static int compare(Money m1, Money m2) {
+        if (m1.isCompact() && m2.isCompact()) {
+            return Long.compare(m1.minorUnitValue(), m2.minorUnitValue());
+        }
+        return m1.basicUnitValue().compareTo(m2.basicUnitValue());
+    }
+
+    /**
+     * get the currency of recorded money
+     * 
+     * @return null if no money is recorded
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getNegativeCount() {
+        return negativeCount;
+    }
+
+    public long getZeroCount() {
+        return zeroCount;
+    }
+
+    public long getPositiveCount() {
+        return positiveCount;
+    }
+
+    /**
+     * get the sum of recorded money
+     * 
+     * @return the rounded sum, null if no money is recorded
+     */
+    public Money getSum() {
+        if (count == 0) {
+            return null;
+        }
+        if (overflowSum == null) {
+            return Money.rounded(currency, sum);
+        }
+        return Money.rounded(currency, overflowSum.add(BigDecimal.valueOf(sum, currency.getScale())));
+    }
+
+    /**
+     * get the min of recorded money
+     * 
+     * @return the rounded min, null if no money is recorded
+     */
+    public Money getMin() {
+        return min;
+    }
+
+    /**
+     * get the max of recorded money
+     * 
+     * @return the rounded max, null if no money is recorded
+     */
+    public Money getMax() {
+        return max;
+    }
+
+    /**
+     * get the average of recorded money, the same as {@code calculator.init(sum).divide(count)}
+     * 
+     * @return the rounded average, null if no money is recorded
+     */
+    public Money getAverage() {
+        if (count == 0) {
+            return null;
+        }
+        return arithmetic.divide(getSum(), count);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(160);
+        builder.append("MoneySummaryStatistics [count=");
+        builder.append(count);
+        builder.append(", sum=");
+        builder.append(getSum());
+        builder.append(", min=");
+        builder.append(min);
+        builder.append(", max=");
+        builder.append(max);
+        builder.append(", average=");
+        builder.append(getAverage());
+        builder.append("]");
+        return builder.toString();
+    }
+}
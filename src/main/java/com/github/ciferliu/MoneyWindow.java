@@ -0,0 +1,90 @@
+package com.github.ciferliu;
+
+import java.util.Arrays;
+
+/**
+ * The per-currency totals of the results in a time window - <strong>immutable</strong>.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see MoneyWindowAggregator
+ */
+public final class MoneyWindow {
+    private final long start;
+    private final long end;
+    private final Money[] totals;
+    private final long count;
+
+    MoneyWindow(long start, long end, Money[] totals, long count) {
+        this.start = start;
+        this.end = end;
+        this.totals = totals;
+        this.count = count;
+    }
+
+    /**
+     * get the start of the window
+     * 
+     * @return epoch millis, inclusive
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * get the end of the window
+     * 
+     * @return epoch millis, exclusive
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * get the number of results in the window
+     * 
+     * @return
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * get the totals of all currencies
+     * 
+     * @return the rounded totals, one per currency, in the order the currencies first appear in the window
+     */
+    public Money[] getTotals() {
+        return totals.clone();
+    }
+
+    /**
+     * get the total of a currency
+     * 
+     * @param currency
+     * @return the rounded total, null if there is no result of the currency in the window
+     */
+    public Money getTotal(Currency currency) {
+        for (Money total : totals) {
+            if (total.getCurrency().equals(currency)) {
+                return total;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(96);
+        builder.append("MoneyWindow [start=");
+        builder.append(start);
+        builder.append(", end=");
+        builder.append(end);
+        builder.append(", count=");
+        builder.append(count);
+        builder.append(", totals=");
+        builder.append(Arrays.toString(totals));
+        builder.append("]");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.ciferliu;
+
+import java.math.RoundingMode;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-currency totals of results in tumbling time windows - <strong>threadsafe</strong>.
+ * <p>
+ * 每个窗口只保存各币种合计的{@link MoneyBag}及事件数，不保存结果本身，突发的事件量不额外占用内存，只与币种数有关。
+ * 窗口按窗口长度的整数倍对齐到epoch毫秒。窗口结束后的第一个结果、{@link #advance()}（如事件稀疏时由定时器周期调用）
+ * 或{@link #flush()}关闭当前窗口；空窗口不报告。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * MoneyWindowAggregator aggregator =
+ *     new MoneyWindowAggregator(1000, RoundingMode.HALF_UP, window -&gt; report(window));// 每秒一个窗口
+ * MoneyPipeline pipeline = MoneyPipeline.builder(aggregator).formula(fee).build();
+ * 
+ * pipeline.submit(m);
+ * ...
+ * pipeline.close();
+ * pipeline.awaitTermination(10, TimeUnit.SECONDS);
+ * aggregator.flush();// 报告最后一个窗口
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class MoneyWindowAggregator implements MoneyResultHandler {
+    private final long windowMillis;
+    private final RoundingMode roundingMode;
+    private final MoneyWindowListener listener;
+    private final LongSupplier clock;
+    private MoneyBag totals;
+    private long count;
+    private long windowStart;
+
+    /**
+     * MoneyWindowAggregator constructor
+     * 
+     * @param windowMillis
+     *            - the length of a window, positive
+     * @param roundingMode
+     *            - to round the results which are not rounded yet
+     * @param listener
+     *            - receives every closed window
+     */
+    public MoneyWindowAggregator(long windowMillis, RoundingMode roundingMode, MoneyWindowListener listener) {
+        this(windowMillis, roundingMode, listener, System::currentTimeMillis);
+    }
+
+    MoneyWindowAggregator(long windowMillis, RoundingMode roundingMode, MoneyWindowListener listener,
+        LongSupplier clock) {
+        if (windowMillis <= 0 || roundingMode == null || listener == null) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        this.windowMillis = windowMillis;
+        this.roundingMode = roundingMode;
+        this.listener = listener;
+        this.clock = clock;
+        this.totals = new MoneyBag(roundingMode);
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * add the result to the totals of the current window, closing the window first if it has ended
+     * 
+     * @param input
+     *            - ignored
+     * @param result
+     * @throws IllegalArgumentException
+     *             if result is null, or its currency is not registered in {@link CurrencyFactory}
+     */
+    @Override
+    public synchronized void accept(Money input, Money result) {
+        if (result == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        long now = clock.getAsLong();
+        if (count > 0 && now - windowStart >= windowMillis) {
+            close();
+        }
+        if (count == 0) {
+            windowStart = now - Math.floorMod(now, windowMillis);
+        }
+        totals.add(result);
+        count++;
+    }
+
+    /**
+     * close the current window if it has ended
+     * 
+     * @return whether a window is closed
+     */
+    public synchronized boolean advance() {
+        if (count > 0 && clock.getAsLong() - windowStart >= windowMillis) {
+            close();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * close the current window, even if it has not ended
+     * 
+     * @return whether a window is closed, false if the current window is empty
+     */
+    public synchronized boolean flush() {
+        if (count > 0) {
+            close();
+            return true;
+        }
+        return false;
+    }
+
+    private void close() {
+        MoneyWindow window = new MoneyWindow(windowStart, windowStart + windowMillis, totals.toArray(), count);
+        totals = new MoneyBag(roundingMode);
+        count = 0;
+        listener.onWindow(window);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder(96);
+        builder.append("MoneyWindowAggregator [windowMillis=");
+        builder.append(windowMillis);
+        builder.append(", windowStart=");
+        builder.append(windowStart);
+        builder.append(", count=");
+        builder.append(count);
+        builder.append(", totals=");
+        builder.append(totals);
+        builder.append("]");
+        return builder.toString();
+    }
+}
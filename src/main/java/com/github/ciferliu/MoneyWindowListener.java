@@ -0,0 +1,18 @@
+package com.github.ciferliu;
+
+/**
+ * The listener of the windows closed by {@link MoneyWindowAggregator}.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface MoneyWindowListener {
+    /**
+     * called when a window is closed, in the thread that closes it
+     * 
+     * @param window
+     *            - never empty
+     */
+    void onWindow(MoneyWindow window);
+}
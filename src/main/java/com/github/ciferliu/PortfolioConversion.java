@@ -0,0 +1,37 @@
+package com.github.ciferliu;
+
+/**
+ * Immutable result of a batch conversion by {@link PortfolioConverter}: the converted positions and their total.
+ * 
+ * @param <T>
+ *            the converted positions, {@code Money[]} or {@code MoneyColumn[]}, in the same order as the input
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class PortfolioConversion<T> {
+    private final T positions;
+    private final Money total;
+
+    PortfolioConversion(T positions, Money total) {
+        this.positions = positions;
+        this.total = total;
+    }
+
+    /**
+     * get the converted positions, in the same order as the input
+     * 
+     * @return
+     */
+    public T getPositions() {
+        return positions;
+    }
+
+    /**
+     * get the total of converted positions, the same as adding them one by one by {@link MoneyCalculator#add(Money)}
+     * 
+     * @return the rounded total in target currency, zero if there is no position
+     */
+    public Money getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,385 @@
+package com.github.ciferliu;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * The batch conversion of multi-currency positions into one reporting currency - <strong>threadsafe</strong>.
+ * <p>
+ * 批量将多币种头寸折算为同一报表币种，返回每个头寸的折算结果及合计，舍入结果与逐个调用
+ * {@link MoneyCalculator#fxByMultiply(Currency, double)}或{@link MoneyCalculator#fxByDivide(Currency, double)}一致。<br>
+ * 每个币种对的汇率只解析一次，折算在{@code long}最小单位上完成，仅在溢出时回退到{@code BigDecimal}。<br>
+ * 汇率约定：
+ * <ul>
+ * <li>{@code convertByMultiply}：{@code 1 from = rates.getRate(from, target) * target}，结果 = 头寸 * 汇率</li>
+ * <li>{@code convertByDivide}：{@code 1 target = rates.getRate(target, from) * from}，结果 = 头寸 / 汇率</li>
+ * </ul>
+ * 若汇率提供者为{@link FxRateRegistry}，整批折算使用同一个汇率快照。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * PortfolioConverter converter = PortfolioConverter.fromRoundingMode(RoundingMode.HALF_UP);
+ * PortfolioConversion&lt;Money[]&gt; result = converter.parallelConvertByMultiply(positions, usd, registry);
+ * Money total = result.getTotal();
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class PortfolioConverter {
+    private static final PortfolioConverter[] INSTANCES;
+    static {
+        RoundingMode[] roundingModes = RoundingMode.values();
+        INSTANCES = new PortfolioConverter[roundingModes.length];
+        for (RoundingMode roundingMode : roundingModes) {
+            INSTANCES[roundingMode.ordinal()] = new PortfolioConverter(roundingMode);
+        }
+    }
+
+    private final MoneyArithmetic arithmetic;
+
+    private PortfolioConverter(RoundingMode roundingMode) {
+        this.arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
+    }
+
+    /**
+     * get the shared converter of the rounding mode
+     * 
+     * @param roundingMode
+     * @return
+     */
+    public static PortfolioConverter fromRoundingMode(RoundingMode roundingMode) {
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("roundingMode can't be null");
+        }
+        return INSTANCES[roundingMode.ordinal()];
+    }
+
+    public RoundingMode getRoundingMode() {
+        return arithmetic.getRoundingMode();
+    }
+
+    /**
+     * convert sequentially, {@code position * rate}
+     * 
+     * @param positions
+     * @param targetCurrency
+     * @param rates
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument or position is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<Money[]> convertByMultiply(Money[] positions, Currency targetCurrency,
+        FxRateProvider rates) {
+        return convert(positions, targetCurrency, rates, false, null);
+    }
+
+    /**
+     * convert sequentially, {@code position / rate}
+     * 
+     * @param positions
+     * @param targetCurrency
+     * @param rates
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument or position is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<Money[]> convertByDivide(Money[] positions, Currency targetCurrency,
+        FxRateProvider rates) {
+        return convert(positions, targetCurrency, rates, true, null);
+    }
+
+    /**
+     * convert in parallel on the common fork/join pool, {@code position * rate}
+     * 
+     * @param positions
+     * @param targetCurrency
+     * @param rates
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument or position is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<Money[]> parallelConvertByMultiply(Money[] positions, Currency targetCurrency,
+        FxRateProvider rates) {
+        return convert(positions, targetCurrency, rates, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * convert in parallel on the common fork/join pool, {@code position / rate}
+     * 
+     * @param positions
+     * @param targetCurrency
+     * @param rates
+     * @return
+     * @throws IllegalArgumentException
+     *             if any argument or position is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<Money[]> parallelConvertByDivide(Money[] positions, Currency targetCurrency,
+        FxRateProvider rates) {
+        return convert(positions, targetCurrency, rates, true, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * convert positions grouped by currency sequentially, {@code position * rate}
+     * 
+     * @param groups
+     *            - one column per source currency
+     * @param targetCurrency
+     * @param rates
+     * @return columns of the target currency, in the same order as groups
+     * @throws IllegalArgumentException
+     *             if any argument or group is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<MoneyColumn[]> convertByMultiply(MoneyColumn[] groups, Currency targetCurrency,
+        FxRateProvider rates) {
+        return convert(groups, targetCurrency, rates, false, null);
+    }
+
+    /**
+     * convert positions grouped by currency sequentially, {@code position / rate}
+     * 
+     * @param groups
+     *            - one column per source currency
+     * @param targetCurrency
+     * @param rates
+     * @return columns of the target currency, in the same order as groups
+     * @throws IllegalArgumentException
+     *             if any argument or group is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<MoneyColumn[]> convertByDivide(MoneyColumn[] groups, Currency targetCurrency,
+        FxRateProvider rates) {
+        return convert(groups, targetCurrency, rates, true, null);
+    }
+
+    /**
+     * convert positions grouped by currency, one group per fork/join task on the common pool,
+     * {@code position * rate}
+     * 
+     * @param groups
+     *            - one column per source currency
+     * @param targetCurrency
+     * @param rates
+     * @return columns of the target currency, in the same order as groups
+     * @throws IllegalArgumentException
+     *             if any argument or group is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<MoneyColumn[]> parallelConvertByMultiply(MoneyColumn[] groups,
+        Currency targetCurrency, FxRateProvider rates) {
+        return convert(groups, targetCurrency, rates, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * convert positions grouped by currency, one group per fork/join task on the common pool,
+     * {@code position / rate}
+     * 
+     * @param groups
+     *            - one column per source currency
+     * @param targetCurrency
+     * @param rates
+     * @return columns of the target currency, in the same order as groups
+     * @throws IllegalArgumentException
+     *             if any argument or group is null, or a rate is not provided or is 0.
+     */
+    public PortfolioConversion<MoneyColumn[]> parallelConvertByDivide(MoneyColumn[] groups,
+        Currency targetCurrency, FxRateProvider rates) {
+        return convert(groups, targetCurrency, rates, true, ForkJoinPool.commonPool());
+    }
+
+    private PortfolioConversion<Money[]> convert(Money[] positions, Currency targetCurrency, FxRateProvider rates,
+        boolean divide, ForkJoinPool pool) {
+        if (positions == null || targetCurrency == null || rates == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        ResolvedRates resolved = new ResolvedRates(snapshot(rates), targetCurrency, divide);
+        for (Money m : positions) {
+            if (m == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            resolved.resolve(m.getCurrency());
+        }
+        Money[] converted = new Money[positions.length];
+        MoneySummaryStatistics total;
+        if (pool == null) {
+            total = convert(positions, converted, 0, positions.length, resolved);
+        } else {
+            total = pool.invoke(new ConvertTask(positions, converted, 0, positions.length, resolved));
+        }
+        return new PortfolioConversion<>(converted, sum(total, targetCurrency));
+    }
+
+    private PortfolioConversion<MoneyColumn[]> convert(final MoneyColumn[] groups, final Currency targetCurrency,
+        FxRateProvider rates, final boolean divide, ForkJoinPool pool) {
+        if (groups == null || targetCurrency == null || rates == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        final ResolvedRates resolved = new ResolvedRates(snapshot(rates), targetCurrency, divide);
+        for (MoneyColumn group : groups) {
+            if (group == null) {
+                throw new IllegalArgumentException("argument can't be null");
+            }
+            resolved.resolve(group.getCurrency());
+        }
+        final MoneyColumn[] converted = new MoneyColumn[groups.length];
+        if (pool == null) {
+            for (int i = 0; i < groups.length; i++) {
+                converted[i] = convert(groups[i], resolved);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, groups.length).parallel()
+                .forEach(i -> converted[i] = convert(groups[i], resolved))).join();
+        }
+        MoneySummaryStatistics total = MoneySummaryStatistics.fromRoundingMode(getRoundingMode());
+        for (MoneyColumn column : converted) {
+            if (column.size() > 0) {
+                total.accept(column.sum());
+            }
+        }
+        return new PortfolioConversion<>(converted, sum(total, targetCurrency));
+    }
+
+    private MoneyColumn convert(MoneyColumn group, ResolvedRates resolved) {
+        MoneyColumn column = group.getRoundingMode() == getRoundingMode() ? group : copy(group);
+        Rate rate = resolved.rate(group.getCurrency());
+        return resolved.divide ? column.fxByDivide(resolved.target, rate) : column.fxByMultiply(resolved.target, rate);
+    }
+
+    /**
+     * a copy of the column rounding by this converter's rounding mode, its amounts are already rounded
+     */
+    private MoneyColumn copy(MoneyColumn group) {
+        MoneyColumn column = new MoneyColumn(group.getCurrency(), getRoundingMode(), group.size());
+        for (int i = 0; i < group.size(); i++) {
+            column.append(group.get(i));
+        }
+        return column;
+    }
+
+    private MoneySummaryStatistics convert(Money[] positions, Money[] converted, int from, int to,
+        ResolvedRates resolved) {
+        MoneySummaryStatistics total = MoneySummaryStatistics.fromRoundingMode(getRoundingMode());
+        Currency target = resolved.target;
+        for (int i = from; i < to; i++) {
+            Money m = arithmetic.round(positions[i]);
+            Currency currency = m.getCurrency();
+            Money result;
+            if (currency.equals(target)) {
+                result = m;
+            } else {
+                Rate rate = resolved.rate(currency);
+                result = null;
+                if (m.isCompact() && rate.isCompact()) {
+                    try {
+                        long value = resolved.divide
+                            ? arithmetic.divideMinorUnitValue(m.minorUnitValue(), currency.getScale(), rate,
+                                target.getScale())
+                            : arithmetic.multiplyMinorUnitValue(m.minorUnitValue(), currency.getScale(), rate,
+                                target.getScale());
+                        result = Money.rounded(target, value);
+                    } catch (ArithmeticException e) {
+                        // overflow, fall through to the BigDecimal path
+                    }
+                }
+                if (result == null) {
+                    result = resolved.divide ? arithmetic.fxByDivide(m, target, rate)
+                        : arithmetic.fxByMultiply(m, target, rate);
+                }
+            }
+            converted[i] = result;
+            total.accept(result);
+        }
+        return total;
+    }
+
+    private static Money sum(MoneySummaryStatistics total, Currency targetCurrency) {
+        Money sum = total.getSum();
+        return sum != null ? sum : Money.rounded(targetCurrency, 0);
+    }
+
+    private static FxRateProvider snapshot(FxRateProvider rates) {
+        return rates instanceof FxRateRegistry ? ((FxRateRegistry)rates).getSnapshot() : rates;
+    }
+
+    /**
+     * rates resolved once per source currency, indexed by currency id
+     */
+    private static final class ResolvedRates {
+        private final FxRateProvider rates;
+        private final Currency target;
+        private final boolean divide;
+        private Rate[] rate = new Rate[0];
+
+        ResolvedRates(FxRateProvider rates, Currency target, boolean divide) {
+            this.rates = rates;
+            this.target = target;
+            this.divide = divide;
+        }
+
+        void resolve(Currency currency) {
+            int id = currency.getId();
+            if (currency.equals(target) || (id >= 0 && id < rate.length && rate[id] != null)) {
+                return;
+            }
+            Rate value = fetch(currency);
+            if (id < 0) {
+                return;
+            }
+            if (id >= rate.length) {
+                rate = Arrays.copyOf(rate, Math.max(id + 1, rate.length * 2));
+            }
+            rate[id] = value;
+        }
+
+        /**
+         * the resolved rate, fetched from the provider for currency not from {@link CurrencyFactory}
+         */
+        Rate rate(Currency currency) {
+            if (currency.equals(target)) {
+                return Rate.ONE;
+            }
+            int id = currency.getId();
+            return id >= 0 ? rate[id] : fetch(currency);
+        }
+
+        private Rate fetch(Currency currency) {
+            Rate value = divide ? rates.getExactRate(target, currency) : rates.getExactRate(currency, target);
+            if (value.signum() == 0) {
+                throw new IllegalArgumentException("fxRate can't be zero");
+            }
+            return value;
+        }
+    }
+
+    private final class ConvertTask extends RecursiveTask<MoneySummaryStatistics> {
+        private static final long serialVersionUID = 1L;
+        private final Money[] positions;
+        private final Money[] converted;
+        private final int from;
+        private final int to;
+        private final ResolvedRates resolved;
+
+        ConvertTask(Money[] positions, Money[] converted, int from, int to, ResolvedRates resolved) {
+            this.positions = positions;
+            this.converted = converted;
+            this.from = from;
+            this.to = to;
+            this.resolved = resolved;
+        }
+
+        @Override
+        protected MoneySummaryStatistics compute() {
+            if (to - from <= MoneyAggregator.PARALLEL_THRESHOLD) {
+                return convert(positions, converted, from, to, resolved);
+            }
+            int middle = (from + to) >>> 1;
+            ConvertTask left = new ConvertTask(positions, converted, from, middle, resolved);
+            left.fork();
+            MoneySummaryStatistics total = new ConvertTask(positions, converted, middle, to, resolved).compute();
+            MoneySummaryStatistics leftTotal = left.join();
+            leftTotal.combine(total);
+            return leftTotal;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.ciferliu;
+
+import java.math.BigDecimal;
+
+/**
+ * The exact decimal rate, an unscaled value and a scale like {@code BigDecimal} - <strong>immutable and
+ * threadsafe</strong>.
+ * <p>
+ * The {@code double} methods of {@link MoneyCalculator} and {@link MoneyArithmetic} convert the rate by
+ * {@code BigDecimal.valueOf(rate)} on every call. A rate built once by {@link #of(double)} is exactly that
+ * {@code BigDecimal}, so passing it instead gives the same result without the conversion, and {@link #of(String)}
+ * keeps rates like {@code "0.0725"} exact without going through {@code double} at all.
+ * <p>
+ * 当非标度值在{@code long}范围内时，金额与汇率的乘除走128位整数运算，只有结果溢出时才回落到{@code BigDecimal}。<br>
+ * 用法：
+ * 
+ * <pre class="code">
+ * Rate taxRate = Rate.of("0.0725");// 解析一次，多次复用
+ * 
+ * Money tax = arithmetic.multiply(m, taxRate);
+ * Money cny = calculator.init(m).fxByMultiply(CurrencyFactory.get("CNY"), Rate.of("7.1034")).getResult();
+ * </pre>
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+public final class Rate {
+    public static final Rate ZERO = new Rate(BigDecimal.ZERO);
+    public static final Rate ONE = new Rate(BigDecimal.ONE);
+
+    private final BigDecimal value;
+    /**
+     * whether the unscaled value is in {@code long} range
+     */
+    private final boolean compact;
+    private final long unscaled;
+
+    private Rate(BigDecimal value) {
+        this.value = value;
+        this.compact = value.unscaledValue().bitLength() < 64;
+        this.unscaled = compact ? value.unscaledValue().longValue() : 0;
+    }
+
+    /**
+     * the rate of a double, exactly {@code BigDecimal.valueOf(rate)}
+     * 
+     * @param rate
+     * @return
+     * @throws IllegalArgumentException
+     *             if rate is NaN or infinite
+     */
+    public static Rate of(double rate) {
+        if (Double.isNaN(rate) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("param is illegal");
+        }
+        return new Rate(BigDecimal.valueOf(rate));
+    }
+
+    /**
+     * the rate of a decimal string, e.g. {@code "7.1034"}, {@code "1E-4"}
+     * 
+     * @param rate
+     * @return
+     * @throws IllegalArgumentException
+     *             if rate is null or not a decimal number
+     */
+    public static Rate of(String rate) {
+        if (rate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        try {
+            return new Rate(new BigDecimal(rate.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("param is illegal", e);
+        }
+    }
+
+    /**
+     * the rate of a BigDecimal, with the same scale
+     * 
+     * @param rate
+     * @return
+     * @throws IllegalArgumentException
+     *             if rate is null
+     */
+    public static Rate of(BigDecimal rate) {
+        if (rate == null) {
+            throw new IllegalArgumentException("argument can't be null");
+        }
+        return new Rate(rate);
+    }
+
+    /**
+     * the rate {@code unscaledValue / 10^scale}
+     * 
+     * @param unscaledValue
+     * @param scale
+     * @return
+     */
+    public static Rate of(long unscaledValue, int scale) {
+        return new Rate(BigDecimal.valueOf(unscaledValue, scale));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return value;
+    }
+
+    public double doubleValue() {
+        return value.doubleValue();
+    }
+
+    public int getScale() {
+        return value.scale();
+    }
+
+    public int signum() {
+        return value.signum();
+    }
+
+    /**
+     * whether the unscaled value is in {@code long} range, so the integer kernels of {@link MinorUnitMath} apply
+     */
+    boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * the unscaled value, only meaningful if {@link #isCompact()}
+     */
+    long unscaledValue() {
+        return unscaled;
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * equal if both the value and the scale are equal, the same as {@code BigDecimal.equals}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Rate)) {
+            return false;
+        }
+        return value.equals(((Rate)obj).value);
+    }
+
+    @Override
+    public String toString() {
+        return value.toPlainString();
+    }
+}
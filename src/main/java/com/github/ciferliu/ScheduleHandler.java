@@ -0,0 +1,27 @@
+package com.github.ciferliu;
+
+/**
+ * The receiver of the periods of an {@link AmortizationSchedule}, one call per period, without an object per period.
+ * All amounts are rounded, in minor unit of the schedule's currency.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface ScheduleHandler {
+    /**
+     * receive a period
+     * 
+     * @param period
+     *            - 1 ~ number of periods
+     * @param payment
+     *            - the payment of the period, {@code principal + interest}; 0 for compound interest
+     * @param principal
+     *            - the principal repaid in the period; 0 for compound interest
+     * @param interest
+     *            - the interest of the period
+     * @param balance
+     *            - the balance after the period
+     */
+    void accept(int period, long payment, long principal, long interest, long balance);
+}
@@ -0,0 +1,83 @@
+package com.github.ciferliu;
+
+/**
+ * Immutable, thread-safe, a period of an {@link AmortizationSchedule}.
+ * 
+ * @author Cifer Liu
+ * @since 2.1.0
+ * @see ScheduleHandler
+ */
+public final class SchedulePeriod {
+    private final Currency currency;
+    private final int period;
+    private final long payment;
+    private final long principal;
+    private final long interest;
+    private final long balance;
+
+    SchedulePeriod(Currency currency, int period, long payment, long principal, long interest, long balance) {
+        this.currency = currency;
+        this.period = period;
+        this.payment = payment;
+        this.principal = principal;
+        this.interest = interest;
+        this.balance = balance;
+    }
+
+    /**
+     * get the period number, starting from 1
+     * 
+     * @return
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * get the payment of the period, {@code principal + interest}; 0 for compound interest
+     * 
+     * @return
+     */
+    public Money getPayment() {
+        return Money.rounded(currency, payment);
+    }
+
+    /**
+     * get the principal repaid in the period; 0 for compound interest
+     * 
+     * @return
+     */
+    public Money getPrincipal() {
+        return Money.rounded(currency, principal);
+    }
+
+    public Money getInterest() {
+        return Money.rounded(currency, interest);
+    }
+
+    /**
+     * get the balance after the period
+     * 
+     * @return
+     */
+    public Money getBalance() {
+        return Money.rounded(currency, balance);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(96);
+        builder.append("SchedulePeriod [period=");
+        builder.append(period);
+        builder.append(", payment=");
+        builder.append(getPayment());
+        builder.append(", principal=");
+        builder.append(getPrincipal());
+        builder.append(", interest=");
+        builder.append(getInterest());
+        builder.append(", balance=");
+        builder.append(getBalance());
+        builder.append("]");
+        return builder.toString();
+    }
+}
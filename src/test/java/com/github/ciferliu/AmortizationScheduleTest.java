@@ -0,0 +1,162 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class AmortizationScheduleTest {
+    private Currency usd = CurrencyFactory.get("USD");
+
+    @Test
+    public void testEqualInstalment() {
+        AmortizationSchedule schedule = AmortizationSchedule.equalInstalment(Money.rounded(usd, 10000000), 0.06 / 12,
+            360, RoundingMode.HALF_UP);
+        assertEquals(Money.rounded(usd, 59955), schedule.getInstalment());
+
+        long[] totals = new long[3];
+        long[] last = new long[5];
+        schedule.forEach((period, payment, principal, interest, balance) -> {
+            assertEquals(payment, principal + interest);
+            if (period < 360) {
+                assertEquals(59955, payment);
+            }
+            totals[0] += principal;
+            totals[1] += interest;
+            totals[2]++;
+            last[0] = period;
+            last[1] = payment;
+            last[4] = balance;
+        });
+        assertEquals(10000000, totals[0]);
+        assertEquals(360, totals[2]);
+        assertEquals(360, last[0]);
+        assertEquals(0, last[4]);
+        assertEquals(Money.rounded(usd, totals[1]), schedule.getTotalInterest());
+
+        // the first period: interest 100000.00 * 0.005 = 500.00
+        SchedulePeriod first = schedule.iterator().next();
+        assertEquals(1, first.getPeriod());
+        assertEquals(Money.rounded(usd, 50000), first.getInterest());
+        assertEquals(Money.rounded(usd, 9955), first.getPrincipal());
+        assertEquals(Money.rounded(usd, 10000000 - 9955), first.getBalance());
+    }
+
+    @Test
+    public void testRate() {
+        Money principal = Money.rounded(usd, 10000000);
+        AmortizationSchedule byDouble =
+            AmortizationSchedule.equalInstalment(principal, 0.005, 360, RoundingMode.HALF_UP);
+        AmortizationSchedule byRate =
+            AmortizationSchedule.equalInstalment(principal, Rate.of("0.005"), 360, RoundingMode.HALF_UP);
+        assertEquals(byDouble.getInstalment(), byRate.getInstalment());
+        assertEquals(byDouble.getTotalInterest(), byRate.getTotalInterest());
+        assertEquals(
+            AmortizationSchedule.compoundInterest(principal, 0.004, 12, RoundingMode.HALF_UP).getTotalInterest(),
+            AmortizationSchedule.compoundInterest(principal, Rate.of("0.004"), 12, RoundingMode.HALF_UP)
+                .getTotalInterest());
+        assertEquals(
+            AmortizationSchedule.equalPrincipal(principal, 0.004, 12, RoundingMode.HALF_UP).getTotalInterest(),
+            AmortizationSchedule.equalPrincipal(principal, Rate.of("0.004"), 12, RoundingMode.HALF_UP)
+                .getTotalInterest());
+    }
+
+    @Test
+    public void testZeroRate() {
+        AmortizationSchedule schedule =
+            AmortizationSchedule.equalInstalment(Money.rounded(usd, 10000), 0, 3, RoundingMode.HALF_UP);
+        List<SchedulePeriod> periods = schedule.stream().collect(Collectors.toList());
+        assertEquals(Money.rounded(usd, 3333), periods.get(0).getPayment());
+        assertEquals(Money.rounded(usd, 3333), periods.get(1).getPayment());
+        // the rounding difference is in the last period
+        assertEquals(Money.rounded(usd, 3334), periods.get(2).getPayment());
+        assertEquals(Money.rounded(usd, 0), periods.get(2).getBalance());
+    }
+
+    @Test
+    public void testEqualPrincipal() {
+        AmortizationSchedule schedule =
+            AmortizationSchedule.equalPrincipal(Money.rounded(usd, 100000), 0.01, 12, RoundingMode.HALF_UP);
+        assertNull(schedule.getInstalment());
+        Iterator<SchedulePeriod> iterator = schedule.iterator();
+        SchedulePeriod first = iterator.next();
+        assertEquals(Money.rounded(usd, 8333), first.getPrincipal());
+        assertEquals(Money.rounded(usd, 1000), first.getInterest());
+        assertEquals(Money.rounded(usd, 9333), first.getPayment());
+        SchedulePeriod period = first;
+        while (iterator.hasNext()) {
+            period = iterator.next();
+        }
+        assertEquals(12, period.getPeriod());
+        // 1000.00 - 11 * 83.33 = 83.37
+        assertEquals(Money.rounded(usd, 8337), period.getPrincipal());
+        assertEquals(Money.rounded(usd, 0), period.getBalance());
+    }
+
+    /**
+     * a regular principal rounded up must not overpay the balance before the last period
+     */
+    @Test
+    public void testSmallPrincipalManyPeriods() {
+        for (RoundingMode roundingMode : new RoundingMode[] {RoundingMode.UP, RoundingMode.CEILING,
+            RoundingMode.HALF_UP}) {
+            for (long principal : new long[] {36250, 359, 1, 1000}) {
+                checkNeverOverpaid(AmortizationSchedule.equalPrincipal(Money.rounded(usd, principal), 0.005, 360,
+                    roundingMode), principal);
+                checkNeverOverpaid(AmortizationSchedule.equalInstalment(Money.rounded(usd, principal), 0.005, 360,
+                    roundingMode), principal);
+            }
+        }
+    }
+
+    private static void checkNeverOverpaid(AmortizationSchedule schedule, long expectedPrincipal) {
+        long[] repaid = new long[1];
+        schedule.forEach((period, payment, principal, interest, balance) -> {
+            String message = schedule + " period " + period;
+            assertTrue(message, principal >= 0 && interest >= 0 && balance >= 0);
+            assertEquals(message, payment, principal + interest);
+            repaid[0] += principal;
+            if (period == 360) {
+                assertEquals(message, 0, balance);
+            }
+        });
+        assertEquals(expectedPrincipal, repaid[0]);
+    }
+
+    @Test
+    public void testCompoundInterest() {
+        AmortizationSchedule schedule =
+            AmortizationSchedule.compoundInterest(Money.rounded(usd, 100000), 0.05, 3, RoundingMode.HALF_UP);
+        List<SchedulePeriod> periods = schedule.stream().collect(Collectors.toList());
+        assertEquals(Money.rounded(usd, 105000), periods.get(0).getBalance());
+        assertEquals(Money.rounded(usd, 110250), periods.get(1).getBalance());
+        // 1000.00 * 1.05^3 = 1157.625
+        assertEquals(Money.rounded(usd, 115763), periods.get(2).getBalance());
+        assertEquals(Money.rounded(usd, 0), periods.get(2).getPayment());
+
+        // per-period rounding drifts, the last period puts the balance back on round(principal * (1 + r)^n)
+        schedule = AmortizationSchedule.compoundInterest(Money.rounded(usd, 333), 0.015, 120, RoundingMode.HALF_EVEN);
+        BigDecimal expected = new BigDecimal("3.33").multiply(new BigDecimal("1.015").pow(120)).setScale(2,
+            RoundingMode.HALF_EVEN);
+        long[] balance = new long[1];
+        schedule.forEach((period, payment, principal, interest, b) -> balance[0] = b);
+        assertEquals(Money.rounded(usd, expected), Money.rounded(usd, balance[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRate() {
+        AmortizationSchedule.equalInstalment(Money.rounded(usd, 100), -1, 12, RoundingMode.HALF_UP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalPeriods() {
+        AmortizationSchedule.equalPrincipal(Money.rounded(usd, 100), 0.01, 0, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CurrencyConfigParserTest {
+
+    @Test
+    public void testParse() {
+        List<String> registered = new ArrayList<>();
+        CurrencyConfigParser.parse("\uFEFF [ {\"code\" : \"inr\", \"symbol\":\"\\u20B9\", \"scale\":2},\n"
+            + "{\"name\":{\"en\":[\"Euro\", null, true, 1.5e3]}, "
+            + "\"code\":\"EUR\",\"symbol\":\"\\\"E\\\"\",\"scale\":2},"
+            + "{\"code\":\"BAD\",\"symbol\":\"B\",\"scale\":-1},"
+            + "{\"code\":\"BAD\",\"symbol\":\"B\",\"scale\":1.5},"
+            + "{\"code\":\"BAD\",\"scale\":2},"
+            + "{\"code\":\"BAD\",\"symbol\":\"B\",\"scale\":\"2\"},"
+            + "{} ]", (code, symbol, scale) -> registered.add(code + "," + symbol + "," + scale));
+        assertEquals(Arrays.asList("INR,₹,2", "EUR,\"E\",2"), registered);
+    }
+
+    @Test
+    public void testEmpty() {
+        CurrencyConfigParser.parse(" [ ] ", (code, symbol, scale) -> {
+            throw new AssertionError();
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotArray() {
+        CurrencyConfigParser.parse("{\"code\":\"INR\"}", (code, symbol, scale) -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminated() {
+        CurrencyConfigParser.parse("[{\"code\":\"INR\"", (code, symbol, scale) -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrailing() {
+        CurrencyConfigParser.parse("[] x", (code, symbol, scale) -> {});
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CurrencyFactoryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restore() {
+        CurrencyFactory.reload();
+    }
+
+    @Test
+    public void testGet() {
+        Currency usd = CurrencyFactory.get("USD");
+        assertEquals("USD", usd.getCode());
+        assertSame(usd, CurrencyFactory.get(" usd "));
+        assertSame(usd, CurrencyFactory.get(new StringBuilder("uSd")));
+        assertSame(usd, CurrencyFactory.get("xx USD xx", 2, 7));
+        assertNull(CurrencyFactory.get("XXX"));
+        assertNull(CurrencyFactory.get("US"));
+    }
+
+    @Test
+    public void testIso4217() {
+        assertEquals(0, CurrencyFactory.get("JPY").getScale());
+        assertEquals(3, CurrencyFactory.get("KWD").getScale());
+        assertEquals("€", CurrencyFactory.get("EUR").getSymbol());
+        assertEquals("CHF", CurrencyFactory.get("CHF").getSymbol());
+        assertEquals(0, CurrencyFactory.get("CNY").getId());
+        assertEquals(1, CurrencyFactory.get("USD").getId());
+        assertTrue(CurrencyFactory.currencies().length > 150);
+        for (Currency currency : CurrencyFactory.currencies()) {
+            assertSame(currency, CurrencyFactory.get(currency.getCode()));
+        }
+    }
+
+    @Test
+    public void testGetByBytes() {
+        byte[] buffer = "CNY,1.00,usd,2.00".getBytes(StandardCharsets.US_ASCII);
+        assertSame(CurrencyFactory.get("CNY"), CurrencyFactory.get(buffer, 0, 3));
+        assertSame(CurrencyFactory.get("USD"), CurrencyFactory.get(buffer, 9, 3));
+        assertNull(CurrencyFactory.get(buffer, 4, 4));
+    }
+
+    @Test
+    public void testGetById() {
+        Currency cny = CurrencyFactory.get("CNY");
+        Currency usd = CurrencyFactory.get("USD");
+        assertNotEquals(cny.getId(), usd.getId());
+        assertSame(cny, CurrencyFactory.get(cny.getId()));
+        assertSame(usd, CurrencyFactory.get(usd.getId()));
+        assertNull(CurrencyFactory.get(-1));
+        assertNull(CurrencyFactory.get(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testEquals() {
+        Currency usd = CurrencyFactory.get("USD");
+        Currency selfDefined = new Currency("USD", "$", 2);
+        assertEquals(-1, selfDefined.getId());
+        assertEquals(usd, selfDefined);
+        assertEquals(selfDefined, usd);
+        assertEquals(usd.hashCode(), selfDefined.hashCode());
+        assertNotEquals(usd, CurrencyFactory.get("CNY"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetBlank() {
+        CurrencyFactory.get("  ");
+    }
+
+    @Test
+    public void testReload() {
+        Currency usd = CurrencyFactory.get("USD");
+        int builtIn = CurrencyFactory.currencies().length;
+        List<CurrencyChange> changes = Collections.synchronizedList(new ArrayList<>());
+        CurrencyListener listener = changes::add;
+        CurrencyFactory.addListener(listener);
+        try {
+            CurrencyChange change = CurrencyFactory.reload(config("[{\"code\":\"btc\",\"symbol\":\"₿\",\"scale\":8},"
+                + "{\"code\":\"USD\",\"symbol\":\"$\",\"scale\":2}]"));
+            Currency btc = CurrencyFactory.get("BTC");
+            assertEquals(Collections.singletonList(btc), change.getAdded());
+            assertEquals(Collections.singletonList(usd), change.getModified());
+            assertTrue(change.getRemoved().isEmpty());
+            assertEquals(Collections.singletonList(change), changes);
+
+            Currency newUsd = CurrencyFactory.get("USD");
+            assertEquals("$", newUsd.getSymbol());
+            assertEquals(usd.getId(), newUsd.getId());
+            assertEquals(usd, newUsd);
+            assertSame(btc, CurrencyFactory.get(btc.getId()));
+            assertEquals(builtIn + 1, CurrencyFactory.currencies().length);
+
+            change = CurrencyFactory.reload(config("[]"));
+            assertEquals(Collections.singletonList(btc), change.getRemoved());
+            assertNull(CurrencyFactory.get("BTC"));
+            assertNull(CurrencyFactory.get(btc.getId()));
+
+            // unchanged currencies keep their instances, and no notification
+            Currency cny = CurrencyFactory.get("CNY");
+            assertTrue(CurrencyFactory.reload(config("[]")).isEmpty());
+            assertSame(cny, CurrencyFactory.get("CNY"));
+            assertEquals(2, changes.size());
+
+            // an id is never reused
+            CurrencyFactory.reload(config("[{\"code\":\"BTC\",\"symbol\":\"₿\",\"scale\":8}]"));
+            assertEquals(btc.getId(), CurrencyFactory.get("BTC").getId());
+        } finally {
+            CurrencyFactory.removeListener(listener);
+        }
+    }
+
+    @Test
+    public void testReloadBrokenConfig() {
+        Currency usd = CurrencyFactory.get("USD");
+        try {
+            CurrencyFactory.reload(config("[{\"code\":"));
+            fail();
+        } catch (RuntimeException e) {
+            // expected
+        }
+        assertSame(usd, CurrencyFactory.get("USD"));
+    }
+
+    @Test
+    public void testReloadScaleChange() {
+        Currency usd = CurrencyFactory.get("USD");
+        Money before = usd.fromMinorUnitValue(100);
+        try {
+            CurrencyFactory.reload(config("[{\"code\":\"USD\",\"symbol\":\"$\",\"scale\":3}]"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("scale of currency USD can't change", e.getMessage());
+        }
+        assertSame(usd, CurrencyFactory.get("USD"));
+
+        // a symbol change is fine, money before and after the reload are of the same scale
+        CurrencyFactory.reload(config("[{\"code\":\"USD\",\"symbol\":\"$\",\"scale\":2}]"));
+        Money after = CurrencyFactory.get("USD").fromMinorUnitValue(1000);
+        MoneyArithmetic arithmetic = MoneyArithmetic.fromRoundingMode(RoundingMode.HALF_UP);
+        assertEquals("USD 11.00", arithmetic.add(before, after).toString());
+        assertEquals("USD 11.00", arithmetic.add(after, before).toString());
+
+        // nor after the currency is removed and added back
+        CurrencyFactory.reload(config("[{\"code\":\"BTC\",\"symbol\":\"₿\",\"scale\":8}]"));
+        CurrencyFactory.reload(config("[]"));
+        try {
+            CurrencyFactory.reload(config("[{\"code\":\"BTC\",\"symbol\":\"₿\",\"scale\":2}]"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNull(CurrencyFactory.get("BTC"));
+        }
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        Path file = folder.getRoot().toPath().resolve(CurrencyFactory.CLASSPATH_CONFIG_FILE_NAME);
+        try (CurrencyConfigWatcher watcher = CurrencyFactory.watch(file)) {
+            assertEquals(file.toAbsolutePath(), watcher.getConfigFile());
+            Files.write(file, "[{\"code\":\"ETH\",\"symbol\":\"Ξ\",\"scale\":18}]".getBytes(StandardCharsets.UTF_8));
+            long deadline = System.currentTimeMillis() + 10000;
+            while (CurrencyFactory.get("ETH") == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertNull(watcher.getLastError());
+            assertEquals(18, CurrencyFactory.get("ETH").getScale());
+        }
+        // ETH is removed by the reload in restore(), so later tests see the classpath currencies only
+    }
+
+    private static ByteArrayInputStream config(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
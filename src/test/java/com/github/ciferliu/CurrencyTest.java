@@ -1,7 +1,12 @@
 package com.github.ciferliu;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 import org.junit.Test;
 
 public class CurrencyTest {
@@ -41,4 +46,40 @@ public class CurrencyTest {
         assertTrue(109 == m.getMinorUnitValue());
         assertTrue(1.09 == m.getBasicUnitValue());
     }
+
+    @Test
+    public void testToString() {
+        assertEquals("CNY 1", CurrencyFactory.get("CNY").fromMinorUnitValue(100).toString());
+        assertEquals("CNY 1.1", CurrencyFactory.get("CNY").fromMinorUnitValue(110).toString());
+        assertEquals("CNY 1.0", CurrencyFactory.get("CNY").fromBasicUnitValue(1.00).toString());
+
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Money m = calculator.init(CurrencyFactory.get("CNY").fromMinorUnitValue(100)).getResult();
+        assertEquals("CNY 1.00", m.toString());
+    }
+
+    @Test
+    public void testFromMinorUnitValueScale() {
+        Currency cny = CurrencyFactory.get("CNY");
+        long[] values = {0, 1, -1, 10, 100, 1000, -110, 123456789, 500000, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : values) {
+            BigDecimal expected = BigDecimal.valueOf(value).divide(BigDecimal.TEN.pow(cny.getScale()));
+            assertEquals("CNY " + expected, cny.fromMinorUnitValue(value).toString());
+            assertEquals(value, cny.fromMinorUnitValue(value).getMinorUnitValue());
+        }
+    }
+
+    @Test
+    public void testCanonicalInstances() {
+        Currency cny = CurrencyFactory.get("CNY");
+        assertSame(cny.fromMinorUnitValue(0), cny.fromMinorUnitValue(0));
+        assertSame(cny.fromMinorUnitValue(10000), cny.fromMinorUnitValue(10000));
+
+        MoneyArithmetic arithmetic = MoneyArithmetic.fromRoundingMode(RoundingMode.HALF_UP);
+        Money zero = arithmetic.subtract(cny.fromMinorUnitValue(500), cny.fromMinorUnitValue(500));
+        assertSame(zero, arithmetic.round(cny.fromMinorUnitValue(0)));
+        assertEquals("CNY 0.00", zero.toString());
+        assertEquals("CNY 0", cny.fromMinorUnitValue(0).toString());
+        assertSame(arithmetic.round(cny.fromMinorUnitValue(5000)), arithmetic.multiply(cny.fromMinorUnitValue(2500), 2));
+    }
 }
@@ -0,0 +1,120 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DeferredMoneyCalculatorTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testRoundOnce() {
+        DeferredMoneyCalculator calculator = DeferredMoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        // 10.004 * 3 = 30.012 -> 30.01, per-step rounding gives 10.00 * 3 = 30.00
+        Money m = Money.unRound(usd, new BigDecimal("10.004"));
+        assertEquals(Money.rounded(usd, 3001), calculator.init(m).multiply(3).getResult());
+        assertEquals(0, new BigDecimal("-0.002").compareTo(calculator.getResidual()));
+        assertEquals(Money.rounded(usd, 3000),
+            MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).init(m).multiply(3).getResult());
+
+        // 1.00 * 0.333 * 3 = 0.999 -> 1.00, per-step rounding gives 0.33 * 3 = 0.99
+        Money price = Money.rounded(usd, 100);
+        assertEquals(price, calculator.init(price).multiply(0.333).multiply(3).getResult());
+        assertEquals(Money.rounded(usd, 99),
+            MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).init(price).multiply(0.333).multiply(3).getResult());
+    }
+
+    @Test
+    public void testChain() {
+        FxRateProvider rates = (from, to) -> 7.0665;
+        DeferredMoneyCalculator calculator = DeferredMoneyCalculator.fromRoundingMode(RoundingMode.HALF_EVEN);
+        Money result = calculator.init(Money.rounded(usd, 12345)).add(Money.unRound(usd, new BigDecimal("0.005")))
+            .subtract(Money.rounded(usd, 45)).divide(3).multiply(0.125).fxByMultiply(cny, rates).fxByDivide(usd, 8)
+            .getResult();
+        BigDecimal exact = new BigDecimal("123.45").add(new BigDecimal("0.005")).subtract(new BigDecimal("0.45"))
+            .divide(new BigDecimal("3"), DeferredMoneyCalculator.DIVISION_CONTEXT).multiply(new BigDecimal("0.125"))
+            .multiply(new BigDecimal("7.0665")).divide(new BigDecimal("8"));
+        assertEquals(Money.rounded(usd, exact.setScale(2, RoundingMode.HALF_EVEN)), result);
+        assertEquals(0, result.basicUnitValue().subtract(exact).compareTo(calculator.getResidual()));
+    }
+
+    @Test
+    public void testRate() {
+        DeferredMoneyCalculator calculator = DeferredMoneyCalculator.fromRoundingMode(RoundingMode.HALF_EVEN);
+        Money m = Money.rounded(usd, 12345);
+        Money byDouble = calculator.init(m).multiply(0.125).divide(3).fxByMultiply(cny, 7.0665).fxByDivide(usd, 8)
+            .getResult();
+        Money byRate = calculator.init(m).multiply(Rate.of("0.125")).divide(Rate.of(3, 0))
+            .fxByMultiply(cny, Rate.of("7.0665")).fxByDivide(usd, Rate.of(8, 0)).getResult();
+        assertEquals(byDouble, byRate);
+
+        // out of long range, exactly by BigDecimal
+        Rate rate = Rate.of("7.0665000000000000000001");
+        BigDecimal exact = new BigDecimal("123.45").multiply(rate.toBigDecimal());
+        assertEquals(Money.rounded(cny, exact.setScale(2, RoundingMode.HALF_EVEN)),
+            calculator.init(m).fxByMultiply(cny, rate).getResult());
+        assertEquals(0, exact.setScale(2, RoundingMode.HALF_EVEN).subtract(exact).compareTo(calculator.getResidual()));
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(21);
+        RoundingMode[] modes = {RoundingMode.HALF_UP, RoundingMode.HALF_EVEN, RoundingMode.DOWN, RoundingMode.CEILING};
+        for (int i = 0; i < 2000; i++) {
+            RoundingMode mode = modes[i % modes.length];
+            DeferredMoneyCalculator calculator = DeferredMoneyCalculator.fromRoundingMode(mode);
+            long start = random.nextInt(2000000) - 1000000;
+            calculator.init(Money.rounded(usd, start));
+            BigDecimal exact = BigDecimal.valueOf(start, 2);
+            for (int step = 0; step < 6; step++) {
+                double rate = (random.nextInt(200000) + 1) / 10000.0;
+                switch (random.nextInt(3)) {
+                    case 0:
+                        calculator.multiply(rate);
+                        exact = exact.multiply(BigDecimal.valueOf(rate));
+                        break;
+                    case 1:
+                        long value = random.nextInt(100000);
+                        calculator.add(Money.rounded(usd, value));
+                        exact = exact.add(BigDecimal.valueOf(value, 2));
+                        break;
+                    default:
+                        calculator.divide(rate);
+                        try {
+                            exact = exact.divide(BigDecimal.valueOf(rate));
+                        } catch (ArithmeticException e) {
+                            exact = exact.divide(BigDecimal.valueOf(rate), DeferredMoneyCalculator.DIVISION_CONTEXT);
+                        }
+                }
+            }
+            assertEquals(0, exact.compareTo(calculator.getExact().basicUnitValue()));
+            assertEquals(Money.rounded(usd, exact.setScale(2, mode)), calculator.getResult());
+        }
+    }
+
+    @Test
+    public void testOverflow() {
+        DeferredMoneyCalculator calculator = DeferredMoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Money result = calculator.init(Money.rounded(usd, Long.MAX_VALUE)).add(Money.rounded(usd, Long.MAX_VALUE))
+            .multiply(1.5).divide(3).getResult();
+        assertEquals(0, BigDecimal.valueOf(Long.MAX_VALUE, 2).compareTo(result.basicUnitValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCurrencyNotSame() {
+        DeferredMoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).init(Money.rounded(usd, 1))
+            .add(Money.rounded(cny, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotInit() {
+        DeferredMoneyCalculator calculator = DeferredMoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        calculator.init(Money.rounded(usd, 1)).getResult();
+        calculator.getResult();
+    }
+}
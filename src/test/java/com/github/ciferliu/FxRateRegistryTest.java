@@ -0,0 +1,73 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+public class FxRateRegistryTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testCrossRate() {
+        FxRateSnapshot snapshot = FxRateSnapshot.builder(usd, 1).rate(cny, 6.4567).build();
+        assertEquals(6.4567, snapshot.getRate(usd, cny), 0);
+        assertEquals(1 / 6.4567, snapshot.getRate(cny, usd), 1e-15);
+        assertEquals(1, snapshot.getRate(cny, cny), 0);
+    }
+
+    @Test
+    public void testExactRate() {
+        Currency eur = CurrencyFactory.get("EUR");
+        FxRateRegistry registry = new FxRateRegistry(
+            FxRateSnapshot.builder(usd, 1).rate(cny, Rate.of("7.1")).rate(eur, Rate.of("0.9")).build());
+        Rate cross = Rate.of(new BigDecimal("0.9").divide(new BigDecimal("7.1"), MathContext.DECIMAL64));
+        assertEquals(cross, registry.getExactRate(cny, eur));
+        assertSame(registry.getSnapshot().getExactRate(cny, eur), registry.getExactRate(cny, eur));
+        assertEquals(cross.doubleValue(), registry.getRate(cny, eur), 0);
+        assertSame(Rate.ONE, registry.getExactRate(eur, eur));
+
+        // converted with the exact cross rate, not with its double
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Money m = cny.fromMinorUnitValue(123456789);
+        assertEquals(calculator.init(m).fxByMultiply(eur, cross).getResult(),
+            calculator.init(m).fxByMultiply(eur, registry).getResult());
+
+        // the default wraps the double rate
+        FxRateProvider provider = (from, to) -> 0.1548;
+        assertEquals(Rate.of(0.1548), provider.getExactRate(cny, usd));
+        assertSame(Rate.ONE, provider.getExactRate(usd, usd));
+    }
+
+    @Test
+    public void testPublish() {
+        FxRateRegistry registry = new FxRateRegistry(FxRateSnapshot.builder(usd, 1).rate(cny, 6.4567).build());
+        FxRateSnapshot newer = FxRateSnapshot.builder(usd, 2).rate(cny, 7.1).build();
+        assertTrue(registry.publish(newer));
+        assertFalse(registry.publish(FxRateSnapshot.builder(usd, 1).rate(cny, 1).build()));
+        assertSame(newer, registry.getSnapshot());
+        assertEquals(7.1, registry.getRate(usd, cny), 0);
+    }
+
+    @Test
+    public void testCalculator() {
+        FxRateRegistry registry = new FxRateRegistry(FxRateSnapshot.builder(usd, 1).rate(cny, 6.4567).build());
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Money m = usd.fromBasicUnitValue(1.01);
+        assertEquals(calculator.init(m).fxByMultiply(cny, 6.4567).getResult(),
+            calculator.init(m).fxByMultiply(cny, registry).getResult());
+        assertEquals(652L, calculator.init(m).fxByMultiply(cny, registry).getResult().getMinorUnitValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRateNotFound() {
+        FxRateSnapshot.builder(usd, 1).build().getRate(usd, cny);
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LedgerReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testParseAmount() {
+        Random random = new Random(11);
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (int i = 0; i < 2000; i++) {
+                String text = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(25) - 2)
+                    .toPlainString();
+                Long expected;
+                try {
+                    expected = new BigDecimal(text).setScale(2, roundingMode).unscaledValue().longValueExact();
+                } catch (ArithmeticException e) {
+                    expected = null;
+                }
+                try {
+                    assertEquals(text, expected, Long.valueOf(AmountText
+                        .parse(text.getBytes(StandardCharsets.US_ASCII), 0, text.length(), 2, roundingMode)));
+                } catch (ArithmeticException e) {
+                    assertNull(text, expected);
+                }
+            }
+        }
+        assertEquals(-150L, AmountText.parse(" -1.5 ".getBytes(StandardCharsets.US_ASCII), 0, 6, 2,
+            RoundingMode.HALF_UP));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseIllegalAmount() {
+        AmountText.parse("1.2.3".getBytes(StandardCharsets.US_ASCII), 0, 5, 2, RoundingMode.HALF_UP);
+    }
+
+    @Test
+    public void testReadDelimited() throws IOException {
+        Path path = write("currency,amount\nUSD,1.005\r\n\ncny, -2.5,ignored\nusd,100\n");
+        List<Money> rows = new ArrayList<>();
+        long count = LedgerReader.delimited(',', RoundingMode.HALF_UP).skipLines(1).read(path,
+            (currency, minorUnitValue) -> rows.add(currency.fromMinorUnitValue(minorUnitValue)));
+        assertEquals(3, count);
+        assertEquals(usd.fromMinorUnitValue(101), rows.get(0));
+        assertEquals(cny.fromMinorUnitValue(-250), rows.get(1));
+        assertEquals(usd.fromMinorUnitValue(10000), rows.get(2));
+    }
+
+    @Test
+    public void testReadFixedWidth() throws IOException {
+        Path path = write("USD     12.34\nCNY      0.01");
+        Map<Currency, MoneySummaryStatistics> statistics =
+            LedgerReader.fixedWidth(3, RoundingMode.HALF_UP).summarize(path);
+        assertEquals(1234L, statistics.get(usd).getSum().getMinorUnitValue());
+        assertEquals(1L, statistics.get(cny).getSum().getMinorUnitValue());
+    }
+
+    @Test
+    public void testReadAcrossWindows() throws IOException {
+        StringBuilder text = new StringBuilder();
+        long expected = 0;
+        Random random = new Random(12);
+        for (int i = 0; i < 1000; i++) {
+            long value = random.nextInt(2000001) - 1000000;
+            expected += value;
+            text.append(i % 2 == 0 ? "USD" : "usd").append(',').append(BigDecimal.valueOf(value, 2)).append('\n');
+        }
+        Path path = write(text.toString());
+        LedgerReader reader = new LedgerReader((byte)',', -1, RoundingMode.HALF_UP, 0, 37);
+        MoneySummaryStatistics statistics = reader.summarize(path).get(usd);
+        assertEquals(1000, statistics.getCount());
+        assertEquals(expected, statistics.getSum().getMinorUnitValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadUnknownCurrency() throws IOException {
+        LedgerReader.delimited(',', RoundingMode.HALF_UP).read(write("XXX,1\n"), (currency, minorUnitValue) -> {});
+    }
+
+    private Path write(String text) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+}
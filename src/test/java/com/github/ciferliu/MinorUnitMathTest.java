@@ -0,0 +1,178 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+
+public class MinorUnitMathTest {
+
+    @Test
+    public void testDivideAndRound() {
+        Random random = new Random(7);
+        long[] specials = {0, 1, -1, 2, -2, 5, -5, 10, -10, 15, -15, 25, -25, Long.MAX_VALUE, Long.MIN_VALUE,
+            Long.MAX_VALUE - 1, Long.MIN_VALUE + 1};
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            for (long dividend : specials) {
+                for (long divisor : specials) {
+                    if (divisor != 0) {
+                        check(dividend, divisor, roundingMode);
+                    }
+                }
+            }
+            for (int i = 0; i < 20000; i++) {
+                long dividend = random.nextInt(4) == 0 ? random.nextLong() : random.nextInt(100000) - 50000;
+                long divisor = random.nextInt(4) == 0 ? random.nextLong() : random.nextInt(200) - 100;
+                if (divisor != 0) {
+                    check(dividend, divisor, roundingMode);
+                }
+            }
+        }
+    }
+
+    private static void check(long dividend, long divisor, RoundingMode roundingMode) {
+        BigDecimal expected;
+        try {
+            expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, roundingMode);
+        } catch (ArithmeticException e) {
+            try {
+                MinorUnitMath.divideAndRound(dividend, divisor, roundingMode);
+                fail(dividend + " / " + divisor + " " + roundingMode + " should throw");
+            } catch (ArithmeticException expectedException) {
+                return;
+            }
+            return;
+        }
+        long actual;
+        try {
+            actual = MinorUnitMath.divideAndRound(dividend, divisor, roundingMode);
+        } catch (ArithmeticException e) {
+            // out of long range is the only allowed failure
+            assertEquals(dividend + " / " + divisor, 1, expected.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)));
+            return;
+        }
+        assertEquals(dividend + " / " + divisor + " " + roundingMode, expected.longValueExact(), actual);
+    }
+
+    @Test
+    public void testMultiplyAndDivide() {
+        Random random = new Random(11);
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (int i = 0; i < 20000; i++) {
+                long minorUnitValue = random.nextInt(20000000) - 10000000;
+                int scale = random.nextInt(4);
+                int targetScale = random.nextInt(4);
+                BigDecimal rate = BigDecimal.valueOf((random.nextInt(2000000) + 1) / 10000.0);
+                BigDecimal value = BigDecimal.valueOf(minorUnitValue, scale);
+
+                long expected = value.multiply(rate).divide(BigDecimal.ONE, targetScale, roundingMode).unscaledValue()
+                    .longValueExact();
+                assertEquals(expected, MinorUnitMath.multiply(minorUnitValue, scale, rate.unscaledValue().longValue(),
+                    rate.scale(), targetScale, roundingMode));
+
+                expected = value.divide(rate, targetScale, roundingMode).unscaledValue().longValueExact();
+                assertEquals(expected, MinorUnitMath.divide(minorUnitValue, scale, rate.unscaledValue().longValue(),
+                    rate.scale(), targetScale, roundingMode));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsignedMultiplyHigh() {
+        Random random = new Random(13);
+        long[] specials = {0, 1, -1, 2, Long.MAX_VALUE, Long.MIN_VALUE, 0xFFFFFFFFL, 0x100000000L};
+        for (long x : specials) {
+            for (long y : specials) {
+                checkMultiplyHigh(x, y);
+            }
+        }
+        for (int i = 0; i < 20000; i++) {
+            checkMultiplyHigh(random.nextLong(), random.nextLong());
+        }
+    }
+
+    private static void checkMultiplyHigh(long x, long y) {
+        BigInteger product = unsigned(x).multiply(unsigned(y));
+        assertEquals(x + " * " + y, product.shiftRight(64).longValue(), MinorUnitMath.unsignedMultiplyHigh(x, y));
+    }
+
+    private static BigInteger unsigned(long x) {
+        BigInteger value = BigInteger.valueOf(x & Long.MAX_VALUE);
+        return x < 0 ? value.setBit(63) : value;
+    }
+
+    /**
+     * products and scaled dividends out of {@code long} range, through the 128-bit kernels
+     */
+    @Test
+    public void testWideMultiplyAndDivide() {
+        Random random = new Random(17);
+        long[] specials = {1, -1, 3, -7, 999999999999999999L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE / 3,
+            Long.MIN_VALUE / 7};
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            for (long minorUnitValue : specials) {
+                for (long rateUnscaled : specials) {
+                    checkWide(minorUnitValue, 2, rateUnscaled, 18, 2, roundingMode);
+                    checkWide(minorUnitValue, 0, rateUnscaled, 9, 3, roundingMode);
+                }
+            }
+            for (int i = 0; i < 20000; i++) {
+                long minorUnitValue = random.nextLong() >> random.nextInt(64);
+                long rateUnscaled = random.nextLong() >> random.nextInt(64);
+                // every power of ten of the scale difference is in long range
+                checkWide(minorUnitValue, random.nextInt(4), rateUnscaled, 3 + random.nextInt(13), random.nextInt(4),
+                    roundingMode);
+            }
+        }
+    }
+
+    private static void checkWide(long minorUnitValue, int scale, long rateUnscaled, int rateScale, int targetScale,
+        RoundingMode roundingMode) {
+        BigDecimal value = BigDecimal.valueOf(minorUnitValue, scale);
+        BigDecimal rate = BigDecimal.valueOf(rateUnscaled, rateScale);
+        String message = value + " " + rate + " " + targetScale + " " + roundingMode;
+
+        BigDecimal expected = null;
+        try {
+            expected = value.multiply(rate).setScale(targetScale, roundingMode);
+        } catch (ArithmeticException e) {
+            // rounding necessary
+        }
+        check(message + " *", expected, () -> MinorUnitMath.multiply(minorUnitValue, scale, rateUnscaled,
+            rateScale, targetScale, roundingMode));
+
+        if (rateUnscaled == 0) {
+            return;
+        }
+        expected = null;
+        try {
+            expected = value.divide(rate, targetScale, roundingMode);
+        } catch (ArithmeticException e) {
+            // rounding necessary
+        }
+        check(message + " /", expected, () -> MinorUnitMath.divide(minorUnitValue, scale, rateUnscaled, rateScale,
+            targetScale, roundingMode));
+    }
+
+    private static void check(String message, BigDecimal expected, LongSupplier actual) {
+        if (expected == null || expected.unscaledValue().bitLength() > 63) {
+            // rounding necessary, or out of long range
+            try {
+                actual.getAsLong();
+                fail(message + " should throw");
+            } catch (ArithmeticException e) {
+                return;
+            }
+        }
+        assertEquals(message, expected.unscaledValue().longValue(), actual.getAsLong());
+    }
+}
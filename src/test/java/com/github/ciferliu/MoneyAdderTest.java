@@ -0,0 +1,92 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MoneyAdderTest {
+    private Currency usd = CurrencyFactory.get("USD");
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final MoneyAdder adder = new MoneyAdder(usd, RoundingMode.HALF_UP);
+        int threads = 8;
+        final int perThread = 100000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Future<?>[] futures = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            futures[t] = executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    adder.add(usd.fromBasicUnitValue(0.015));
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        // 0.015 is rounded to 0.02 for each add, the same as calculator.add
+        assertEquals(Money.rounded(usd, 2L * threads * perThread), adder.sum());
+    }
+
+    @Test
+    public void testUncontended() {
+        MoneyAdder adder = new MoneyAdder(usd, RoundingMode.HALF_UP);
+        for (int i = 0; i < 100000; i++) {
+            adder.addMinorUnitValue(3);
+        }
+        // no cell without contention, only the base
+        assertEquals(0, adder.cellCount());
+        assertEquals(Money.rounded(usd, 300000), adder.sum());
+    }
+
+    @Test
+    public void testOverflowInCells() throws Exception {
+        MoneyAdder adder = new MoneyAdder(usd, RoundingMode.HALF_UP);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Future<?>[] futures = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            futures[t] = executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    adder.addMinorUnitValue(Long.MAX_VALUE / 100);
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE / 100, 2).multiply(BigDecimal.valueOf(threads * 1000));
+        assertEquals(0, expected.compareTo(adder.sum().basicUnitValue()));
+    }
+
+    @Test
+    public void testOverflow() {
+        MoneyAdder adder = new MoneyAdder(usd, RoundingMode.HALF_UP);
+        adder.addMinorUnitValue(Long.MAX_VALUE);
+        adder.addMinorUnitValue(Long.MAX_VALUE);
+        adder.add(Money.rounded(usd, new BigDecimal("1E+30")));
+        adder.addMinorUnitValue(-1);
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(2))
+            .add(new BigDecimal("1E+30")).subtract(BigDecimal.valueOf(1, 2));
+        assertEquals(0, expected.compareTo(adder.sum().basicUnitValue()));
+        assertEquals(2, adder.sum().basicUnitValue().scale());
+
+        adder.reset();
+        assertEquals(Money.rounded(usd, 0), adder.sum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCurrencyNotSame() {
+        new MoneyAdder(usd, RoundingMode.HALF_UP).add(CurrencyFactory.get("CNY").fromMinorUnitValue(1));
+    }
+}
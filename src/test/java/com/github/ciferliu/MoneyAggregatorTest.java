@@ -0,0 +1,78 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MoneyAggregatorTest {
+    private MoneyAggregator aggregator = MoneyAggregator.fromRoundingMode(RoundingMode.HALF_UP);
+
+    private static Money[] randomMonies(int n) {
+        Random random = new Random(42);
+        Money[] monies = new Money[n];
+        for (int i = 0; i < n; i++) {
+            monies[i] = CurrencyFactory.get("USD").fromBasicUnitValue((random.nextInt(2000000) - 1000000) / 1000.0);
+        }
+        return monies;
+    }
+
+    @Test
+    public void testSameAsCalculator() {
+        Money[] monies = randomMonies(50000);
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        calculator.init(monies[0]);
+        for (int i = 1; i < monies.length; i++) {
+            calculator.add(monies[i]);
+        }
+        Money expected = calculator.getResult();
+
+        assertEquals(expected, aggregator.summarize(monies).getSum());
+        assertEquals(expected, aggregator.summarize(Arrays.asList(monies)).getSum());
+        assertEquals(expected, aggregator.summarize(Arrays.stream(monies)).getSum());
+        assertEquals(expected, aggregator.parallelSummarize(monies).getSum());
+        assertEquals(expected, aggregator.parallelSummarize(Arrays.asList(monies)).getSum());
+        assertEquals(expected, aggregator.parallelSummarize(Arrays.stream(monies)).getSum());
+
+        MoneySummaryStatistics statistics = aggregator.parallelSummarize(monies);
+        assertEquals(monies.length, statistics.getCount());
+        assertEquals(monies.length,
+            statistics.getNegativeCount() + statistics.getZeroCount() + statistics.getPositiveCount());
+        assertEquals(calculator.init(expected).divide(monies.length).getResult(), statistics.getAverage());
+    }
+
+    @Test
+    public void testMinMax() {
+        Money[] monies = {CurrencyFactory.get("CNY").fromBasicUnitValue(1.005),
+            CurrencyFactory.get("CNY").fromBasicUnitValue(-2.5), CurrencyFactory.get("CNY").fromMinorUnitValue(0)};
+        MoneySummaryStatistics statistics = aggregator.summarize(monies);
+        assertEquals("CNY -2.50", statistics.getMin().toString());
+        assertEquals("CNY 1.01", statistics.getMax().toString());
+        assertEquals(1, statistics.getNegativeCount());
+        assertEquals(1, statistics.getZeroCount());
+        assertEquals(1, statistics.getPositiveCount());
+    }
+
+    @Test
+    public void testOverflow() {
+        Money max = CurrencyFactory.get("CNY").fromMinorUnitValue(Long.MAX_VALUE);
+        Money[] monies = {max, max, CurrencyFactory.get("CNY").fromMinorUnitValue(-1)};
+        assertEquals("CNY 184467440737095516.13", aggregator.summarize(monies).getSum().toString());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertNull(aggregator.summarize(new Money[0]).getSum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCurrencyNotSame() {
+        Money[] monies = randomMonies(20000);
+        monies[12345] = CurrencyFactory.get("CNY").fromMinorUnitValue(1);
+        aggregator.parallelSummarize(monies);
+    }
+}
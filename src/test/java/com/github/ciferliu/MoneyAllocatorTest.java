@@ -0,0 +1,137 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MoneyAllocatorTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private MoneyAllocator allocator = MoneyAllocator.fromRoundingMode(RoundingMode.HALF_UP);
+
+    @Test
+    public void testAllocate() {
+        Money[] shares = allocator.allocate(usd.fromBasicUnitValue(100), 3);
+        assertEquals("USD 33.34", shares[0].toString());
+        assertEquals("USD 33.33", shares[1].toString());
+        assertEquals("USD 33.33", shares[2].toString());
+
+        assertArrayEquals(new long[] {-3334, -3333, -3333},
+            allocator.allocateMinorUnitValues(-10000, new long[] {1, 1, 1}));
+        assertArrayEquals(new long[] {0, 1, 0}, allocator.allocateMinorUnitValues(1, new long[] {1, 2, 1}));
+        assertArrayEquals(new long[] {0, 5}, allocator.allocateMinorUnitValues(5, new long[] {0, 7}));
+    }
+
+    @Test
+    public void testAllocateRatios() {
+        Money[] shares = allocator.allocate(usd.fromBasicUnitValue(10.005), new double[] {0.029, 0.06, 0.911});
+        // 10.01 * 0.029 = 0.29029, 10.01 * 0.06 = 0.6006, 10.01 * 0.911 = 9.11911
+        assertEquals(29L, shares[0].getMinorUnitValue());
+        assertEquals(60L, shares[1].getMinorUnitValue());
+        assertEquals(912L, shares[2].getMinorUnitValue());
+    }
+
+    @Test
+    public void testLargestRemainder() {
+        Random random = new Random(16);
+        for (int round = 0; round < 50; round++) {
+            int n = random.nextInt(200) + 1;
+            long[] weights = new long[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = random.nextInt(round % 2 == 0 ? 10 : Integer.MAX_VALUE);
+            }
+            weights[0]++;
+            long total = random.nextLong() >> random.nextInt(64);
+            long[] shares = allocator.allocateMinorUnitValues(total, weights);
+            long sum = 0;
+            long weightSum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += shares[i];
+                weightSum += weights[i];
+            }
+            assertEquals(total, sum);
+            for (int i = 0; i < n; i++) {
+                // each share is the exact quota rounded down or up
+                double quota = (double)total * weights[i] / weightSum;
+                assertTrue(Math.abs(shares[i] - quota) <= 1 + Math.abs(quota) * 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsSorting() {
+        Random random = new Random(15);
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(500) + 1;
+            long[] weights = new long[n];
+            for (int i = 0; i < n; i++) {
+                // few distinct weights give many equal remainders, large ones overflow the product
+                weights[i] = round % 3 == 0 ? random.nextInt(4) : round % 3 == 1 ? random.nextInt(1000)
+                    : random.nextLong() >>> (random.nextInt(20) + 10);
+            }
+            weights[0]++;
+            long total = random.nextLong() >> random.nextInt(64);
+            assertArrayEquals(sorting(total, weights), allocator.allocateMinorUnitValues(total, weights));
+        }
+    }
+
+    /**
+     * the largest remainders by sorting all the remainders, the smaller index first if equal
+     */
+    private static long[] sorting(long total, long[] weights) {
+        BigInteger sum = BigInteger.ZERO;
+        for (long weight : weights) {
+            sum = sum.add(BigInteger.valueOf(weight));
+        }
+        BigInteger magnitude = BigInteger.valueOf(total).abs();
+        long[] shares = new long[weights.length];
+        BigInteger[] remainders = new BigInteger[weights.length];
+        Integer[] order = new Integer[weights.length];
+        long left = magnitude.longValue();
+        for (int i = 0; i < weights.length; i++) {
+            BigInteger[] qr = magnitude.multiply(BigInteger.valueOf(weights[i])).divideAndRemainder(sum);
+            shares[i] = qr[0].longValue();
+            remainders[i] = qr[1];
+            order[i] = i;
+            left -= shares[i];
+        }
+        Arrays.sort(order, (a, b) -> remainders[b].compareTo(remainders[a]));
+        for (int i = 0; i < left; i++) {
+            shares[order[i]]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            shares[i] = total < 0 ? -shares[i] : shares[i];
+        }
+        return shares;
+    }
+
+    @Test
+    public void testLargeAllocation() {
+        long[] weights = new long[100000];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1000 + i % 7;
+        }
+        long[] shares = allocator.allocateMinorUnitValues(123456789012L, weights);
+        long sum = 0;
+        for (long share : shares) {
+            sum += share;
+        }
+        assertEquals(123456789012L, sum);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        allocator.allocateMinorUnitValues(100, new long[] {1, -1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroWeights() {
+        allocator.allocateMinorUnitValues(100, new long[] {0, 0});
+    }
+}
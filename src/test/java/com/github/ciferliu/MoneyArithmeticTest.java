@@ -0,0 +1,73 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class MoneyArithmeticTest {
+    private MoneyArithmetic arithmetic = MoneyArithmetic.fromRoundingMode(RoundingMode.HALF_UP);
+
+    @Test
+    public void testSharedInstance() {
+        assertSame(arithmetic, MoneyArithmetic.fromRoundingMode(RoundingMode.HALF_UP));
+    }
+
+    @Test
+    public void testNoMutation() {
+        Money m = CurrencyFactory.get("CNY").fromBasicUnitValue(1.455);
+        assertEquals(146L, arithmetic.round(m).getMinorUnitValue());
+        assertEquals(145L, MoneyArithmetic.fromRoundingMode(RoundingMode.DOWN).round(m).getMinorUnitValue());
+        assertEquals("CNY 1.455", m.toString());
+
+        MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).init(m).add(m).getResult();
+        assertEquals("CNY 1.455", m.toString());
+    }
+
+    @Test
+    public void testSameAsCalculator() {
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Money m1 = CurrencyFactory.get("USD").fromBasicUnitValue(1.015);
+        Money m2 = CurrencyFactory.get("USD").fromBasicUnitValue(2.004);
+        Money expected = calculator.init(m1).add(m2).multiply(1.5).fxByMultiply(CurrencyFactory.get("CNY"), 6.4567)
+            .divide(3).getResult();
+        Money actual = arithmetic.multiply(arithmetic.add(m1, m2), 1.5);
+        actual = arithmetic.divide(arithmetic.fxByMultiply(actual, CurrencyFactory.get("CNY"), 6.4567), 3);
+        assertEquals(expected, actual);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        final Money m = CurrencyFactory.get("CNY").fromBasicUnitValue(0.015);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Money>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<Money>() {
+                    @Override
+                    public Money call() {
+                        Money sum = arithmetic.round(m);
+                        for (int j = 1; j < 10000; j++) {
+                            sum = arithmetic.add(sum, m);
+                        }
+                        return sum;
+                    }
+                }));
+            }
+            for (Future<Money> future : futures) {
+                assertEquals(20000L, future.get().getMinorUnitValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
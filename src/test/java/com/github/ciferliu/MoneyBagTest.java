@@ -0,0 +1,85 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+public class MoneyBagTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testAddSubtract() {
+        MoneyBag bag = new MoneyBag(RoundingMode.HALF_UP);
+        assertTrue(bag.isEmpty());
+        assertEquals(Money.rounded(usd, 0), bag.get(usd));
+
+        bag.add(usd.fromBasicUnitValue(10.125)).add(cny.fromBasicUnitValue(20)).subtract(usd.fromBasicUnitValue(1));
+        assertEquals(2, bag.size());
+        assertTrue(bag.contains(usd));
+        assertEquals(Money.rounded(usd, 913), bag.get(usd));
+        assertEquals(Money.rounded(cny, 2000), bag.get(cny));
+        assertArrayEquals(new Currency[] {usd, cny}, bag.currencies());
+        assertEquals("MoneyBag [USD 9.13, CNY 20.00]", bag.toString());
+
+        MoneyBag other = MoneyBag.of(RoundingMode.HALF_UP, cny.fromBasicUnitValue(5));
+        assertFalse(other.contains(usd));
+        bag.add(other).add(bag);
+        assertEquals(Money.rounded(usd, 1826), bag.get(usd));
+        assertEquals(Money.rounded(cny, 5000), bag.get(cny));
+        bag.subtract(bag);
+        assertEquals(Money.rounded(cny, 0), bag.get(cny));
+        assertEquals(2, bag.size());
+    }
+
+    @Test
+    public void testOverflow() {
+        MoneyBag bag = new MoneyBag(RoundingMode.HALF_UP);
+        bag.add(Money.rounded(usd, Long.MAX_VALUE)).add(Money.rounded(usd, 1));
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE, 2).add(BigDecimal.valueOf(1, 2));
+        assertEquals(0, expected.compareTo(bag.get(usd).basicUnitValue()));
+        bag.subtract(Money.rounded(usd, 2));
+        assertEquals(Money.rounded(usd, Long.MAX_VALUE - 1), bag.get(usd));
+        assertTrue(bag.get(usd).isCompact());
+    }
+
+    @Test
+    public void testConvert() {
+        FxRateProvider rates = (from, to) -> from.equals(cny) ? 0.1415 : 7.0665;
+        MoneyBag bag = MoneyBag.of(RoundingMode.HALF_EVEN, usd.fromBasicUnitValue(3.5), cny.fromBasicUnitValue(100.33),
+            cny.fromBasicUnitValue(0.05));
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_EVEN);
+        Money expected = calculator.init(bag.get(cny)).fxByMultiply(usd, rates).add(bag.get(usd)).getResult();
+        assertEquals(expected, bag.convertByMultiply(usd, rates));
+
+        expected = calculator.init(bag.get(usd)).fxByDivide(cny, 0.1415).add(bag.get(cny)).getResult();
+        assertEquals(expected, bag.convertByDivide(cny, rates));
+
+        assertEquals(Money.rounded(cny, 0), new MoneyBag(RoundingMode.HALF_UP).convertByMultiply(cny, rates));
+    }
+
+    @Test
+    public void testConvertOverflow() {
+        FxRateProvider rates = (from, to) -> 10;
+        MoneyBag bag = MoneyBag.of(RoundingMode.HALF_UP, Money.rounded(usd, Long.MAX_VALUE),
+            Money.rounded(cny, Long.MAX_VALUE));
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(11));
+        assertEquals(0, expected.compareTo(bag.convertByMultiply(cny, rates).basicUnitValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroRate() {
+        MoneyBag.of(RoundingMode.HALF_UP, usd.fromBasicUnitValue(1)).convertByMultiply(cny, (from, to) -> 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnregisteredCurrency() {
+        new MoneyBag(RoundingMode.HALF_UP).add(new Currency("XYZ", "X", 2).fromBasicUnitValue(1));
+    }
+}
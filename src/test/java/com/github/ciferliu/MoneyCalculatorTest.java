@@ -23,6 +23,15 @@ public class MoneyCalculatorTest {
         assertEquals(210L, calculator.init(m1).add(m2).getResult().getMinorUnitValue());
     }
 
+    @Test
+    public void testAddOverflow() {
+        Money m1 = CurrencyFactory.get("CNY").fromMinorUnitValue(Long.MAX_VALUE);
+        Money m2 = CurrencyFactory.get("CNY").fromMinorUnitValue(1);
+        Money result = calculator.init(m1).add(m2).getResult();
+        assertEquals("CNY 92233720368547758.08", result.toString());
+        assertEquals(Long.MAX_VALUE, calculator.init(result).subtract(m2).getResult().getMinorUnitValue());
+    }
+
     @Test
     public void testSubtract() {
         Money m1 = CurrencyFactory.get("CNY").fromBasicUnitValue(1.01);
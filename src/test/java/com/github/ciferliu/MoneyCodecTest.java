@@ -0,0 +1,102 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MoneyCodecTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(15);
+        Money[] monies = new Money[1000];
+        for (int i = 0; i < monies.length; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            Currency currency = i % 2 == 0 ? usd : cny;
+            switch (i % 4) {
+                case 0:
+                    monies[i] = Money.rounded(currency, value);
+                    break;
+                case 1:
+                    monies[i] = currency.fromMinorUnitValue(value);
+                    break;
+                case 2:
+                    monies[i] =
+                        Money.rounded(currency, BigDecimal.valueOf(value, 2).multiply(BigDecimal.valueOf(1000)));
+                    break;
+                default:
+                    monies[i] = currency.fromBasicUnitValue(value / 1e6);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (Money m : monies) {
+            buffer.clear();
+            MoneyCodec.encode(m, buffer);
+            assertEquals(MoneyCodec.encodedSize(m), buffer.position());
+            buffer.flip();
+            Money decoded = MoneyCodec.decode(buffer);
+            assertEquals(m, decoded);
+            assertEquals(m.isRounded(), decoded.isRounded());
+            assertEquals(m.toString(), decoded.toString());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MoneyCodec.encode(monies, new DataOutputStream(bytes));
+        assertArrayEquals(monies,
+            MoneyCodec.decodeArray(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        ByteBuffer arrayBuffer = ByteBuffer.allocate(bytes.size());
+        MoneyCodec.encode(monies, arrayBuffer);
+        arrayBuffer.flip();
+        assertArrayEquals(monies, MoneyCodec.decodeArray(arrayBuffer));
+    }
+
+    @Test
+    public void testCompactSize() {
+        assertEquals(2, MoneyCodec.encodedSize(Money.rounded(usd, 1)));
+        assertEquals(4, MoneyCodec.encodedSize(Money.rounded(usd, -999999)));
+        assertTrue(MoneyCodec.encodedSize(Money.rounded(usd, 9999999999L)) <= 6);
+    }
+
+    @Test
+    public void testColumn() throws IOException {
+        MoneyColumn column = new MoneyColumn(usd, RoundingMode.HALF_UP).appendMinorUnitValues(
+            new long[] {1, -2, Long.MAX_VALUE, Long.MIN_VALUE}).append(usd.fromBasicUnitValue(1e20));
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        MoneyCodec.encode(column, buffer);
+        buffer.flip();
+        MoneyColumn decoded = MoneyCodec.decodeColumn(buffer, RoundingMode.HALF_UP);
+        assertFalse(buffer.hasRemaining());
+        assertArrayEquals(column.toArray(), decoded.toArray());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MoneyCodec.encode(column, new DataOutputStream(bytes));
+        assertArrayEquals(column.toArray(), MoneyCodec
+            .decodeColumn(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), RoundingMode.HALF_UP)
+            .toArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnregisteredCurrency() {
+        MoneyCodec.encode(new Currency("XXX", "X", 2).fromMinorUnitValue(1), ByteBuffer.allocate(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalCurrencyId() {
+        MoneyCodec.decode(ByteBuffer.wrap(new byte[] {(byte)0xFC, 0x7F, 0}));
+    }
+}
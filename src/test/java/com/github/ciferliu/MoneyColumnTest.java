@@ -0,0 +1,88 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MoneyColumnTest {
+
+    @Test
+    public void testSameAsCalculator() {
+        Random random = new Random(3);
+        Currency usd = CurrencyFactory.get("USD");
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(roundingMode);
+            double[] basicUnitValues = new double[1000];
+            for (int i = 0; i < basicUnitValues.length; i++) {
+                basicUnitValues[i] = (random.nextInt(2000000) - 1000000) / 1000.0;
+            }
+            Money fee = usd.fromBasicUnitValue(0.305);
+            MoneyColumn column = new MoneyColumn(usd, roundingMode);
+            column.appendBasicUnitValues(basicUnitValues).multiply(0.0725).add(fee);
+
+            calculator.init(usd.fromMinorUnitValue(0));
+            for (int i = 0; i < basicUnitValues.length; i++) {
+                Money expected = MoneyCalculator.fromRoundingMode(roundingMode)
+                    .init(usd.fromBasicUnitValue(basicUnitValues[i])).multiply(0.0725).add(fee).getResult();
+                assertEquals(expected, column.get(i));
+                calculator.add(expected);
+            }
+            assertEquals(calculator.getResult(), column.sum());
+        }
+    }
+
+    @Test
+    public void testRate() {
+        Currency usd = CurrencyFactory.get("USD");
+        Currency cny = CurrencyFactory.get("CNY");
+        long[] values = {1, -3, 123456789, Long.MAX_VALUE};
+        MoneyColumn byDouble =
+            new MoneyColumn(usd, RoundingMode.HALF_UP).appendMinorUnitValues(values).multiply(0.0725);
+        MoneyColumn byRate =
+            new MoneyColumn(usd, RoundingMode.HALF_UP).appendMinorUnitValues(values).multiply(Rate.of("0.0725"));
+        assertArrayEquals(byDouble.toArray(), byRate.toArray());
+
+        // a rate of 19 digits in long range, and a rate out of long range
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        for (Rate rate : new Rate[] {Rate.of("7.103412345678901234"), Rate.of("7.1034123456789012345678")}) {
+            MoneyColumn multiplied = byRate.fxByMultiply(cny, rate);
+            MoneyColumn divided = byRate.fxByDivide(cny, rate);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(calculator.init(byRate.get(i)).fxByMultiply(cny, rate).getResult(), multiplied.get(i));
+                assertEquals(calculator.init(byRate.get(i)).fxByDivide(cny, rate).getResult(), divided.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testOverflow() {
+        Currency cny = CurrencyFactory.get("CNY");
+        MoneyColumn column = new MoneyColumn(cny, RoundingMode.HALF_UP);
+        column.appendMinorUnitValues(new long[] {Long.MAX_VALUE, Long.MIN_VALUE, 1});
+        column.add(cny.fromMinorUnitValue(1));
+        assertEquals("CNY 92233720368547758.08", column.get(0).toString());
+        assertEquals("CNY -92233720368547758.07", column.get(1).toString());
+        assertEquals(2L, column.getMinorUnitValue(2));
+
+        column.subtract(cny.fromMinorUnitValue(1));
+        assertArrayEquals(new long[] {Long.MAX_VALUE, Long.MIN_VALUE, 1}, column.toMinorUnitValues());
+        assertEquals("CNY 0.00", column.sum().toString());
+    }
+
+    @Test
+    public void testElementWise() {
+        Currency cny = CurrencyFactory.get("CNY");
+        MoneyColumn column = new MoneyColumn(cny, RoundingMode.HALF_UP);
+        column.appendMinorUnitValues(new long[] {100, 200, 300});
+        MoneyColumn other = MoneyColumn.of(column.toArray(), RoundingMode.HALF_UP);
+        column.add(other).add(other).subtract(other);
+        assertArrayEquals(new long[] {200, 400, 600}, column.toMinorUnitValues());
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MoneyFormatTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testDefaultSameAsBigDecimal() {
+        Random random = new Random(13);
+        MoneyArithmetic arithmetic = MoneyArithmetic.fromRoundingMode(RoundingMode.HALF_UP);
+        for (int scale : new int[] {0, 2, 3, 8, 18, 20}) {
+            Currency currency = new Currency("X" + scale, "x", scale);
+            for (int i = 0; i < 2000; i++) {
+                long value = random.nextLong() >> random.nextInt(64);
+                Money rounded = Money.rounded(currency, value);
+                assertEquals(expected(rounded), rounded.toString());
+                Money unRounded = currency.fromMinorUnitValue(value);
+                assertEquals(expected(unRounded), unRounded.toString());
+                Money big = Money.rounded(currency, BigDecimal.valueOf(value, scale).multiply(BigDecimal.TEN));
+                assertEquals(expected(big), big.toString());
+            }
+            Money min = Money.rounded(currency, Long.MIN_VALUE);
+            assertEquals(expected(min), min.toString());
+        }
+        Money m = arithmetic.round(usd.fromBasicUnitValue(1e-9));
+        assertEquals("USD 0.00", m.toString());
+        assertEquals("USD 1.0E-9", usd.fromBasicUnitValue(1e-9).toString());
+    }
+
+    @Test
+    public void testGroupingAndSymbol() throws IOException {
+        MoneyFormat grouping = MoneyFormat.DEFAULT.withGrouping(',');
+        assertEquals("USD 1,234,567.89", grouping.format(usd.fromMinorUnitValue(123456789)));
+        assertEquals("USD -123,456.78", grouping.format(usd.fromMinorUnitValue(-12345678)));
+        assertEquals("USD 0.05", grouping.format(usd.fromMinorUnitValue(5)));
+        assertEquals("USD 1,000.5", grouping.format(usd.fromBasicUnitValue(1000.5)));
+        assertEquals("-US$1,000.00", grouping.withSymbol().format(Money.rounded(usd, -100000)));
+        assertEquals("USD 0.00000001", grouping.format(Money.rounded(usd, new BigDecimal("1E-8"))));
+
+        assertEquals("¥12.30", MoneyFormat.DEFAULT.withSymbol().format(Money.rounded(cny, 1230), new StringWriter())
+            .toString());
+        CharBuffer chars = CharBuffer.allocate(32);
+        MoneyFormat.DEFAULT.format(Money.rounded(cny, 1230), chars).flip();
+        assertEquals("CNY 12.30", chars.toString());
+        ByteBuffer bytes = ByteBuffer.allocate(32);
+        MoneyFormat.DEFAULT.withSymbol().format(Money.rounded(cny, -1230), bytes).flip();
+        assertEquals("-¥12.30", StandardCharsets.UTF_8.decode(bytes).toString());
+    }
+
+    @Test
+    public void testParse() {
+        Random random = new Random(14);
+        for (int i = 0; i < 2000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            Money rounded = usd.fromMinorUnitValue(value);
+            Money parsed = Money.parse(rounded.toString());
+            assertEquals(rounded, parsed);
+            Money unRounded = Money.unRound(cny, BigDecimal.valueOf(value, random.nextInt(30) - 5));
+            assertEquals(unRounded, Money.parse(unRounded.toString()));
+        }
+        Money m = Money.parse("usd 1.00");
+        assertEquals(100L, m.getMinorUnitValue());
+        assertEquals(m, MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).init(m).getResult());
+        assertEquals(usd.fromMinorUnitValue(123456789),
+            MoneyFormat.DEFAULT.withGrouping(',').parse(" USD  1,234,567.89 "));
+        assertEquals("USD 1.005", Money.parse("USD 1.005").toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseIllegal() {
+        Money.parse("USD 1.0x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownCurrency() {
+        Money.parse("XXX 1.00");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParseSymbol() {
+        MoneyFormat.DEFAULT.withSymbol().parse("US$1.00");
+    }
+
+    private static String expected(Money m) {
+        return m.getCurrency().getCode() + " " + m.basicUnitValue().toString();
+    }
+}
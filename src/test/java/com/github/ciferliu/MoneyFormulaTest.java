@@ -0,0 +1,97 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MoneyFormulaTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testApplySameAsCalculator() {
+        Money fixedFee = cny.fromBasicUnitValue(2.5);
+        Random random = new Random(10);
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            MoneyFormula formula = MoneyFormula.builder(cny, roundingMode).multiply(0.0035).add(fixedFee)
+                .fxByMultiply(usd, 0.1548).divide(3).subtract(usd.fromMinorUnitValue(1)).build();
+            MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(roundingMode);
+            for (int i = 0; i < 1000; i++) {
+                Money m = cny.fromMinorUnitValue(random.nextLong() >> random.nextInt(64));
+                Money expected = calculator.init(m).multiply(0.0035).add(fixedFee).fxByMultiply(usd, 0.1548)
+                    .divide(3).subtract(usd.fromMinorUnitValue(1)).getResult();
+                assertEquals(expected, formula.apply(m));
+            }
+        }
+    }
+
+    @Test
+    public void testRate() {
+        MoneyFormula byDouble = MoneyFormula.builder(cny, RoundingMode.HALF_UP).multiply(0.0035).divide(3)
+            .fxByMultiply(usd, 0.1548).build();
+        MoneyFormula byRate = MoneyFormula.builder(cny, RoundingMode.HALF_UP).multiply(Rate.of("0.0035"))
+            .divide(Rate.of(3, 0)).fxByMultiply(usd, Rate.of("0.1548")).build();
+        Rate longRate = Rate.of("0.1548123456789012345678");
+        MoneyFormula bigRate = MoneyFormula.builder(cny, RoundingMode.HALF_UP).fxByDivide(usd, longRate).build();
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Random random = new Random(11);
+        for (int i = 0; i < 1000; i++) {
+            Money m = cny.fromMinorUnitValue(random.nextLong() >> random.nextInt(64));
+            assertEquals(byDouble.apply(m), byRate.apply(m));
+            assertEquals(calculator.init(m).fxByDivide(usd, longRate).getResult(), bigRate.apply(m));
+        }
+    }
+
+    @Test
+    public void testApplyOverflow() {
+        MoneyFormula formula = MoneyFormula.builder(usd, RoundingMode.HALF_UP).multiply(100).fxByDivide(cny, 0.1548)
+            .add(cny.fromMinorUnitValue(Long.MAX_VALUE)).build();
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Money m = usd.fromMinorUnitValue(Long.MAX_VALUE / 3);
+        assertEquals(calculator.init(m).multiply(100).fxByDivide(cny, 0.1548)
+            .add(cny.fromMinorUnitValue(Long.MAX_VALUE)).getResult(), formula.apply(m));
+    }
+
+    @Test
+    public void testApplyBatch() {
+        MoneyFormula formula =
+            MoneyFormula.builder(usd, RoundingMode.HALF_EVEN).multiply(1.5).fxByMultiply(cny, 6.4567).build();
+        Money[] monies =
+            {usd.fromMinorUnitValue(1), usd.fromMinorUnitValue(-3), usd.fromMinorUnitValue(Long.MAX_VALUE)};
+        Money[] results = formula.apply(monies);
+        assertEquals(cny, results[0].getCurrency());
+        assertEquals(13L, results[0].getMinorUnitValue());
+        MoneyColumn column = formula.apply(MoneyColumn.of(monies, RoundingMode.HALF_EVEN));
+        assertEquals(cny, column.getCurrency());
+        assertArrayEquals(results, column.toArray());
+    }
+
+    @Test
+    public void testSameCurrencyFx() {
+        MoneyFormula formula = MoneyFormula.builder(usd, RoundingMode.HALF_UP).fxByMultiply(usd, 0).build();
+        assertEquals(usd, formula.getResultCurrency());
+        assertEquals(usd.fromMinorUnitValue(7), formula.apply(usd.fromMinorUnitValue(7)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildCurrencyNotSame() {
+        MoneyFormula.builder(usd, RoundingMode.HALF_UP).fxByMultiply(cny, 6.4567).add(usd.fromMinorUnitValue(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildDivideByZero() {
+        MoneyFormula.builder(usd, RoundingMode.HALF_UP).divide(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testApplyCurrencyNotSame() {
+        MoneyFormula.builder(usd, RoundingMode.HALF_UP).multiply(2).build().apply(cny.fromMinorUnitValue(1));
+    }
+}
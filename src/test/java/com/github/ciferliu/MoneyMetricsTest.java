@@ -0,0 +1,83 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MoneyMetricsTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testCalculatorMetrics() {
+        MoneyMetrics metrics = new MoneyMetrics();
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).withMetrics(metrics, 1);
+        MoneyCalculator plain = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+
+        Money m = Money.unRound(usd, new BigDecimal("10.005"));
+        Money result = calculator.init(m).add(Money.unRound(usd, new BigDecimal("1.004"))).multiply(1.5)
+            .divide(3).fxByMultiply(cny, 7.0665).getResult();
+        Money expected = plain.init(m).add(Money.unRound(usd, new BigDecimal("1.004"))).multiply(1.5).divide(3)
+            .fxByMultiply(cny, 7.0665).getResult();
+        assertEquals(expected, result);
+
+        assertEquals(1, metrics.getOperationCount(MoneyOperation.INIT, usd));
+        assertEquals(1, metrics.getOperationCount(MoneyOperation.ADD, usd));
+        assertEquals(1, metrics.getOperationCount(MoneyOperation.FX_BY_MULTIPLY, cny));
+        assertEquals(0, metrics.getOperationCount(MoneyOperation.FX_BY_MULTIPLY, usd));
+        assertEquals(1, metrics.getOperationCount(MoneyOperation.DIVIDE));
+
+        // 10.005 -> 10.01 (+0.005), 1.004 -> 1.00 (-0.004), 11.01 * 1.5 = 16.515 -> 16.52 (+0.005),
+        // 16.52 / 3 = 5.50666... -> 5.51 (+0.00333...)
+        assertEquals(4, metrics.getRoundingCount(RoundingMode.HALF_UP, usd));
+        BigDecimal drift = metrics.getRoundingResidual(RoundingMode.HALF_UP, usd);
+        assertEquals(0, new BigDecimal("0.00933").compareTo(drift.setScale(5, RoundingMode.HALF_UP)));
+        // 5.51 * 7.0665 = 38.936415 -> 38.94
+        assertEquals(0, new BigDecimal("0.003585").compareTo(metrics.getRoundingResidual(RoundingMode.HALF_UP, cny)));
+        assertEquals(0, metrics.getRoundingCount(RoundingMode.HALF_EVEN, usd));
+
+        long samples = 0;
+        for (MoneyOperation operation : MoneyOperation.values()) {
+            for (long count : metrics.getLatencyHistogram(operation)) {
+                samples += count;
+            }
+        }
+        assertEquals(5, samples);
+    }
+
+    @Test
+    public void testSink() {
+        List<String> events = new ArrayList<>();
+        MoneyMetricsSink sink = new MoneyMetricsSink() {
+            @Override
+            public void onOperation(MoneyOperation operation, Currency currency) {
+                events.add(operation + " " + currency.getCode());
+            }
+
+            @Override
+            public void onRounding(MoneyOperation operation, RoundingMode roundingMode, Currency currency,
+                BigDecimal residual) {
+                events.add("rounding " + residual.toPlainString());
+            }
+
+            @Override
+            public void onLatency(MoneyOperation operation, long nanos) {
+                events.add("latency");
+            }
+        };
+        FxRateProvider rates = (from, to) -> 2;
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.DOWN).withMetrics(sink, 2);
+        calculator.init(Money.rounded(usd, 101)).fxByMultiply(usd, rates).fxByMultiply(cny, rates).divide(3);
+        assertEquals("[INIT USD, FX_BY_MULTIPLY USD, latency, FX_BY_MULTIPLY CNY, DIVIDE CNY, "
+            + "rounding -0.0033333333333333333333333333333333, latency]", events.toString());
+
+        events.clear();
+        calculator.withMetrics(null).init(Money.rounded(usd, 101)).multiply(0.5);
+        assertEquals(0, events.size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class MoneyModuleTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testObjectShape() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new MoneyModule());
+        Money m = usd.fromMinorUnitValue(-123456);
+        Money rounded = Money.rounded(usd, -123456);
+        assertEquals("{\"currency\":\"USD\",\"amount\":-1234.56}", mapper.writeValueAsString(rounded));
+        assertEquals(rounded, mapper.readValue(mapper.writeValueAsString(rounded), Money.class));
+        assertEquals(m, mapper.readValue(mapper.writeValueAsString(m), Money.class));
+        Money big = Money.rounded(usd, new BigDecimal("123456789012345678901.23"));
+        assertEquals("{\"currency\":\"USD\",\"amount\":123456789012345678901.23}", mapper.writeValueAsString(big));
+        assertEquals(big, mapper.readValue(mapper.writeValueAsString(big), Money.class));
+    }
+
+    @Test
+    public void testLongCompactAmount() throws IOException {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < 80; i++) {
+            code.append('X');
+        }
+        Currency longCode = new Currency(code.toString(), "X", 2);
+        Currency bigScale = new Currency("XBS", "X", 70);
+        ObjectMapper mapper = new ObjectMapper().registerModule(new MoneyModule(MoneyModule.Shape.STRING));
+        for (Money m : new Money[] {Money.rounded(longCode, Long.MIN_VALUE), Money.rounded(bigScale, Long.MIN_VALUE),
+            Money.rounded(bigScale, 1)}) {
+            assertEquals("\"" + m + "\"", mapper.writeValueAsString(m));
+        }
+        mapper = new ObjectMapper().registerModule(new MoneyModule());
+        Money m = Money.rounded(bigScale, Long.MIN_VALUE);
+        assertEquals("{\"currency\":\"XBS\",\"amount\":" + m.basicUnitValue() + "}", mapper.writeValueAsString(m));
+    }
+
+    @Test
+    public void testStringShape() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new MoneyModule(MoneyModule.Shape.STRING));
+        Money m = cny.fromBasicUnitValue(1.005);
+        assertEquals("\"CNY 1.005\"", mapper.writeValueAsString(m));
+        assertEquals("\"CNY 0.10\"", mapper.writeValueAsString(Money.rounded(cny, 10)));
+        assertEquals(m, mapper.readValue("\"CNY 1.005\"", Money.class));
+    }
+
+    @Test
+    public void testMinorUnitShape() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new MoneyModule(MoneyModule.Shape.MINOR_UNIT));
+        Money m = Money.rounded(usd, Long.MIN_VALUE);
+        assertEquals("{\"currency\":\"USD\",\"minorUnitValue\":-9223372036854775808}", mapper.writeValueAsString(m));
+        assertEquals(m, mapper.readValue(mapper.writeValueAsString(m), Money.class));
+    }
+
+    @Test
+    public void testReadAnyOrder() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new MoneyModule());
+        assertEquals(Money.rounded(usd, 10),
+            mapper.readValue("{\"amount\":0.10,\"other\":[1,{}],\"currency\":\"usd\"}", Money.class));
+        assertEquals(Money.rounded(usd, 10),
+            mapper.readValue("{\"currency\":\"USD\",\"amount\":\"0.10\"}", Money.class));
+        Money[] monies = mapper.readValue("[{\"currency\":\"USD\",\"minorUnitValue\":1},\"CNY 2.00\"]", Money[].class);
+        assertEquals(Money.rounded(usd, 1), monies[0]);
+        assertEquals(Money.rounded(cny, 200), monies[1]);
+    }
+
+    @Test
+    public void testCurrency() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new MoneyModule());
+        assertEquals("\"USD\"", mapper.writeValueAsString(usd));
+        assertSame(usd, mapper.readValue("\"usd\"", Currency.class));
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void testUnknownCurrency() throws IOException {
+        new ObjectMapper().registerModule(new MoneyModule()).readValue("{\"currency\":\"XXX\",\"amount\":1}",
+            Money.class);
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void testIllegalAmount() throws IOException {
+        new ObjectMapper().registerModule(new MoneyModule()).readValue("{\"currency\":\"USD\",\"amount\":\"1x\"}",
+            Money.class);
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MoneyPipelineTest {
+    private final Currency cny = CurrencyFactory.get("CNY");
+    private final Currency usd = CurrencyFactory.get("USD");
+
+    @Test
+    public void testFormula() throws Exception {
+        MoneyFormula formula = MoneyFormula.builder(cny, RoundingMode.HALF_UP).multiply(0.003)
+            .add(cny.fromBasicUnitValue(2)).fxByMultiply(usd, 0.1548).build();
+        List<Money> results = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MoneyPipeline pipeline = MoneyPipeline.builder((input, result) -> results.add(result)).formula(formula)
+                .executor(executor).bufferSize(16).batchSize(5).build();
+            for (int i = 0; i < 1000; i++) {
+                pipeline.submit(cny.fromMinorUnitValue(i * 100));
+            }
+            pipeline.close();
+            assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(1000, pipeline.getProcessedCount());
+            assertEquals(0, pipeline.getFailedCount());
+            // in order, the same as the formula one by one
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(formula.apply(cny.fromMinorUnitValue(i * 100)), results.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Money> results = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            MoneyPipeline pipeline = MoneyPipeline.builder((input, result) -> {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                results.add(result);
+            }).executor(executor).bufferSize(4).batchSize(2).build();
+
+            pipeline.submit(usd.fromMinorUnitValue(0));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            // the handler is blocked, only the buffer is left
+            int accepted = 1;
+            while (pipeline.offer(usd.fromMinorUnitValue(accepted))) {
+                accepted++;
+            }
+            assertEquals(5, accepted);
+            assertEquals(4, pipeline.getBufferedCount());
+            assertFalse(pipeline.offer(usd.fromMinorUnitValue(-1), 10, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            pipeline.submit(usd.fromMinorUnitValue(accepted));
+            pipeline.close();
+            assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(accepted + 1, results.size());
+            for (int i = 0; i <= accepted; i++) {
+                assertEquals(usd.fromMinorUnitValue(i), results.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        MoneyFormula formula = MoneyFormula.builder(cny, RoundingMode.HALF_UP).multiply(2).build();
+        List<Money> results = Collections.synchronizedList(new ArrayList<>());
+        // runs in the caller thread
+        MoneyPipeline pipeline = MoneyPipeline.builder((input, result) -> results.add(result)).formula(formula)
+            .executor(Runnable::run).build();
+        pipeline.submit(cny.fromMinorUnitValue(100));
+        pipeline.submit(usd.fromMinorUnitValue(100));
+        pipeline.submit(cny.fromMinorUnitValue(300));
+        assertEquals(2, pipeline.getProcessedCount());
+        assertEquals(1, pipeline.getFailedCount());
+        assertEquals("currency is not same, can't do the calculation", pipeline.getLastError().getMessage());
+        assertEquals("[CNY 2.00, CNY 6.00]", results.toString());
+
+        assertFalse(pipeline.isTerminated());
+        pipeline.close();
+        assertTrue(pipeline.isTerminated());
+        try {
+            pipeline.submit(cny.fromMinorUnitValue(100));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("pipeline is closed", e.getMessage());
+        }
+        try {
+            MoneyPipeline.builder((input, result) -> {}).bufferSize(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("param is illegal", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testError() throws Exception {
+        List<Money> results = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> rethrown = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setUncaughtExceptionHandler((t, e) -> rethrown.add(e));
+            return thread;
+        });
+        try {
+            MoneyPipeline pipeline = MoneyPipeline.builder((input, result) -> {
+                if (result.getMinorUnitValue() % 7 == 3) {
+                    throw new AssertionError("broken handler");
+                }
+                results.add(result);
+            }).executor(executor).bufferSize(4).batchSize(3).build();
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(usd.fromMinorUnitValue(i));
+            }
+            pipeline.close();
+            // still drained after every Error, so neither submit nor the termination hangs
+            assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(86, pipeline.getProcessedCount());
+            assertEquals(14, pipeline.getFailedCount());
+            assertEquals(86, results.size());
+            for (int i = 1; i < results.size(); i++) {
+                assertTrue(results.get(i - 1).getMinorUnitValue() < results.get(i).getMinorUnitValue());
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(14, rethrown.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        ExecutorService executor;
+        try {
+            executor = MoneyPipeline.newVirtualThreadExecutor();
+        } catch (UnsupportedOperationException e) {
+            // before Java 21, there is no virtual thread executor
+            try {
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                fail();
+            } catch (NoSuchMethodException expected) {
+                // expected
+            }
+            return;
+        }
+        try {
+            List<Money> results = Collections.synchronizedList(new ArrayList<>());
+            MoneyPipeline pipeline =
+                MoneyPipeline.builder((input, result) -> results.add(result)).executor(executor).build();
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(usd.fromMinorUnitValue(i));
+            }
+            pipeline.close();
+            assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(100, results.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
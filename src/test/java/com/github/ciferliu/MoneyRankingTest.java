@@ -0,0 +1,161 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MoneyRankingTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+
+    @Test
+    public void testCompareTo() {
+        Money rounded = Money.rounded(usd, 100);
+        Money unRounded = Money.unRound(usd, 100);
+        assertEquals(0, rounded.compareTo(Money.rounded(usd, 100)));
+        assertTrue(rounded.compareTo(Money.rounded(usd, 101)) < 0);
+        assertTrue(Money.rounded(cny, 1000).compareTo(rounded) < 0);
+        // 1 and 1.00 are not equal, and ordered by scale
+        assertTrue(unRounded.compareTo(rounded) < 0);
+        assertTrue(rounded.compareTo(unRounded) > 0);
+        assertEquals(0, unRounded.compareTo(Money.unRound(usd, new BigDecimal("1"))));
+        assertTrue(Money.rounded(usd, new BigDecimal("1E+30")).compareTo(rounded) > 0);
+
+        Money[] monies = {rounded, Money.unRound(usd, new BigDecimal("0.999")), unRounded, Money.rounded(usd, -5),
+            Money.rounded(cny, 1), Money.rounded(usd, 100)};
+        for (Money m1 : monies) {
+            for (Money m2 : monies) {
+                assertEquals(m1.equals(m2), m1.compareTo(m2) == 0);
+                assertEquals(Integer.signum(m1.compareTo(m2)), -Integer.signum(m2.compareTo(m1)));
+            }
+        }
+    }
+
+    @Test
+    public void testSortLongs() {
+        Random random = new Random(22);
+        for (int n : new int[] {0, 10, 5000}) {
+            long[] values = new long[n];
+            for (int i = 0; i < n; i++) {
+                switch (i % 3) {
+                    case 0:
+                        values[i] = random.nextLong();
+                        break;
+                    case 1:
+                        values[i] = random.nextInt(1000) - 500;
+                        break;
+                    default:
+                        values[i] = i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+                }
+            }
+            long[] expected = values.clone();
+            Arrays.sort(expected);
+            MoneyRanking.sort(values);
+            assertArrayEquals(expected, values);
+        }
+        // only the low bytes differ
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000 - i;
+        }
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        MoneyRanking.sort(values, 0, values.length);
+        assertArrayEquals(expected, values);
+    }
+
+    @Test
+    public void testSortMonies() {
+        Random random = new Random(7);
+        Money[] monies = new Money[2000];
+        for (int i = 0; i < monies.length; i++) {
+            monies[i] = Money.rounded(usd, random.nextInt(100) - 50);
+        }
+        Money[] expected = monies.clone();
+        Arrays.sort(expected);
+        MoneyRanking.sort(monies);
+        assertArrayEquals(expected, monies);
+        for (int i = 1; i < monies.length; i++) {
+            assertTrue(monies[i - 1].compareTo(monies[i]) <= 0);
+        }
+
+        // mixed currencies fall back to the natural order
+        Money[] mixed = {Money.rounded(usd, 1), Money.rounded(cny, 2), Money.unRound(usd, 1)};
+        MoneyRanking.sort(mixed);
+        assertArrayEquals(new Money[] {Money.rounded(cny, 2), Money.unRound(usd, 1), Money.rounded(usd, 1)}, mixed);
+    }
+
+    @Test
+    public void testSortColumn() {
+        MoneyColumn column = new MoneyColumn(usd, RoundingMode.HALF_UP);
+        column.appendMinorUnitValues(new long[] {5, -3, 9, 0});
+        assertArrayEquals(new long[] {-3, 0, 5, 9}, column.sort().toMinorUnitValues());
+
+        column.append(Money.rounded(usd, new BigDecimal("1E+30"))).append(Money.rounded(usd, new BigDecimal("-1E+30")));
+        column.sort();
+        assertEquals(Money.rounded(usd, new BigDecimal("-1E+30")), column.get(0));
+        assertEquals(Money.rounded(usd, -3), column.get(1));
+        assertEquals(Money.rounded(usd, 9), column.get(4));
+        assertEquals(Money.rounded(usd, new BigDecimal("1E+30")), column.get(5));
+    }
+
+    @Test
+    public void testTopK() {
+        long[] values = {5, 9, -1, 9, 3, 7, 9};
+        assertArrayEquals(new int[] {1, 3, 6, 5}, MoneyRanking.topK(values, 4));
+        assertArrayEquals(new int[] {1, 3, 6, 5, 0, 4, 2}, MoneyRanking.topK(values, 100));
+        assertArrayEquals(new int[0], MoneyRanking.topK(values, 0));
+
+        Random random = new Random(3);
+        long[] large = new long[10000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = random.nextInt(1000000);
+        }
+        long[] sorted = large.clone();
+        Arrays.sort(sorted);
+        int[] top = MoneyRanking.topK(large, 50);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(sorted[sorted.length - 1 - i], large[top[i]]);
+        }
+
+        Money[] monies = {Money.rounded(usd, 5), Money.rounded(usd, 9), Money.unRound(usd, new BigDecimal("9.001"))};
+        assertArrayEquals(new Money[] {monies[2], monies[1]}, MoneyRanking.topK(monies, 2));
+
+        MoneyColumn column = new MoneyColumn(usd, RoundingMode.HALF_UP).appendMinorUnitValues(values);
+        assertArrayEquals(new int[] {1, 3}, MoneyRanking.topK(column, 2));
+        column.append(Money.rounded(usd, new BigDecimal("1E+30")));
+        assertArrayEquals(new int[] {7, 1, 3}, MoneyRanking.topK(column, 3));
+    }
+
+    @Test
+    public void testCountInRange() {
+        long[] values = {5, 9, -1, 9, 3, 7, 9};
+        assertEquals(3, MoneyRanking.countInRange(values, 3, 9));
+        assertEquals(0, MoneyRanking.countInRange(values, 9, 3));
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(3, MoneyRanking.countInSortedRange(sorted, 3, 9));
+        assertEquals(7, MoneyRanking.countInSortedRange(sorted, Long.MIN_VALUE, Long.MAX_VALUE));
+
+        MoneyColumn column = new MoneyColumn(usd, RoundingMode.HALF_UP).appendMinorUnitValues(values);
+        // [0.025, 0.09) -> [0.03, 0.09)
+        assertEquals(3, MoneyRanking.countInRange(column, Money.unRound(usd, new BigDecimal("0.025")),
+            Money.rounded(usd, 9)));
+        column.append(Money.rounded(usd, new BigDecimal("1E+30")));
+        assertEquals(4, MoneyRanking.countInRange(column, Money.rounded(usd, 9),
+            Money.rounded(usd, new BigDecimal("1E+31"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCountInRangeCurrencyNotSame() {
+        MoneyRanking.countInRange(new MoneyColumn(usd, RoundingMode.HALF_UP), Money.rounded(cny, 0),
+            Money.rounded(usd, 1));
+    }
+}
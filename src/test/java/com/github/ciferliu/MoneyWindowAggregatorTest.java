@@ -0,0 +1,77 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MoneyWindowAggregatorTest {
+    private final Currency cny = CurrencyFactory.get("CNY");
+    private final Currency usd = CurrencyFactory.get("USD");
+    private long now;
+
+    @Test
+    public void testWindows() {
+        List<MoneyWindow> windows = new ArrayList<>();
+        MoneyWindowAggregator aggregator =
+            new MoneyWindowAggregator(1000, RoundingMode.HALF_UP, windows::add, () -> now);
+
+        now = 10500;
+        aggregator.accept(null, usd.fromMinorUnitValue(100));
+        aggregator.accept(null, cny.fromBasicUnitValue(1.005));
+        now = 10999;
+        aggregator.accept(null, usd.fromMinorUnitValue(250));
+        assertFalse(aggregator.advance());
+        assertTrue(windows.isEmpty());
+
+        // the first result after the end closes the window
+        now = 11000;
+        aggregator.accept(null, usd.fromMinorUnitValue(1));
+        assertEquals(1, windows.size());
+        MoneyWindow window = windows.get(0);
+        assertEquals(10000, window.getStart());
+        assertEquals(11000, window.getEnd());
+        assertEquals(3, window.getCount());
+        assertEquals("USD 3.50", window.getTotal(usd).toString());
+        assertEquals("CNY 1.01", window.getTotal(cny).toString());
+        assertEquals(2, window.getTotals().length);
+
+        // no result for a while, closed by the timer
+        now = 15000;
+        assertTrue(aggregator.advance());
+        assertEquals(2, windows.size());
+        assertEquals(11000, windows.get(1).getStart());
+        assertNull(windows.get(1).getTotal(cny));
+        assertFalse(aggregator.flush());
+    }
+
+    @Test
+    public void testPipeline() throws Exception {
+        List<MoneyWindow> windows = new ArrayList<>();
+        MoneyWindowAggregator aggregator = new MoneyWindowAggregator(60000, RoundingMode.HALF_UP, windows::add);
+        MoneyFormula fee = MoneyFormula.builder(cny, RoundingMode.HALF_UP).multiply(0.01).build();
+        MoneyPipeline pipeline = MoneyPipeline.builder(aggregator).formula(fee).bufferSize(64).build();
+        for (int i = 0; i < 10000; i++) {
+            pipeline.submit(cny.fromMinorUnitValue(10000));
+        }
+        pipeline.close();
+        assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+        aggregator.flush();
+
+        long count = 0;
+        long total = 0;
+        for (MoneyWindow window : windows) {
+            count += window.getCount();
+            total += window.getTotal(cny).getMinorUnitValue();
+        }
+        assertEquals(10000, count);
+        assertEquals(1000000, total);
+    }
+}
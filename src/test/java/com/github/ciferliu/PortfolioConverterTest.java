@@ -0,0 +1,115 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PortfolioConverterTest {
+    private Currency usd = CurrencyFactory.get("USD");
+    private Currency cny = CurrencyFactory.get("CNY");
+    private FxRateRegistry registry =
+        new FxRateRegistry(FxRateSnapshot.builder(usd, 1).rate(cny, 6.4567).build());
+
+    @Test
+    public void testConvertSameAsCalculator() {
+        Money[] positions = positions(20000);
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            PortfolioConverter converter = PortfolioConverter.fromRoundingMode(roundingMode);
+            MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(roundingMode);
+            Money[] multiplied = new Money[positions.length];
+            Money[] divided = new Money[positions.length];
+            Money zero = usd.fromMinorUnitValue(0);
+            MoneyCalculator multipliedTotal = MoneyCalculator.fromRoundingMode(roundingMode).init(zero);
+            MoneyCalculator dividedTotal = MoneyCalculator.fromRoundingMode(roundingMode).init(zero);
+            for (int i = 0; i < positions.length; i++) {
+                Money m = positions[i];
+                multiplied[i] =
+                    calculator.init(m).fxByMultiply(usd, registry.getRate(m.getCurrency(), usd)).getResult();
+                divided[i] = calculator.init(m).fxByDivide(usd, registry.getRate(usd, m.getCurrency())).getResult();
+                multipliedTotal.add(multiplied[i]);
+                dividedTotal.add(divided[i]);
+            }
+            Money multipliedSum = multipliedTotal.getResult();
+            Money dividedSum = dividedTotal.getResult();
+
+            PortfolioConversion<Money[]> result = converter.convertByMultiply(positions, usd, registry);
+            assertArrayEquals(multiplied, result.getPositions());
+            assertEquals(multipliedSum, result.getTotal());
+            result = converter.parallelConvertByMultiply(positions, usd, registry);
+            assertArrayEquals(multiplied, result.getPositions());
+            assertEquals(multipliedSum, result.getTotal());
+
+            result = converter.convertByDivide(positions, usd, registry);
+            assertArrayEquals(divided, result.getPositions());
+            assertEquals(dividedSum, result.getTotal());
+            result = converter.parallelConvertByDivide(positions, usd, registry);
+            assertArrayEquals(divided, result.getPositions());
+            assertEquals(dividedSum, result.getTotal());
+        }
+    }
+
+    @Test
+    public void testConvertGroups() {
+        PortfolioConverter converter = PortfolioConverter.fromRoundingMode(RoundingMode.HALF_EVEN);
+        MoneyColumn cnyColumn = new MoneyColumn(cny, RoundingMode.HALF_EVEN).appendMinorUnitValues(
+            new long[] {100, 65, -65, Long.MAX_VALUE});
+        MoneyColumn usdColumn = new MoneyColumn(usd, RoundingMode.HALF_EVEN).appendMinorUnitValues(new long[] {1, 2});
+        MoneyColumn[] groups = {cnyColumn, usdColumn};
+
+        PortfolioConversion<MoneyColumn[]> result = converter.parallelConvertByMultiply(groups, usd, registry);
+        Money[] positions = new Money[cnyColumn.size() + usdColumn.size()];
+        System.arraycopy(cnyColumn.toArray(), 0, positions, 0, cnyColumn.size());
+        System.arraycopy(usdColumn.toArray(), 0, positions, cnyColumn.size(), usdColumn.size());
+        PortfolioConversion<Money[]> expected = converter.convertByMultiply(positions, usd, registry);
+
+        assertEquals(2, result.getPositions().length);
+        assertEquals(usd, result.getPositions()[0].getCurrency());
+        assertArrayEquals(new long[] {15, 10, -10},
+            Arrays.copyOf(result.getPositions()[0].toMinorUnitValues(), 3));
+        assertArrayEquals(new long[] {1, 2}, result.getPositions()[1].toMinorUnitValues());
+        assertEquals(expected.getTotal(), result.getTotal());
+        assertEquals(expected.getTotal(), converter.convertByMultiply(groups, usd, registry).getTotal());
+    }
+
+    @Test
+    public void testConvertEmpty() {
+        PortfolioConverter converter = PortfolioConverter.fromRoundingMode(RoundingMode.HALF_UP);
+        Money zero = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP).init(usd.fromMinorUnitValue(0)).getResult();
+        assertEquals(zero, converter.convertByMultiply(new Money[0], usd, registry).getTotal());
+    }
+
+    @Test
+    public void testConvertUnregisteredCurrency() {
+        Currency hkd = new Currency("HKD", "HK$", 2);
+        FxRateProvider rates = (from, to) -> from.equals(hkd) ? 0.1288 : 1;
+        PortfolioConverter converter = PortfolioConverter.fromRoundingMode(RoundingMode.HALF_UP);
+        Money[] positions = {hkd.fromBasicUnitValue(100), usd.fromBasicUnitValue(1)};
+        PortfolioConversion<Money[]> result = converter.convertByMultiply(positions, usd, rates);
+        assertEquals(1288L, result.getPositions()[0].getMinorUnitValue());
+        assertEquals(1388L, result.getTotal().getMinorUnitValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConvertZeroRate() {
+        PortfolioConverter.fromRoundingMode(RoundingMode.HALF_UP)
+            .convertByMultiply(new Money[] {cny.fromBasicUnitValue(1)}, usd, (from, to) -> 0);
+    }
+
+    private Money[] positions(int n) {
+        Random random = new Random(9);
+        Money[] positions = new Money[n];
+        for (int i = 0; i < n; i++) {
+            Currency currency = random.nextBoolean() ? cny : usd;
+            positions[i] = currency.fromMinorUnitValue(random.nextInt(2000001) - 1000000);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.ciferliu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RateTest {
+
+    @Test
+    public void testOf() {
+        assertEquals(BigDecimal.valueOf(0.1), Rate.of(0.1).toBigDecimal());
+        assertEquals(Rate.of(0.1), Rate.of("0.1"));
+        assertEquals(Rate.of("7.1034"), Rate.of(71034, 4));
+        assertEquals(Rate.of(new BigDecimal("1E-4")), Rate.of(" 1E-4 "));
+        assertNotEquals(Rate.of("0.10"), Rate.of("0.1"));
+        assertEquals("0.0725", Rate.of("0.0725").toString());
+        assertEquals(4, Rate.of("0.0725").getScale());
+        assertFalse(Rate.of("12345678901234567890").isCompact());
+        assertTrue(Rate.of(Long.MAX_VALUE, 2).isCompact());
+
+        for (String illegal : new String[] {null, "", "abc", "1.2.3"}) {
+            try {
+                Rate.of(illegal);
+                fail(illegal);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            Rate.of(Double.NaN);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSameAsDouble() {
+        Random random = new Random(19);
+        Currency usd = CurrencyFactory.get("USD");
+        Currency cny = CurrencyFactory.get("CNY");
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            MoneyArithmetic arithmetic = MoneyArithmetic.fromRoundingMode(roundingMode);
+            for (int i = 0; i < 5000; i++) {
+                // up to products far out of long range
+                Money m = usd.fromMinorUnitValue(random.nextLong() >> random.nextInt(64));
+                double rate = (random.nextInt(2000000) + 1) / (random.nextBoolean() ? 10000.0 : 1.0E9);
+                Rate exactRate = Rate.of(rate);
+
+                assertSameValue(reference(m, rate, usd, false, roundingMode), arithmetic.multiply(m, exactRate));
+                assertSameValue(arithmetic.multiply(m, rate), arithmetic.multiply(m, exactRate));
+                assertSameValue(reference(m, rate, usd, true, roundingMode), arithmetic.divide(m, exactRate));
+                assertSameValue(arithmetic.divide(m, rate), arithmetic.divide(m, exactRate));
+                assertSameValue(reference(m, rate, cny, false, roundingMode),
+                    arithmetic.fxByMultiply(m, cny, exactRate));
+                assertSameValue(reference(m, rate, cny, true, roundingMode), arithmetic.fxByDivide(m, cny, exactRate));
+            }
+        }
+    }
+
+    /**
+     * the BigDecimal path of the double methods
+     */
+    private static Money reference(Money m, double rate, Currency targetCurrency, boolean divide,
+        RoundingMode roundingMode) {
+        BigDecimal value = divide
+            ? m.basicUnitValue().divide(BigDecimal.valueOf(rate), targetCurrency.getScale(), roundingMode)
+            : m.basicUnitValue().multiply(BigDecimal.valueOf(rate)).divide(BigDecimal.ONE,
+                targetCurrency.getScale(), roundingMode);
+        return Money.rounded(targetCurrency, value);
+    }
+
+    private static void assertSameValue(Money expected, Money actual) {
+        assertEquals(expected.getCurrency(), actual.getCurrency());
+        assertEquals(expected.basicUnitValue(), actual.basicUnitValue());
+    }
+
+    @Test
+    public void testCalculator() {
+        MoneyCalculator calculator = MoneyCalculator.fromRoundingMode(RoundingMode.HALF_UP);
+        Money m = CurrencyFactory.get("USD").fromMinorUnitValue(10000);
+        Money expected = calculator.init(m).multiply(1.075).divide(3).fxByMultiply(CurrencyFactory.get("CNY"), 7.1034)
+            .fxByDivide(CurrencyFactory.get("USD"), 7.1034).getResult();
+        Money actual = calculator.init(m).multiply(Rate.of("1.075")).divide(Rate.of(3, 0))
+            .fxByMultiply(CurrencyFactory.get("CNY"), Rate.of("7.1034"))
+            .fxByDivide(CurrencyFactory.get("USD"), Rate.of("7.1034")).getResult();
+        assertEquals(expected, actual);
+
+        MoneyMetrics metrics = new MoneyMetrics();
+        calculator.withMetrics(metrics, 1).init(m).multiply(Rate.of("0.333"));
+        assertEquals(1, metrics.getOperationCount(MoneyOperation.MULTIPLY));
+        assertEquals("USD 33.30", calculator.getResult().toString());
+    }
+
+    @Test
+    public void testIllegal() {
+        MoneyArithmetic arithmetic = MoneyArithmetic.fromRoundingMode(RoundingMode.HALF_UP);
+        Money m = CurrencyFactory.get("USD").fromMinorUnitValue(100);
+        try {
+            arithmetic.divide(m, Rate.ZERO);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("rate can't be zero", e.getMessage());
+        }
+        try {
+            arithmetic.multiply(m, (Rate)null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("argument can't be null", e.getMessage());
+        }
+        // same currency, nothing is converted
+        assertEquals(arithmetic.round(m), arithmetic.fxByMultiply(m, CurrencyFactory.get("USD"), Rate.ZERO));
+        assertFalse(Rate.ONE.equals(Rate.ZERO));
+    }
+}